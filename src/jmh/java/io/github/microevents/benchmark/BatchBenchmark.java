@@ -0,0 +1,58 @@
+package io.github.microevents.benchmark;
+
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.BatchListener;
+import io.github.microevents.events.EventManager;
+import io.github.microevents.events.Priority;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * compares invoking a batch of events one by one against {@link EventManager#invokeAll(Class, io.github.microevents.events.Event[])},
+ * with plain listeners and with a {@link BatchListener}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBenchmark {
+	@Param({"16", "1024"})
+	public int batch;
+
+	@Param({"plain", "batch"})
+	public String listener;
+
+	private EventManager manager;
+	private CancellableBenchEvent[] events;
+
+	@Setup
+	public void setup() {
+		manager = new MicroEventManager();
+		manager.registerEvent(CancellableBenchEvent.class);
+		for (int i = 0; i < 10; i++)
+			if ("batch".equals(listener))
+				manager.registerListener(CancellableBenchEvent.class, (BatchListener<CancellableBenchEvent>) (events, size) -> {
+					for (int j = 0; j < size; j++)
+						events[j].hits++;
+				}, Priority.values()[i % 7], false);
+			else manager.registerListener(CancellableBenchEvent.class, e -> e.hits++, Priority.values()[i % 7], false);
+		events = new CancellableBenchEvent[batch];
+		for (int i = 0; i < batch; i++)
+			events[i] = new CancellableBenchEvent();
+	}
+
+	@Benchmark
+	public int loop() {
+		for (CancellableBenchEvent event : events)
+			manager.invoke(event);
+		return events[0].hits;
+	}
+
+	@Benchmark
+	public int invokeAll() {
+		manager.invokeAll(CancellableBenchEvent.class, events);
+		return events[0].hits;
+	}
+}
@@ -0,0 +1,10 @@
+package io.github.microevents.benchmark;
+
+import io.github.microevents.events.Event;
+
+/**
+ * a plain, non cancellable event, the listeners just bump the counter so the calls can't be eliminated
+ */
+public class BenchEvent implements Event {
+	public int hits;
+}
@@ -0,0 +1,18 @@
+package io.github.microevents.benchmark;
+
+import io.github.microevents.events.Cancellable;
+
+public class CancellableBenchEvent implements Cancellable {
+	public int hits;
+	private boolean cancelled;
+
+	@Override
+	public void cancel(boolean val) {
+		cancelled = val;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
@@ -0,0 +1,41 @@
+package io.github.microevents.benchmark;
+
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventManager;
+import io.github.microevents.events.Priority;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * measures the short circuit of a {@link io.github.microevents.events.Cancellable} event that is cancelled by a
+ * {@link Priority#TOP} listener, everything after TOP should be skipped
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CancelledBenchmark {
+	@Param({"1", "100", "10000"})
+	public int listeners;
+
+	private EventManager manager;
+	private final CancellableBenchEvent event = new CancellableBenchEvent();
+
+	@Setup
+	public void setup() {
+		manager = new MicroEventManager();
+		manager.registerEvent(CancellableBenchEvent.class);
+		manager.registerListener(CancellableBenchEvent.class, e -> e.cancel(true), Priority.TOP, false);
+		for (int i = 0; i < listeners; i++)
+			manager.registerListener(CancellableBenchEvent.class, e -> e.hits++, Priority.NORMAL, false);
+	}
+
+	@Benchmark
+	public int cancelledAtTop() {
+		event.cancel(false);
+		manager.invoke(event);
+		return event.hits;
+	}
+}
@@ -0,0 +1,91 @@
+package io.github.microevents.benchmark;
+
+import io.github.microevents.ConcurrentMicroEventHandler;
+import io.github.microevents.GeneratedEventHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventManager;
+import io.github.microevents.events.Priority;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * measures {@link EventManager#invoke(io.github.microevents.events.Event)} for the exact type, sub type,
+ * {@link io.github.microevents.events.Cancellable} and non cancellable paths with a growing amount of listeners, for
+ * the default, the copy on write and the generated handler.
+ * the events are reused between invocations so the gc profiler only reports what the dispatch itself allocates
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+	@Param({"1", "10", "100", "1000", "10000"})
+	public int listeners;
+
+	@Param({"MicroEventHandler", "ConcurrentMicroEventHandler", "GeneratedEventHandler"})
+	public String handler;
+
+	private EventManager manager;
+	private final BenchEvent exact = new BenchEvent();
+	private final SubBenchEvent sub = new SubBenchEvent();
+	private final CancellableBenchEvent cancellable = new CancellableBenchEvent();
+	private final SubCancellableBenchEvent cancellableSub = new SubCancellableBenchEvent();
+
+	@Setup
+	public void setup() {
+		switch (handler) {
+			case "ConcurrentMicroEventHandler":
+				manager = new MicroEventManager(ConcurrentMicroEventHandler::new);
+				break;
+			case "GeneratedEventHandler":
+				manager = new MicroEventManager(GeneratedEventHandler::new);
+				break;
+			default:
+				manager = new MicroEventManager();
+		}
+		manager.registerEvent(BenchEvent.class);
+		manager.registerEvent(SubBenchEvent.class);
+		manager.registerEvent(CancellableBenchEvent.class);
+		manager.registerEvent(SubCancellableBenchEvent.class);
+		for (int i = 0; i < listeners; i++) {
+			manager.registerListener(BenchEvent.class, e -> e.hits++, Priority.NORMAL, true);
+			manager.registerListener(CancellableBenchEvent.class, e -> e.hits++, Priority.NORMAL, true);
+		}
+	}
+
+	@Benchmark
+	public int exact() {
+		manager.invoke(exact);
+		return exact.hits;
+	}
+
+	@Benchmark
+	public int sub() {
+		manager.invoke(sub);
+		return sub.hits;
+	}
+
+	@Benchmark
+	public int cancellable() {
+		manager.invoke(cancellable);
+		return cancellable.hits;
+	}
+
+	@Benchmark
+	public int cancellableSub() {
+		manager.invoke(cancellableSub);
+		return cancellableSub.hits;
+	}
+
+	/**
+	 * same as {@link #exact()} but with a freshly allocated event every time, like the old StressTesting did
+	 */
+	@Benchmark
+	public int exactAllocating() {
+		BenchEvent event = new BenchEvent();
+		manager.invoke(event);
+		return event.hits;
+	}
+}
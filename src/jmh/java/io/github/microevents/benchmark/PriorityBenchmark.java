@@ -0,0 +1,55 @@
+package io.github.microevents.benchmark;
+
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventManager;
+import io.github.microevents.events.Priority;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * measures how the spread of listeners over the {@link Priority}s affects dispatch, a spread of a single priority puts
+ * all the listeners into that one, ALL round robins them over every priority
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PriorityBenchmark {
+	private static final Priority[] PRIORITIES = Priority.values();
+
+	@Param({"TOP", "LOWEST", "LOW", "NORMAL", "HIGH", "HIGHEST", "FINAL", "ALL"})
+	public String spread;
+
+	@Param({"7", "700"})
+	public int listeners;
+
+	private EventManager manager;
+	private final BenchEvent event = new BenchEvent();
+	private final CancellableBenchEvent cancellable = new CancellableBenchEvent();
+
+	@Setup
+	public void setup() {
+		manager = new MicroEventManager();
+		manager.registerEvent(BenchEvent.class);
+		manager.registerEvent(CancellableBenchEvent.class);
+		for (int i = 0; i < listeners; i++) {
+			Priority priority = "ALL".equals(spread) ? PRIORITIES[i % PRIORITIES.length] : Priority.valueOf(spread);
+			manager.registerListener(BenchEvent.class, e -> e.hits++, priority, false);
+			manager.registerListener(CancellableBenchEvent.class, e -> e.hits++, priority, false);
+		}
+	}
+
+	@Benchmark
+	public int plain() {
+		manager.invoke(event);
+		return event.hits;
+	}
+
+	@Benchmark
+	public int cancellable() {
+		manager.invoke(cancellable);
+		return cancellable.hits;
+	}
+}
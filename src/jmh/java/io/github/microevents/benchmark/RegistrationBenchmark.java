@@ -0,0 +1,69 @@
+package io.github.microevents.benchmark;
+
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventListener;
+import io.github.microevents.events.EventManager;
+import io.github.microevents.events.Priority;
+import it.unimi.dsi.fastutil.longs.LongList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * measures {@link EventManager#registerEventListeners(Object)} / {@link EventManager#unregister(long)} churn, like
+ * objects that register their listeners when they spawn and remove them when they despawn. the already registered
+ * listeners show how removal scales with the amount of listeners that stay
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RegistrationBenchmark {
+	@Param({"0", "1000", "10000"})
+	public int registered;
+
+	private EventManager manager;
+
+	@Setup
+	public void setup() {
+		manager = new MicroEventManager();
+		manager.registerEvent(BenchEvent.class);
+		manager.registerEvent(SubBenchEvent.class);
+		manager.registerEvent(CancellableBenchEvent.class);
+		for (int i = 0; i < registered; i++)
+			manager.registerListener(BenchEvent.class, e -> e.hits++, Priority.NORMAL, false);
+	}
+
+	@Benchmark
+	public LongList registerAndUnregisterInstance() {
+		LongList ids = manager.registerEventListeners(new Listeners()).ids();
+		for (int i = 0; i < ids.size(); i++)
+			manager.unregister(ids.getLong(i));
+		return ids;
+	}
+
+	@Benchmark
+	public long registerAndUnregisterListener() {
+		long id = manager.registerListener(BenchEvent.class, e -> e.hits++, Priority.NORMAL, false);
+		manager.unregister(id);
+		return id;
+	}
+
+	public static class Listeners {
+		@EventListener
+		public final void plain(BenchEvent event) {
+			event.hits++;
+		}
+
+		@EventListener(subEvents = true, priority = Priority.HIGH)
+		public final void sub(BenchEvent event) {
+			event.hits++;
+		}
+
+		@EventListener(priority = Priority.FINAL)
+		public final void cancellable(CancellableBenchEvent event) {
+			event.hits++;
+		}
+	}
+}
@@ -0,0 +1,3 @@
+package io.github.microevents.benchmark;
+
+public class SubBenchEvent extends BenchEvent {}
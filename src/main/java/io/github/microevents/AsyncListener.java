@@ -0,0 +1,38 @@
+package io.github.microevents;
+
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * a listener that hands the event to another listener on an executor instead of running it, it sits in the handler at
+ * the priority of the wrapped listener so it's skipped like any other listener once the event is cancelled
+ *
+ * @param <E> the event type
+ */
+class AsyncListener<E extends Event> implements Listener<E> {
+	private final Listener<E> listener;
+	private final Executor executor;
+	// the futures of the invokeAsync running on this thread, null for plain invokes
+	private final ThreadLocal<List<CompletableFuture<?>>> pending;
+
+	AsyncListener(Listener<E> listener, Executor executor, ThreadLocal<List<CompletableFuture<?>>> pending) {
+		this.listener = listener;
+		this.executor = executor;
+		this.pending = pending;
+	}
+
+	@Override
+	public void listen(E event) {
+		List<CompletableFuture<?>> futures = pending.get();
+		if (futures == null) executor.execute(() -> listener.accept(event));
+		else futures.add(CompletableFuture.runAsync(() -> listener.accept(event), executor));
+	}
+
+	@Override
+	public String toString() {
+		return listener.toString();
+	}
+}
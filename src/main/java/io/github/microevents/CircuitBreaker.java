@@ -0,0 +1,68 @@
+package io.github.microevents;
+
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * unregisters the listeners that threw too many exceptions, passing every exception to another handler first. the
+ * counts are dropped once the listeners are unregistered, so a listener that gets a reused id starts over
+ */
+public class CircuitBreaker implements ExceptionHandler {
+	private static final Logger LOGGER = Logger.getLogger("MicroEventManager");
+
+	private final ExceptionHandler handler;
+	private final int maxFailures;
+	private final Long2ObjectMap<AtomicInteger> failures = Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>());
+
+	/**
+	 * creates a new circuit breaker
+	 *
+	 * @param handler the handler every exception is passed to, like a {@link LoggingExceptionHandler}
+	 * @param maxFailures the amount of exceptions after which a listener is unregistered
+	 */
+	public CircuitBreaker(ExceptionHandler handler, int maxFailures) {
+		this.handler = handler;
+		this.maxFailures = maxFailures;
+	}
+
+	@Override
+	public boolean handle(long listenerID, Listener<?> listener, Event event, Throwable throwable) {
+		boolean unregister = handler.handle(listenerID, listener, event, throwable);
+		AtomicInteger count;
+		synchronized (failures) {
+			count = failures.computeIfAbsent(listenerID, id -> new AtomicInteger());
+		}
+		if (count.incrementAndGet() == maxFailures) {
+			LOGGER.warning("listener " + listenerID + " (" + listener + ") threw " + maxFailures + " exceptions, it will be unregistered");
+			failures.remove(listenerID);
+			return true;
+		}
+		return unregister;
+	}
+
+	/**
+	 * @return the amount of exceptions the listener threw since it was last reset
+	 */
+	public int getFailures(long listenerID) {
+		AtomicInteger count = failures.get(listenerID);
+		return count == null ? 0 : count.get();
+	}
+
+	/**
+	 * forgets the exceptions of a listener
+	 */
+	public void reset(long listenerID) {
+		failures.remove(listenerID);
+	}
+
+	@Override
+	public void unregistered(long listenerID) {
+		failures.remove(listenerID);
+		handler.unregistered(listenerID);
+	}
+}
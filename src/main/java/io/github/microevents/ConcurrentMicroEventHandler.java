@@ -0,0 +1,177 @@
+package io.github.microevents;
+
+import io.github.microevents.events.*;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import java.util.Arrays;
+
+/**
+ * a copy on write {@link EventHandler}, listeners can be registered and removed from any thread while events are being
+ * invoked. readers only see immutable snapshots, writers build a new snapshot and publish it in one volatile write
+ *
+ * @param <E> the event type
+ */
+public class ConcurrentMicroEventHandler<E extends Event> implements EventHandler<E> {
+	// the current listeners, never mutated after it was published
+	protected volatile Snapshot<E> snapshot = new Snapshot<>(new Listener[7][], new int[7][]);
+
+	@Override
+	public EventHandler<E> newHandler() {
+		return new ConcurrentMicroEventHandler<>();
+	}
+
+	@Override
+	public synchronized void register(int id, Listener<E> listener, Priority priority) {
+		int ordinal = priority.ordinal();
+		Snapshot<E> current = snapshot;
+		Listener<E>[][] listeners = current.listeners.clone();
+		int[][] ids = current.ids.clone();
+		int length = ids[ordinal].length;
+		listeners[ordinal] = Arrays.copyOf(listeners[ordinal], length + 1);
+		ids[ordinal] = Arrays.copyOf(ids[ordinal], length + 1);
+		listeners[ordinal][length] = listener;
+		ids[ordinal][length] = id;
+		snapshot = new Snapshot<>(listeners, ids);
+	}
+
+	// one new snapshot for all of them
+	@Override
+	public synchronized void registerAll(int[] newIds, Listener<E>[] newListeners, Priority[] priorities, int size) {
+		if (size == 0) return;
+		Snapshot<E> current = snapshot;
+		Listener<E>[][] listeners = current.listeners.clone();
+		int[][] ids = current.ids.clone();
+		int[] added = new int[7], lengths = new int[7];
+		for (int i = 0; i < size; i++)
+			added[priorities[i].ordinal()]++;
+		for (int priority = 0; priority < 7; priority++) {
+			lengths[priority] = ids[priority].length;
+			if (added[priority] == 0) continue;
+			listeners[priority] = Arrays.copyOf(listeners[priority], lengths[priority] + added[priority]);
+			ids[priority] = Arrays.copyOf(ids[priority], lengths[priority] + added[priority]);
+		}
+		for (int i = 0; i < size; i++) {
+			int ordinal = priorities[i].ordinal(), index = lengths[ordinal]++;
+			listeners[ordinal][index] = newListeners[i];
+			ids[ordinal][index] = newIds[i];
+		}
+		snapshot = new Snapshot<>(listeners, ids);
+	}
+
+	@Override
+	public synchronized void remove(int id) {
+		int ordinal = id & 7;
+		Snapshot<E> current = snapshot;
+		int[] old = current.ids[ordinal];
+		for (int i = 0; i < old.length; i++)
+			if (old[i] == id) {
+				Listener<E>[][] listeners = current.listeners.clone();
+				int[][] ids = current.ids.clone();
+				listeners[ordinal] = remove(listeners[ordinal], i);
+				ids[ordinal] = remove(old, i);
+				snapshot = new Snapshot<>(listeners, ids);
+				return;
+			}
+	}
+
+	// one new snapshot for all of them
+	@Override
+	public synchronized void removeAll(int[] removed, int size) {
+		IntSet set = new IntOpenHashSet(removed, 0, size);
+		Snapshot<E> current = snapshot;
+		Listener<E>[][] listeners = current.listeners.clone();
+		int[][] ids = current.ids.clone();
+		boolean changed = false;
+		for (int priority = 0; priority < 7; priority++) {
+			int[] old = ids[priority];
+			int alive = 0;
+			for (int id : old)
+				if (!set.contains(id)) alive++;
+			if (alive == old.length) continue;
+			Listener<E>[] kept = new Listener[alive];
+			int[] keptIds = new int[alive];
+			for (int i = 0, j = 0; i < old.length; i++)
+				if (!set.contains(old[i])) {
+					kept[j] = listeners[priority][i];
+					keptIds[j++] = old[i];
+				}
+			listeners[priority] = kept;
+			ids[priority] = keptIds;
+			changed = true;
+		}
+		if (changed) snapshot = new Snapshot<>(listeners, ids);
+	}
+
+	@Override
+	public void invoke(E event, boolean sub) {
+		Snapshot<E> snapshot = this.snapshot; // only read once, so the whole invoke sees the same listeners
+		if ((sub ? snapshot.hasSub : snapshot.hasAny) == 0) return;
+		Listener<E>[][] listeners = sub ? snapshot.subListeners : snapshot.listeners;
+		if (event instanceof Cancellable) {
+			Cancellable cancellable = (Cancellable) event;
+			for (Listener<E> listener : listeners[0]) // TOP ignores cancels
+				listener.accept(event);
+			for (int priority = 1; priority < 7; priority++)
+				for (Listener<E> listener : listeners[priority])
+					if (cancellable.isCancelled()) return;
+					else listener.accept(event);
+		} else for (Listener<E>[] priority : listeners)
+			for (Listener<E> listener : priority)
+				listener.accept(event);
+	}
+
+	private static Listener[] remove(Listener[] array, int index) {
+		Listener[] copy = new Listener[array.length - 1];
+		System.arraycopy(array, 0, copy, 0, index);
+		System.arraycopy(array, index + 1, copy, index, copy.length - index);
+		return copy;
+	}
+
+	private static int[] remove(int[] array, int index) {
+		int[] copy = new int[array.length - 1];
+		System.arraycopy(array, 0, copy, 0, index);
+		System.arraycopy(array, index + 1, copy, index, copy.length - index);
+		return copy;
+	}
+
+	/**
+	 * an immutable view of the listeners of the handler, organized by priority
+	 *
+	 * @param <E> the event type
+	 */
+	protected static final class Snapshot<E extends Event> {
+		private static final Listener[] EMPTY = new Listener[0];
+		private static final int[] NO_IDS = new int[0];
+
+		// all of the listeners and their ids, by priority
+		final Listener<E>[][] listeners;
+		final int[][] ids;
+		// only the listeners that listen to sub events, precomputed so invoking for sub events doesn't check each id
+		final Listener<E>[][] subListeners = new Listener[7][];
+		// if there are any listeners / sub listeners at all
+		final byte hasAny, hasSub;
+
+		Snapshot(Listener<E>[][] listeners, int[][] ids) {
+			this.listeners = listeners;
+			this.ids = ids;
+			byte any = 0, sub = 0;
+			for (int priority = 0; priority < 7; priority++) {
+				if (listeners[priority] == null) {
+					listeners[priority] = EMPTY;
+					ids[priority] = NO_IDS;
+				}
+				int count = 0;
+				for (int id : ids[priority])
+					if ((id >>> 15 & 1) == 1) count++;
+				Listener<E>[] subs = new Listener[count];
+				for (int i = 0, j = 0; i < ids[priority].length; i++)
+					if ((ids[priority][i] >>> 15 & 1) == 1) subs[j++] = listeners[priority][i];
+				subListeners[priority] = subs;
+				if (listeners[priority].length != 0) any |= 1 << priority;
+				if (count != 0) sub |= 1 << priority;
+			}
+			this.hasAny = any;
+			this.hasSub = sub;
+		}
+	}
+}
@@ -0,0 +1,302 @@
+package io.github.microevents;
+
+import io.github.microevents.GeneratedEventHandler.Dispatcher;
+import io.github.microevents.events.Cancellable;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * writes the class files of the {@link Dispatcher}s for {@link GeneratedEventHandler}, each listener gets it's own call
+ * site so the JIT profiles (and inlines) them separately instead of seeing one megamorphic call in a loop. guarded
+ * listeners are called inside a try catch of their own, with the listener they guard as the receiver. the classes are
+ * written as version 49 so they don't need stack map frames
+ */
+class DispatcherGenerator {
+	private static final String PACKAGE = "io/github/microevents/generated/";
+	private static final String DISPATCHER = Dispatcher.class.getName().replace('.', '/');
+	private static final String LISTENER = Listener.class.getName().replace('.', '/');
+	private static final String EVENT = 'L' + Event.class.getName().replace('.', '/') + ';';
+	private static final String CANCELLABLE = 'L' + Cancellable.class.getName().replace('.', '/') + ';';
+	private static final String LISTENERS = "[L" + LISTENER + ';';
+	private static final String THROWABLE = "java/lang/Throwable";
+
+	// opcodes
+	private static final int ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, ALOAD_2 = 0x2c, ASTORE_2 = 0x4d, ICONST_0 = 0x03, BIPUSH = 0x10,
+		SIPUSH = 0x11, AALOAD = 0x32, IFEQ = 0x99, IFNE = 0x9a, GOTO = 0xa7, RETURN = 0xb1, GETFIELD = 0xb4,
+		INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7, INVOKEINTERFACE = 0xb9;
+
+	private static final AtomicInteger COUNTER = new AtomicInteger();
+
+	private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+	private final DataOutputStream poolOut = new DataOutputStream(pool);
+	private final Object2IntMap<String> entries = new Object2IntOpenHashMap<>();
+	private int poolSize = 1;
+
+	/**
+	 * @return a new unique binary name for a dispatcher class
+	 */
+	static String nextName() {
+		return (PACKAGE + "Dispatcher$" + COUNTER.incrementAndGet()).replace('/', '.');
+	}
+
+	/**
+	 * generates a new dispatcher class for the listeners
+	 *
+	 * @param name the binary name of the class
+	 * @param guarded which of the listeners are {@link GuardedListener}s
+	 * @param top the amount of {@link io.github.microevents.events.Priority#TOP} listeners
+	 * @param subGuarded which of the listeners for sub events are guarded
+	 * @param subTop the amount of TOP listeners for sub events
+	 * @return the class file of the dispatcher
+	 */
+	static byte[] generate(String name, boolean[] guarded, int top, boolean[] subGuarded, int subTop) {
+		return new DispatcherGenerator().write(name.replace('.', '/'), guarded, top, subGuarded, subTop);
+	}
+
+	private byte[] write(String name, boolean[] guarded, int top, boolean[] subGuarded, int subTop) {
+		try {
+			int self = classEntry(name), parent = classEntry(DISPATCHER);
+			ByteArrayOutputStream methods = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(methods);
+
+			// constructor, just passes the arrays to the super class
+			ByteArrayOutputStream init = new ByteArrayOutputStream();
+			init.write(ALOAD_0);
+			init.write(ALOAD_1);
+			init.write(ALOAD_2);
+			init.write(INVOKESPECIAL);
+			writeShort(init, methodEntry(DISPATCHER, "<init>", '(' + LISTENERS + LISTENERS + ")V", false));
+			init.write(RETURN);
+			method(out, 0x0001, "<init>", '(' + LISTENERS + LISTENERS + ")V", new Code(init.toByteArray()), 3, 3);
+
+			method(out, 0x0004, "all", '(' + EVENT + ")V", calls("listeners", "unguarded", guarded, 0, -1), 4, 3);
+			method(out, 0x0004, "cancellable", '(' + CANCELLABLE + ")V", calls("listeners", "unguarded", guarded, 0, top), 4, 3);
+			method(out, 0x0004, "sub", '(' + EVENT + ")V", calls("subListeners", "unguardedSubs", subGuarded, guarded.length, -1), 4, 3);
+			method(out, 0x0004, "subCancellable", '(' + CANCELLABLE + ")V", calls("subListeners", "unguardedSubs", subGuarded, guarded.length, subTop), 4, 3);
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream file = new DataOutputStream(bytes);
+			file.writeInt(0xCAFEBABE);
+			file.writeShort(0);
+			file.writeShort(49);
+			poolOut.flush();
+			file.writeShort(poolSize);
+			pool.writeTo(file);
+			file.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+			file.writeShort(self);
+			file.writeShort(parent);
+			file.writeShort(0); // interfaces
+			file.writeShort(0); // fields
+			file.writeShort(5);
+			out.flush();
+			methods.writeTo(file);
+			file.writeShort(0); // attributes
+			file.flush();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * writes the calls to the listeners, a guarded listener is skipped once it's tripped, and it's exceptions are
+	 * caught and passed to {@link Dispatcher#failed(int, Event, Throwable)}
+	 *
+	 * @param field the field of the listeners, they're called with {@link Listener#accept(Object)}
+	 * @param unguardedField the field of the listeners inside the guarded ones, they're called with {@link Listener#listen(Event)}
+	 * @param guarded which of the listeners are guarded
+	 * @param offset the index of the first listener in the dispatcher's guards
+	 * @param top the amount of listeners that ignore cancels, or -1 if the event can't be cancelled
+	 */
+	private Code calls(String field, String unguardedField, boolean[] guarded, int offset, int top) throws IOException {
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		ByteArrayOutputStream exceptions = new ByteArrayOutputStream();
+		int handlers = 0;
+		int array = fieldEntry(DISPATCHER, field, LISTENERS), unguarded = fieldEntry(DISPATCHER, unguardedField, LISTENERS);
+		int accept = methodEntry(LISTENER, "accept", '(' + EVENT + ")V", true);
+		int listen = methodEntry(LISTENER, "listen", '(' + EVENT + ")V", true);
+		int tripped = methodEntry(DISPATCHER, "tripped", "(I)Z", false);
+		int failed = methodEntry(DISPATCHER, "failed", "(I" + EVENT + 'L' + THROWABLE + ";)V", false);
+		int throwable = classEntry(THROWABLE);
+		int isCancelled = top == -1 ? 0 : methodEntry(CANCELLABLE.substring(1, CANCELLABLE.length() - 1), "isCancelled", "()Z", true);
+		for (int i = 0; i < guarded.length; i++) {
+			if (top != -1 && i >= top) { // if cancelled return
+				code.write(ALOAD_1);
+				code.write(INVOKEINTERFACE);
+				writeShort(code, isCancelled);
+				code.write(1);
+				code.write(0);
+				code.write(IFEQ);
+				writeShort(code, 4);
+				code.write(RETURN);
+			}
+			if (!guarded[i]) {
+				load(code, array, i);
+				code.write(ALOAD_1);
+				code.write(INVOKEINTERFACE);
+				writeShort(code, accept);
+				code.write(2);
+				code.write(0);
+				continue;
+			}
+			// catch (Throwable t) { failed(guard, event, t); }
+			ByteArrayOutputStream handler = new ByteArrayOutputStream();
+			handler.write(ASTORE_2);
+			handler.write(ALOAD_0);
+			push(handler, offset + i);
+			handler.write(ALOAD_1);
+			handler.write(ALOAD_2);
+			handler.write(INVOKEVIRTUAL);
+			writeShort(handler, failed);
+
+			// try { unguarded[i].listen(event); }
+			ByteArrayOutputStream call = new ByteArrayOutputStream();
+			load(call, unguarded, i);
+			call.write(ALOAD_1);
+			call.write(INVOKEINTERFACE);
+			writeShort(call, listen);
+			call.write(2);
+			call.write(0);
+
+			// if (!tripped(guard))
+			code.write(ALOAD_0);
+			push(code, offset + i);
+			code.write(INVOKEVIRTUAL);
+			writeShort(code, tripped);
+			code.write(IFNE);
+			writeShort(code, 3 + call.size() + 3 + handler.size());
+			int start = code.size();
+			call.writeTo(code);
+			int end = code.size();
+			code.write(GOTO);
+			writeShort(code, 3 + handler.size());
+			writeShort(exceptions, start);
+			writeShort(exceptions, end);
+			writeShort(exceptions, code.size());
+			writeShort(exceptions, throwable);
+			handlers++;
+			handler.writeTo(code);
+		}
+		code.write(RETURN);
+		return new Code(code.toByteArray(), exceptions.toByteArray(), handlers);
+	}
+
+	// pushes the listener of the array field
+	private static void load(ByteArrayOutputStream code, int field, int index) {
+		code.write(ALOAD_0);
+		code.write(GETFIELD);
+		writeShort(code, field);
+		push(code, index);
+		code.write(AALOAD);
+	}
+
+	private static void push(ByteArrayOutputStream code, int value) {
+		if (value <= 5) code.write(ICONST_0 + value);
+		else if (value <= Byte.MAX_VALUE) {
+			code.write(BIPUSH);
+			code.write(value);
+		} else {
+			code.write(SIPUSH);
+			writeShort(code, value);
+		}
+	}
+
+	private void method(DataOutputStream out, int access, String name, String descriptor, Code code, int maxStack, int maxLocals) throws IOException {
+		out.writeShort(access);
+		out.writeShort(utf8(name));
+		out.writeShort(utf8(descriptor));
+		out.writeShort(1);
+		out.writeShort(utf8("Code"));
+		out.writeInt(12 + code.code.length + code.exceptions.length);
+		out.writeShort(maxStack);
+		out.writeShort(maxLocals);
+		out.writeInt(code.code.length);
+		out.write(code.code);
+		out.writeShort(code.handlers);
+		out.write(code.exceptions);
+		out.writeShort(0); // attributes
+	}
+
+	private static void writeShort(ByteArrayOutputStream out, int val) {
+		out.write(val >>> 8);
+		out.write(val);
+	}
+
+	private int utf8(String val) throws IOException {
+		int index = entries.getOrDefault("U" + val, 0);
+		if (index == 0) {
+			poolOut.writeByte(1);
+			poolOut.writeUTF(val);
+			entries.put("U" + val, index = poolSize++);
+		}
+		return index;
+	}
+
+	private int classEntry(String name) throws IOException {
+		int index = entries.getOrDefault("C" + name, 0);
+		if (index == 0) {
+			int utf = utf8(name);
+			poolOut.writeByte(7);
+			poolOut.writeShort(utf);
+			entries.put("C" + name, index = poolSize++);
+		}
+		return index;
+	}
+
+	private int nameAndType(String name, String descriptor) throws IOException {
+		String key = "N" + name + ' ' + descriptor;
+		int index = entries.getOrDefault(key, 0);
+		if (index == 0) {
+			int n = utf8(name), d = utf8(descriptor);
+			poolOut.writeByte(12);
+			poolOut.writeShort(n);
+			poolOut.writeShort(d);
+			entries.put(key, index = poolSize++);
+		}
+		return index;
+	}
+
+	private int fieldEntry(String owner, String name, String descriptor) throws IOException {
+		return member(9, owner, name, descriptor);
+	}
+
+	private int methodEntry(String owner, String name, String descriptor, boolean isInterface) throws IOException {
+		return member(isInterface ? 11 : 10, owner, name, descriptor);
+	}
+
+	private int member(int tag, String owner, String name, String descriptor) throws IOException {
+		String key = "M" + tag + owner + ' ' + name + ' ' + descriptor;
+		int index = entries.getOrDefault(key, 0);
+		if (index == 0) {
+			int o = classEntry(owner), nt = nameAndType(name, descriptor);
+			poolOut.writeByte(tag);
+			poolOut.writeShort(o);
+			poolOut.writeShort(nt);
+			entries.put(key, index = poolSize++);
+		}
+		return index;
+	}
+
+	// the bytecode of a method, and it's exception table
+	private static final class Code {
+		final byte[] code, exceptions;
+		final int handlers;
+
+		Code(byte[] code, byte[] exceptions, int handlers) {
+			this.code = code;
+			this.exceptions = exceptions;
+			this.handlers = handlers;
+		}
+
+		Code(byte[] code) {
+			this(code, new byte[0], 0);
+		}
+	}
+}
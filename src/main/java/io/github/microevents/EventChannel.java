@@ -0,0 +1,163 @@
+package io.github.microevents;
+
+import io.github.microevents.events.Priority;
+import io.github.microevents.util.IDHolder;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * the base of the primitive event channels, for the hottest events that are just a couple of numbers. a channel has
+ * no event objects, generics or boxing, firing it is a single volatile read and a loop over an array of listeners
+ * sorted by priority. listeners are registered copy on write, so they can be registered from any thread while the
+ * channel is fired.
+ * <p>
+ * like events, {@link Priority#TOP} listeners are all called even if one of them cancels, the listeners after the
+ * one that cancelled aren't. the ids of unregistered listeners are given to new ones, like the ids of a manager. the
+ * exceptions of the listeners go to an {@link ExceptionHandler}, like the ones of a manager's, and count as not
+ * cancelling
+ *
+ * @param <L> the listener type
+ */
+public abstract class EventChannel<L> {
+	// the ids have 28 bits below the priority
+	private static final int MAX_LISTENERS = 1 << 28;
+
+	private final IntFunction<L[]> arrays;
+	// the current listeners, never mutated after it was published
+	protected volatile Snapshot<L> snapshot;
+	private final IDHolder idHolder = new IDHolder(64, MAX_LISTENERS);
+	private volatile ExceptionHandler exceptionHandler = new LoggingExceptionHandler();
+
+	protected EventChannel(IntFunction<L[]> arrays) {
+		this.arrays = arrays;
+		this.snapshot = new Snapshot<>(arrays.apply(0), new int[0], 0);
+	}
+
+	/**
+	 * registers a listener, after the ones of the same priority
+	 *
+	 * @return the listener id
+	 */
+	public synchronized int register(L listener, Priority priority) {
+		Snapshot<L> current = snapshot;
+		int length = current.listeners.length, index = 0;
+		while (index < length && current.ids[index] >>> 28 <= priority.ordinal())
+			index++;
+		if (idHolder.full())
+			throw new IllegalArgumentException("cannot register more than " + MAX_LISTENERS + " listeners!");
+		int id = idHolder.next() | priority.ordinal() << 28;
+		L[] listeners = arrays.apply(length + 1);
+		int[] ids = new int[length + 1];
+		System.arraycopy(current.listeners, 0, listeners, 0, index);
+		System.arraycopy(current.ids, 0, ids, 0, index);
+		listeners[index] = listener;
+		ids[index] = id;
+		System.arraycopy(current.listeners, index, listeners, index + 1, length - index);
+		System.arraycopy(current.ids, index, ids, index + 1, length - index);
+		snapshot = new Snapshot<>(listeners, ids, top(ids));
+		return id;
+	}
+
+	/**
+	 * removes a listener
+	 *
+	 * @return if it was registered
+	 */
+	public synchronized boolean unregister(int id) {
+		Snapshot<L> current = snapshot;
+		for (int i = 0; i < current.ids.length; i++)
+			if (current.ids[i] == id) {
+				idHolder.remove(id & MAX_LISTENERS - 1);
+				exceptionHandler.unregistered(id);
+				L[] listeners = arrays.apply(current.listeners.length - 1);
+				System.arraycopy(current.listeners, 0, listeners, 0, i);
+				System.arraycopy(current.listeners, i + 1, listeners, i, listeners.length - i);
+				int[] ids = new int[listeners.length];
+				System.arraycopy(current.ids, 0, ids, 0, i);
+				System.arraycopy(current.ids, i + 1, ids, i, ids.length - i);
+				snapshot = new Snapshot<>(listeners, ids, top(ids));
+				return true;
+			}
+		return false;
+	}
+
+	/**
+	 * sets what happens to the exceptions thrown by the listeners, by default at most 10 per second are logged. the
+	 * handler gets the listener's id, no listener and no event, listeners it asks to unregister are unregistered right
+	 * away
+	 *
+	 * @param exceptionHandler the exception handler
+	 */
+	public void setExceptionHandler(ExceptionHandler exceptionHandler) {
+		this.exceptionHandler = Objects.requireNonNull(exceptionHandler, "exceptionHandler");
+	}
+
+	/**
+	 * @return the exception handler
+	 */
+	public ExceptionHandler exceptionHandler() {
+		return exceptionHandler;
+	}
+
+	/**
+	 * @return the amount of listeners
+	 */
+	public int size() {
+		return snapshot.listeners.length;
+	}
+
+	/**
+	 * calls the listeners in priority order, the values are widened to longs so every channel shares the loop
+	 *
+	 * @return if the event was cancelled
+	 */
+	protected final boolean dispatch(long a, long b) {
+		Snapshot<L> snapshot = this.snapshot; // only read once, so the whole fire sees the same listeners
+		L[] listeners = snapshot.listeners;
+		boolean cancelled = false;
+		for (int i = 0, top = snapshot.top; i < listeners.length && !(cancelled && i >= top); i++)
+			try {
+				cancelled |= listen(listeners[i], a, b);
+			} catch (Throwable t) {
+				exception(snapshot.ids[i], t); // counts as not cancelling
+			}
+		return cancelled;
+	}
+
+	// kept out of the fire loop, it's rarely called
+	private void exception(int id, Throwable throwable) {
+		if (exceptionHandler.handle(id, null, null, throwable)) unregister(id);
+	}
+
+	/**
+	 * calls one listener with the values {@link #dispatch(long, long)} got, narrowed back to the listener's types
+	 *
+	 * @return if the listener cancelled the event
+	 */
+	protected abstract boolean listen(L listener, long a, long b);
+
+	// the amount of TOP listeners, they're first
+	private static int top(int[] ids) {
+		int top = 0;
+		while (top < ids.length && ids[top] >>> 28 == 0)
+			top++;
+		return top;
+	}
+
+	/**
+	 * the listeners of a channel in priority order, with their ids
+	 */
+	protected static final class Snapshot<L> {
+		final L[] listeners;
+		// the priority is in the top 4 bits of the id
+		final int[] ids;
+		// the amount of TOP listeners at the start of the array
+		final int top;
+
+		Snapshot(L[] listeners, int[] ids, int top) {
+			this.listeners = listeners;
+			this.ids = ids;
+			this.top = top;
+		}
+	}
+}
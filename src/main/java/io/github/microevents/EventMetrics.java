@@ -0,0 +1,99 @@
+package io.github.microevents;
+
+import io.github.microevents.events.BatchListener;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.EventHandler;
+import io.github.microevents.events.Listener;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * the invoke counts and latencies of every event class, and the execution time and exceptions of every listener of a
+ * {@link MicroEventManager}, recorded while they're enabled with {@link MicroEventManager#enableMetrics()}
+ */
+public class EventMetrics implements EventMetricsMXBean {
+	// the amount of listeners getSlowestListeners returns
+	private static final int SLOWEST = 20;
+
+	private final Map<Class<?>, EventStats> events = new ConcurrentHashMap<>();
+	private final Map<Long, ListenerStats> listeners = new ConcurrentHashMap<>();
+
+	EventMetrics() {}
+
+	/**
+	 * @param eventClass the concrete class of the events
+	 * @return the stats of the event class, or null if it was never registered or invoked while the metrics were enabled
+	 */
+	public EventStats event(Class<?> eventClass) {
+		return events.get(eventClass);
+	}
+
+	/**
+	 * @param listenerID the listener id
+	 * @return the stats of the listener, or null if it's not registered
+	 */
+	public ListenerStats listener(long listenerID) {
+		return listeners.get(listenerID);
+	}
+
+	/**
+	 * @return a live view of the stats of every event class
+	 */
+	public Collection<EventStats> events() {
+		return Collections.unmodifiableCollection(events.values());
+	}
+
+	/**
+	 * @return a live view of the stats of every registered listener
+	 */
+	public Collection<ListenerStats> listeners() {
+		return Collections.unmodifiableCollection(listeners.values());
+	}
+
+	@Override
+	public List<EventStats> getEvents() {
+		return events.values().stream().sorted(Comparator.comparingLong(EventStats::getTotalNanos).reversed()).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<ListenerStats> getSlowestListeners() {
+		return listeners.values().stream().sorted(Comparator.comparingLong(ListenerStats::getTotalNanos).reversed()).limit(SLOWEST).collect(Collectors.toList());
+	}
+
+	@Override
+	public void reset() {
+		events.values().forEach(EventStats::reset);
+		listeners.values().forEach(ListenerStats::reset);
+	}
+
+	/**
+	 * registers the metrics as an MXBean named io.github.microevents:type=EventMetrics,name=[name]
+	 *
+	 * @param server the server to register to, usually {@link java.lang.management.ManagementFactory#getPlatformMBeanServer()}
+	 * @param name the name of the manager
+	 * @return the name of the bean, to unregister it
+	 * @throws JMException if the bean couldn't be registered
+	 */
+	public ObjectName register(MBeanServer server, String name) throws JMException {
+		ObjectName objectName = new ObjectName("io.github.microevents:type=EventMetrics,name=" + ObjectName.quote(name));
+		server.registerMBean(this, objectName);
+		return objectName;
+	}
+
+	<E extends Event> EventHandler<E> instrument(Class<?> eventClass, EventHandler<E> handler) {
+		return new InstrumentedEventHandler<>(handler, events.computeIfAbsent(eventClass, EventStats::new));
+	}
+
+	<E extends Event> Listener<E> instrument(long id, Class<?> eventClass, Listener<E> listener) {
+		ListenerStats stats = listeners.computeIfAbsent(id, i -> new ListenerStats(i, eventClass, listener));
+		return listener instanceof BatchListener ? new InstrumentedListener.Batch<>((BatchListener<E>) listener, stats) : new InstrumentedListener<>(listener, stats);
+	}
+
+	void remove(long id) {
+		listeners.remove(id);
+	}
+}
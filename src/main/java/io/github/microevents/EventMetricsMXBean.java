@@ -0,0 +1,23 @@
+package io.github.microevents;
+
+import java.util.List;
+
+/**
+ * the JMX view of the {@link EventMetrics}
+ */
+public interface EventMetricsMXBean {
+	/**
+	 * @return the stats of every event class that was invoked, the slowest (by total time) first
+	 */
+	List<EventStats> getEvents();
+
+	/**
+	 * @return the stats of the listeners that took the most time in total, the slowest first
+	 */
+	List<ListenerStats> getSlowestListeners();
+
+	/**
+	 * sets every count and latency back to 0
+	 */
+	void reset();
+}
@@ -0,0 +1,178 @@
+package io.github.microevents;
+
+import io.github.microevents.events.EventCodec;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * a ring of fixed size slots in a memory mapped file, events are encoded straight into the mapped memory so other
+ * processes can follow them with an {@link EventRingReader}. publishing never blocks or waits for readers, when the
+ * ring is full the oldest events are overwritten and slow readers skip them.
+ * <p>
+ * every slot starts with it's marker, the sequence + 1 once the slot is written or the negated sequence + 1 while it's
+ * written, then the type and the length of the encoded event. a writer claims the slot by swapping the marker with a
+ * cas, which also keeps the event from being written before the claim, and publishes it with an ordered write after
+ * the event, so readers that see the marker see the whole event and can tell if the slot was overwritten while they
+ * read it, see {@link SlotMarkers}. the file is in the native byte order, so it's meant to be read on the same machine
+ * <p>
+ * two writers a full lap apart map to the same slot. the newer one waits until the older one published it's event,
+ * and an older writer that finds the slot already claimed by a newer sequence drops it's event, so a slot never has
+ * two writers at once
+ * <p>
+ * the file is replaced when the ring is created, readers of the old file keep reading it until it's
+ * {@link EventRingReader#isStale() stale}. the mapping is released when the ring is garbage collected
+ */
+public class EventRingFile implements AutoCloseable {
+	static final Logger LOGGER = Logger.getLogger("MicroEventManager");
+
+	// the header, at the start of the file
+	static final int MAGIC = 0x4D455246, VERSION = 1;
+	static final int MAGIC_OFFSET = 0, VERSION_OFFSET = 4, SLOT_SIZE_OFFSET = 8, SLOTS_OFFSET = 12, NEXT_OFFSET = 16, CLOSED_OFFSET = 24;
+	static final int HEADER = 64;
+	// the start of every slot, marker, type and length
+	static final int RECORD_HEADER = 16;
+
+	private final Path path;
+	private final MappedByteBuffer mapped;
+	// the markers are written through it
+	private final SlotMarkers markers;
+	private final int slotSize, mask;
+	// the next sequence
+	private final AtomicLong next = new AtomicLong();
+	private final LongAdder dropped = new LongAdder();
+	// every thread has it's own view of the mapping, so they can set the position and limit for their codec
+	private final ThreadLocal<Writer> writers;
+	private volatile boolean closed;
+
+	/**
+	 * creates the ring file, replacing the file at the path
+	 *
+	 * @param path the file
+	 * @param slotSize the max size of an encoded event, it's rounded up to a multiple of 8 after the slot header is added
+	 * @param slots the amount of slots, must be a power of 2
+	 * @throws IOException if the file couldn't be created
+	 */
+	public EventRingFile(Path path, int slotSize, int slots) throws IOException {
+		if (Integer.bitCount(slots) != 1) throw new IllegalArgumentException("slots must be a power of 2, was " + slots);
+		if (slotSize <= 0) throw new IllegalArgumentException("slotSize must be positive, was " + slotSize);
+		this.slotSize = (slotSize + RECORD_HEADER + 7) & ~7;
+		long size = HEADER + (long) slots * this.slotSize;
+		if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("the ring can't be larger than 2GB, was " + size + " bytes");
+		this.path = path;
+		this.mask = slots - 1;
+
+		// the header is written to a new file that's moved to the path, so readers never see a half written header
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+		mapped.order(ByteOrder.nativeOrder());
+		markers = new SlotMarkers(mapped);
+		mapped.putInt(VERSION_OFFSET, VERSION).putInt(SLOT_SIZE_OFFSET, this.slotSize).putInt(SLOTS_OFFSET, slots).putInt(MAGIC_OFFSET, MAGIC);
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		this.writers = ThreadLocal.withInitial(() -> new Writer(mapped));
+	}
+
+	/**
+	 * writes an event to the next slot
+	 *
+	 * @param type the type of the event, readers pick the codec with it
+	 * @param event the event
+	 * @param codec the codec that writes it
+	 * @return if the event was written, false if it was too large, the codec failed, a writer a lap ahead took it's slot
+	 * or the ring is closed. errors thrown by the codec are rethrown once the slot was published as dropped
+	 */
+	public <E> boolean publish(int type, E event, EventCodec<? super E> codec) {
+		if (closed) return false;
+		long sequence = next.getAndIncrement();
+		int slot = HEADER + (int) (sequence & mask) * slotSize;
+		if (!claim(slot, sequence)) {
+			dropped.increment();
+			return false;
+		}
+		ByteBuffer buffer = null;
+		int length = -1;
+		try {
+			buffer = writers.get().buffer;
+			buffer.clear();
+			buffer.limit(slot + slotSize);
+			buffer.position(slot + RECORD_HEADER);
+			codec.encode(event, buffer);
+			length = buffer.position() - slot - RECORD_HEADER;
+		} catch (BufferOverflowException e) {
+			// too large, dropped
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.SEVERE, "unable to encode " + event + " with " + codec, e);
+		} finally {
+			// the slot is always published, a claimed slot that never is would stall the readers and the next lap's writer
+			if (length < 0) dropped.increment();
+			if (buffer != null) buffer.clear(); // the absolute puts are checked against the limit
+			mapped.putInt(slot + 8, type).putInt(slot + 12, length);
+			// the event is visible before the marker that publishes it
+			markers.putOrdered(slot, sequence + 1);
+			// only a hint of where readers should start, concurrent writers may set it a bit behind
+			mapped.putLong(NEXT_OFFSET, sequence + 1);
+		}
+		return length >= 0;
+	}
+
+	// swaps the marker of the slot to the negated sequence, false if a newer sequence already has the slot
+	private boolean claim(int slot, long sequence) {
+		while (true) {
+			long current = markers.getVolatile(slot);
+			if (Math.abs(current) > sequence) return false;
+			if (current < 0) Thread.yield(); // a writer a lap behind is still writing it
+			else if (markers.compareAndSet(slot, current, -(sequence + 1))) return true;
+		}
+	}
+
+	/**
+	 * @return the file
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * @return the amount of events that were too large or couldn't be encoded
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	/**
+	 * @return the amount of events published, including the dropped ones
+	 */
+	public long getPublished() {
+		return next.get();
+	}
+
+	/**
+	 * marks the file as closed for it's readers, events published after are ignored
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		mapped.putInt(CLOSED_OFFSET, 1);
+	}
+
+	private static final class Writer {
+		final ByteBuffer buffer;
+
+		Writer(MappedByteBuffer mapped) {
+			this.buffer = mapped.duplicate().order(ByteOrder.nativeOrder());
+		}
+	}
+}
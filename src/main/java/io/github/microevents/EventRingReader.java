@@ -0,0 +1,172 @@
+package io.github.microevents;
+
+import io.github.microevents.events.EventCodec;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+import static io.github.microevents.EventRingFile.*;
+
+/**
+ * follows an {@link EventRingFile}, usually from another process. it starts at the newest event and decodes the events
+ * published after it with the codec registered for their type, events of types without a codec are skipped. when the
+ * writer laps the reader, the overwritten events are counted as lost and the reader continues at the oldest event
+ * that's still in the ring.
+ * <p>
+ * a reader is not thread safe, it should be polled by one thread
+ */
+public class EventRingReader implements AutoCloseable {
+	private final Path path;
+	private final Object fileKey;
+	private final MappedByteBuffer buffer;
+	// the markers are read through it
+	private final SlotMarkers markers;
+	private final int slotSize, slots, mask;
+	private final Int2ObjectMap<Decoder<?>> decoders = new Int2ObjectOpenHashMap<>();
+	// the next sequence to read
+	private long sequence;
+	private long lost;
+
+	/**
+	 * maps the ring file at the path
+	 *
+	 * @param path the file
+	 * @throws IOException if the file couldn't be read or isn't a ring file
+	 */
+	public EventRingReader(Path path) throws IOException {
+		this.path = path;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			this.fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		buffer.order(ByteOrder.nativeOrder());
+		this.markers = new SlotMarkers(buffer);
+		if (buffer.capacity() < HEADER || buffer.getInt(MAGIC_OFFSET) != MAGIC) throw new IOException(path + " is not an event ring file");
+		if (buffer.getInt(VERSION_OFFSET) != VERSION) throw new IOException(path + " has version " + buffer.getInt(VERSION_OFFSET) + ", expected " + VERSION);
+		this.slotSize = buffer.getInt(SLOT_SIZE_OFFSET);
+		this.slots = buffer.getInt(SLOTS_OFFSET);
+		this.mask = slots - 1;
+		this.sequence = buffer.getLong(NEXT_OFFSET);
+	}
+
+	/**
+	 * decodes the events of a type and passes them to the consumer
+	 *
+	 * @param type the type the events were published with
+	 * @param codec the codec that decodes them
+	 * @param consumer what's called with every event
+	 * @return this
+	 */
+	public <E> EventRingReader register(int type, EventCodec<E> codec, Consumer<? super E> consumer) {
+		decoders.put(type, new Decoder<>(codec, consumer));
+		return this;
+	}
+
+	/**
+	 * reads the events that were published since the last poll
+	 *
+	 * @param max the max amount of events that are read
+	 * @return the amount of events that were read, including the skipped ones
+	 */
+	public int poll(int max) {
+		int read = 0;
+		while (read < max) {
+			int slot = HEADER + (int) (sequence & mask) * slotSize;
+			// a volatile read, so the event isn't read before the marker
+			long marker = markers.getVolatile(slot), expected = sequence + 1;
+			if (marker != expected) {
+				if (Math.abs(marker) <= expected) break; // not published yet
+				lap(Math.abs(marker) - 1);
+				continue;
+			}
+			int type = buffer.getInt(slot + 8), length = buffer.getInt(slot + 12);
+			Decoder<?> decoder = length < 0 ? null : decoders.get(type);
+			Object event = null;
+			RuntimeException failure = null;
+			if (decoder != null) {
+				try {
+					buffer.limit(slot + RECORD_HEADER + length);
+					buffer.position(slot + RECORD_HEADER);
+					event = decoder.codec.decode(buffer);
+				} catch (RuntimeException e) { // probably read while it was overwritten
+					failure = e;
+				}
+				buffer.clear();
+			}
+			// the event is read before the marker is checked again
+			SlotMarkers.loadFence();
+			long after = buffer.getLong(slot);
+			if (after != expected) {
+				lap(Math.abs(after) - 1);
+				continue;
+			}
+			sequence++;
+			read++;
+			if (failure != null) LOGGER.log(Level.SEVERE, "unable to decode event " + (expected - 1) + " of type " + type, failure);
+			else if (decoder != null) ((Decoder) decoder).consumer.accept(event);
+		}
+		return read;
+	}
+
+	// the writer overwrote the slot with a newer sequence, skip to the oldest event left
+	private void lap(long overwritten) {
+		long head = Math.max(buffer.getLong(NEXT_OFFSET), overwritten + 1);
+		long oldest = Math.max(sequence + 1, head - slots + 1);
+		lost += oldest - sequence;
+		sequence = oldest;
+	}
+
+	/**
+	 * @return the next sequence that's read
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the amount of events that were overwritten before they were read
+	 */
+	public long getLost() {
+		return lost;
+	}
+
+	/**
+	 * if the writer closed the file or a new ring replaced it, the reader should be reopened to follow the new one.
+	 * this checks the file system, so it shouldn't be called every poll
+	 *
+	 * @return if no more events will be published to this reader's file
+	 * @throws IOException if the file system couldn't be read
+	 */
+	public boolean isStale() throws IOException {
+		if (buffer.getInt(CLOSED_OFFSET) != 0) return true;
+		return !Files.exists(path) || !Objects.equals(fileKey, Files.readAttributes(path, BasicFileAttributes.class).fileKey());
+	}
+
+	/**
+	 * stops reading, the mapping is released when the reader is garbage collected
+	 */
+	@Override
+	public void close() {
+		decoders.clear();
+	}
+
+	private static final class Decoder<E> {
+		final EventCodec<E> codec;
+		final Consumer<? super E> consumer;
+
+		Decoder(EventCodec<E> codec, Consumer<? super E> consumer) {
+			this.codec = codec;
+			this.consumer = consumer;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package io.github.microevents;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * the invoke counts and latencies of an event class, see {@link EventMetrics}. a latency is the time it took to run all
+ * the listeners of one invoke
+ */
+public class EventStats {
+	private final String event;
+	private final LongAdder invokes = new LongAdder(), cancelled = new LongAdder(), nanos = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+	// bucket i counts the invokes that took less than 2^i nanoseconds, and at least 2^(i-1)
+	private final AtomicLongArray histogram = new AtomicLongArray(64);
+
+	EventStats(Class<?> event) {
+		this.event = event.getName();
+	}
+
+	void record(long nanos, int events) {
+		long each = nanos / events;
+		invokes.add(events);
+		this.nanos.add(nanos);
+		max.accumulate(each);
+		histogram.addAndGet(64 - Long.numberOfLeadingZeros(each), events);
+	}
+
+	void cancelled() {
+		cancelled.increment();
+	}
+
+	/**
+	 * @param percentile between 0 and 1
+	 * @return the latency the percentile of invokes were faster than, rounded up to a power of 2
+	 */
+	public long percentile(double percentile) {
+		long total = 0;
+		for (int i = 0; i < 64; i++)
+			total += histogram.get(i);
+		long target = (long) Math.ceil(total * percentile), seen = 0;
+		for (int i = 0; i < 64; i++)
+			if ((seen += histogram.get(i)) >= target && seen != 0) return i == 63 ? Long.MAX_VALUE : 1L << i;
+		return 0;
+	}
+
+	/**
+	 * @return the name of the event class
+	 */
+	public String getEvent() {
+		return event;
+	}
+
+	public long getInvokes() {
+		return invokes.sum();
+	}
+
+	/**
+	 * @return the amount of invokes the event was cancelled in
+	 */
+	public long getCancelled() {
+		return cancelled.sum();
+	}
+
+	public long getTotalNanos() {
+		return nanos.sum();
+	}
+
+	public long getMeanNanos() {
+		long invokes = getInvokes();
+		return invokes == 0 ? 0 : getTotalNanos() / invokes;
+	}
+
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	public long getMedianNanos() {
+		return percentile(.5);
+	}
+
+	public long getP99Nanos() {
+		return percentile(.99);
+	}
+
+	/**
+	 * @return the latency histogram, element i is the amount of invokes that took less than 2^i nanoseconds, and at least
+	 * 2^(i-1)
+	 */
+	public long[] getHistogram() {
+		long[] copy = new long[64];
+		for (int i = 0; i < 64; i++)
+			copy[i] = histogram.get(i);
+		return copy;
+	}
+
+	void reset() {
+		invokes.reset();
+		cancelled.reset();
+		nanos.reset();
+		max.reset();
+		for (int i = 0; i < 64; i++)
+			histogram.set(i, 0);
+	}
+}
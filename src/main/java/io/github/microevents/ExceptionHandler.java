@@ -0,0 +1,39 @@
+package io.github.microevents;
+
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+
+/**
+ * decides what happens to the exceptions thrown by the listeners of a {@link MicroEventManager}, set with
+ * {@link MicroEventManager#setExceptionHandler(ExceptionHandler)}, or of an {@link EventChannel}. it's called on the
+ * thread the listener threw on, so it should be thread safe. the ids of a channel's listeners are it's own, so a handler
+ * that keeps state per id shouldn't be shared between channels and managers
+ *
+ * @see LoggingExceptionHandler
+ * @see CircuitBreaker
+ */
+@FunctionalInterface
+public interface ExceptionHandler {
+	/**
+	 * handles an exception thrown by a listener
+	 *
+	 * @param listenerID the id of the listener, or -1 if the exception wasn't thrown by one listener, like the ones the
+	 * consumers of a {@link RingBufferEventBus} catch
+	 * @param listener the listener that threw, or null if the id is -1 or it's the listener of a channel
+	 * @param event the event it threw on, or the first event of the batch for {@link io.github.microevents.events.BatchListener}s,
+	 * null for the listeners of a channel since they have no event objects
+	 * @param throwable the exception
+	 * @return true if the listener should be unregistered, it isn't called again and it's unregistered the next time a
+	 * listener is registered or unregistered
+	 */
+	boolean handle(long listenerID, Listener<?> listener, Event event, Throwable throwable);
+
+	/**
+	 * called once a listener was unregistered, by hand or after it was tripped, so the handler can forget what it kept
+	 * about it. it's called while the manager is locked and the id can be handed out again right after it
+	 *
+	 * @param listenerID the id of the listener
+	 */
+	default void unregistered(long listenerID) {
+	}
+}
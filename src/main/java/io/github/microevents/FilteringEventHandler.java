@@ -0,0 +1,132 @@
+package io.github.microevents;
+
+import io.github.microevents.events.*;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * a {@link MicroEventHandler} that indexes the {@link FilteredListener}s by their property and key, so an invoke only
+ * looks up the listeners of the event's key instead of calling every filtered listener just for it to bail out. the
+ * other listeners are kept like in a MicroEventHandler, within a priority they run before the filtered ones.
+ * <p>
+ * filtered listeners with the same property function share an index, so listeners of the same property should be
+ * registered with the same function instance, interned with {@link FilteredListener#property(Class, String, Function)}
+ * ({@link io.github.microevents.events.EventListener#filter()} does that, for reflected and generated listeners)
+ *
+ * @param <E> the event type
+ */
+public class FilteringEventHandler<E extends Event> extends MicroEventHandler<E> {
+	private static final Property[] NO_PROPERTIES = new Property[0];
+
+	// the filtered listeners by property, each key of a property has a handler of it's own with the unwrapped listeners
+	protected final Map<Function<? super E, ?>, Property<E>> index = new Object2ObjectArrayMap<>();
+	// the values of the index, what an invoke goes over
+	private Property<E>[] properties = NO_PROPERTIES;
+	// the filtered listeners by id, to find their bucket when they're removed
+	protected final Int2ObjectMap<FilteredListener<E>> filtered = new Int2ObjectOpenHashMap<>();
+
+	@Override
+	public EventHandler<E> newHandler() {
+		return new FilteringEventHandler<>();
+	}
+
+	@Override
+	public void register(int id, Listener<E> listener, Priority priority) {
+		if (!(listener instanceof FilteredListener)) {
+			super.register(id, listener, priority);
+			return;
+		}
+		FilteredListener<E> filter = (FilteredListener<E>) listener;
+		filtered.put(id, filter);
+		Property<E> property = index.get(filter.getProperty());
+		if (property == null) {
+			index.put(filter.getProperty(), property = new Property<>(filter.getProperty()));
+			properties = index.values().toArray(NO_PROPERTIES);
+		}
+		property.buckets.computeIfAbsent(filter.getKey(), k -> new MicroEventHandler<>()).register(id, filter.getListener(), priority);
+		property.counts[priority.ordinal()]++;
+	}
+
+	@Override
+	public void remove(int id) {
+		FilteredListener<E> filter = filtered.remove(id);
+		if (filter == null) {
+			super.remove(id);
+			return;
+		}
+		Property<E> property = index.get(filter.getProperty());
+		MicroEventHandler<E> bucket = property.buckets.get(filter.getKey());
+		bucket.remove(id);
+		property.counts[id & 7]--;
+		if (bucket.hasAny == 0) {
+			property.buckets.remove(filter.getKey());
+			if (property.buckets.isEmpty()) {
+				index.remove(filter.getProperty());
+				properties = index.values().toArray(NO_PROPERTIES);
+			}
+		}
+	}
+
+	// the filtered listeners are removed from their buckets, the others in one pass over the lists
+	@Override
+	public void removeAll(int[] ids, int size) {
+		int[] unfiltered = new int[size];
+		int count = 0;
+		for (int i = 0; i < size; i++)
+			if (filtered.containsKey(ids[i])) remove(ids[i]);
+			else unfiltered[count++] = ids[i];
+		super.removeAll(unfiltered, count);
+	}
+
+	@Override
+	public void invoke(E event, boolean sub) {
+		Property<E>[] properties = this.properties;
+		if (properties.length == 0) {
+			super.invoke(event, sub);
+			return;
+		}
+		boolean cancelled = invoke(0, event, false, sub, properties);
+		for (int priority = 1; priority < 7 && !cancelled; priority++)
+			cancelled = invoke(priority, event, true, sub, properties);
+	}
+
+	// the unfiltered listeners of the priority and then the ones in the bucket of the event's key of each property.
+	// the buckets are looked up again for every priority the property has listeners in instead of being collected
+	// into an array per invoke, so the properties shouldn't change while the event is invoked
+	private boolean invoke(int priority, E event, boolean obeyCancelled, boolean sub, Property<E>[] properties) {
+		boolean cancelled = invoke(priority, event, obeyCancelled, sub);
+		for (Property<E> property : properties) {
+			if (cancelled && obeyCancelled) break;
+			if (property.counts[priority] == 0) continue;
+			MicroEventHandler<E> bucket = property.buckets.get(property.function.apply(event));
+			if (bucket != null) cancelled |= bucket.invoke(priority, event, obeyCancelled, sub);
+		}
+		return cancelled;
+	}
+
+	// the filtered listeners don't get batches, each event is invoked on it's own once there are any
+	@Override
+	public void invokeAll(E[] events, boolean sub) {
+		if (properties.length == 0) super.invokeAll(events, sub);
+		else for (E event : events)
+			invoke(event, sub);
+	}
+
+	/**
+	 * the filtered listeners of one property function, by key
+	 */
+	protected static final class Property<E extends Event> {
+		final Function<? super E, ?> function;
+		final Map<Object, MicroEventHandler<E>> buckets = new Object2ObjectOpenHashMap<>();
+		// the filtered listeners of each priority in all of the buckets, the priorities without any aren't looked up
+		final int[] counts = new int[7];
+
+		Property(Function<? super E, ?> function) {
+			this.function = function;
+		}
+	}
+}
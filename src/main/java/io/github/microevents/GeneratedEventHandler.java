@@ -0,0 +1,226 @@
+package io.github.microevents;
+
+import io.github.microevents.events.*;
+import io.github.microevents.util.IntPair;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * an {@link EventHandler} that generates a new class every time it's listeners change, the class calls every listener
+ * from it's own call site in priority order with the cancel checks unrolled, so the JIT can inline the listeners
+ * instead of going through one megamorphic call in a loop. the listeners of a {@link MicroEventManager} are guarded, so
+ * the generated class does the guard's work itself and calls the listener inside the guard, otherwise every call site
+ * would see the same guard class. that only helps listeners with a class of their own, like lambdas and the ones of
+ * the {@link io.github.microevents.processor.EventListenerProcessor}, the methods registered by reflection still share
+ * one call site inside their listener. registering and removing is slow (a class is defined each time), invoking is
+ * lock-free, so it's meant for events whose listeners rarely change
+ *
+ * @param <E> the event type
+ */
+public class GeneratedEventHandler<E extends Event> implements EventHandler<E> {
+	/**
+	 * with more listeners than this the handler falls back to a plain loop, the generated methods would get past the 8000
+	 * bytes the JIT compiles
+	 */
+	public static final int MAX_GENERATED = 128;
+
+	// an array organized by priority of all of the listeners, only touched while holding the lock
+	protected final ObjectArrayList<IntPair<Listener<E>>>[] listeners = new ObjectArrayList[7];
+
+	// the current dispatcher, replaced whenever the listeners change
+	protected volatile Dispatcher dispatcher = new LoopDispatcher(new Listener[0], 0, new Listener[0], 0);
+
+	public GeneratedEventHandler() {
+		for (int i = 0; i < listeners.length; i++)
+			listeners[i] = new ObjectArrayList<>();
+	}
+
+	@Override
+	public EventHandler<E> newHandler() {
+		return new GeneratedEventHandler<>();
+	}
+
+	@Override
+	public synchronized void register(int id, Listener<E> listener, Priority priority) {
+		listeners[priority.ordinal()].add(new IntPair<>(listener, id));
+		dispatcher = generate();
+	}
+
+	// one new class for all of them
+	@Override
+	public synchronized void registerAll(int[] ids, Listener<E>[] listeners, Priority[] priorities, int size) {
+		if (size == 0) return;
+		for (int i = 0; i < size; i++)
+			this.listeners[priorities[i].ordinal()].add(new IntPair<>(listeners[i], ids[i]));
+		dispatcher = generate();
+	}
+
+	@Override
+	public synchronized void remove(int id) {
+		if (listeners[id & 7].removeIf(pair -> pair.b == id)) dispatcher = generate();
+	}
+
+	// one new class for all of them
+	@Override
+	public synchronized void removeAll(int[] ids, int size) {
+		IntSet removed = new IntOpenHashSet(ids, 0, size);
+		boolean changed = false;
+		for (ObjectArrayList<IntPair<Listener<E>>> list : listeners)
+			changed |= list.removeIf(pair -> removed.contains(pair.b));
+		if (changed) dispatcher = generate();
+	}
+
+	@Override
+	public void invoke(E event, boolean sub) {
+		dispatcher.invoke(event, sub);
+	}
+
+	private Dispatcher generate() {
+		ObjectArrayList<Listener<E>> all = new ObjectArrayList<>(), subs = new ObjectArrayList<>();
+		int top = listeners[0].size(), subTop = 0;
+		for (int priority = 0; priority < 7; priority++)
+			for (IntPair<Listener<E>> pair : listeners[priority]) {
+				all.add(pair.a);
+				if ((pair.b >>> 15 & 1) == 1) {
+					subs.add(pair.a);
+					if (priority == 0) subTop++;
+				}
+			}
+
+		Listener[] array = all.toArray(new Listener[0]), subArray = subs.toArray(new Listener[0]);
+		if (array.length > MAX_GENERATED) return new LoopDispatcher(array, top, subArray, subTop);
+		String name = DispatcherGenerator.nextName();
+		byte[] bytes = DispatcherGenerator.generate(name, guarded(array), top, guarded(subArray), subTop);
+		try {
+			// every class gets it's own loader, so the old dispatchers can be unloaded
+			Class<?> type = new DispatcherLoader(GeneratedEventHandler.class.getClassLoader()).define(name, bytes);
+			return (Dispatcher) type.getConstructor(Listener[].class, Listener[].class).newInstance(array, subArray);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("unable to generate dispatcher", e);
+		}
+	}
+
+	private static boolean[] guarded(Listener[] listeners) {
+		boolean[] guarded = new boolean[listeners.length];
+		for (int i = 0; i < listeners.length; i++)
+			guarded[i] = listeners[i] instanceof GuardedListener;
+		return guarded;
+	}
+
+	/**
+	 * the super class of the generated dispatchers, it has to be public because they're defined in another class loader
+	 */
+	public static abstract class Dispatcher {
+		// all the listeners, sorted by priority
+		protected final Listener[] listeners;
+		// the listeners that listen to sub events, sorted by priority
+		protected final Listener[] subListeners;
+		// the same, but the listeners inside the guarded listeners, the generated classes call these with their own guard
+		protected final Listener[] unguarded, unguardedSubs;
+		// the guards of the listeners and then the sub listeners, null for the ones that aren't guarded
+		private final GuardedListener[] guards;
+
+		protected Dispatcher(Listener[] listeners, Listener[] subListeners) {
+			this.listeners = listeners;
+			this.subListeners = subListeners;
+			this.guards = new GuardedListener[listeners.length + subListeners.length];
+			this.unguarded = unguard(listeners, 0);
+			this.unguardedSubs = unguard(subListeners, listeners.length);
+		}
+
+		private Listener[] unguard(Listener[] listeners, int offset) {
+			Listener[] unguarded = listeners.clone();
+			for (int i = 0; i < listeners.length; i++)
+				if (listeners[i] instanceof GuardedListener) {
+					guards[offset + i] = (GuardedListener) listeners[i];
+					unguarded[i] = guards[offset + i].listener;
+				}
+			return unguarded;
+		}
+
+		/**
+		 * @param guard the index of the listener, after the listeners for sub listeners
+		 * @return if the exception handler asked for the listener to be unregistered
+		 */
+		protected final boolean tripped(int guard) {
+			return guards[guard].tripped;
+		}
+
+		/**
+		 * passes the exception of a guarded listener to it's manager
+		 *
+		 * @param guard the index of the listener, after the listeners for sub listeners
+		 */
+		protected final void failed(int guard, Event event, Throwable throwable) {
+			guards[guard].manager.exception(guards[guard], event, throwable);
+		}
+
+		final void invoke(Event event, boolean sub) {
+			if (event instanceof Cancellable)
+				if (sub) subCancellable((Cancellable) event);
+				else cancellable((Cancellable) event);
+			else if (sub) sub(event);
+			else all(event);
+		}
+
+		protected abstract void all(Event event);
+
+		protected abstract void cancellable(Cancellable event);
+
+		protected abstract void sub(Event event);
+
+		protected abstract void subCancellable(Cancellable event);
+	}
+
+	/**
+	 * the dispatcher for when there are too many listeners to generate one
+	 */
+	private static final class LoopDispatcher extends Dispatcher {
+		private final int top, subTop;
+
+		private LoopDispatcher(Listener[] listeners, int top, Listener[] subListeners, int subTop) {
+			super(listeners, subListeners);
+			this.top = top;
+			this.subTop = subTop;
+		}
+
+		@Override
+		protected void all(Event event) {
+			for (Listener listener : listeners)
+				listener.accept(event);
+		}
+
+		@Override
+		protected void cancellable(Cancellable event) {
+			invoke(listeners, top, event);
+		}
+
+		@Override
+		protected void sub(Event event) {
+			for (Listener listener : subListeners)
+				listener.accept(event);
+		}
+
+		@Override
+		protected void subCancellable(Cancellable event) {
+			invoke(subListeners, subTop, event);
+		}
+
+		private static void invoke(Listener[] listeners, int top, Cancellable event) {
+			for (int i = 0; i < listeners.length; i++)
+				if (i >= top && event.isCancelled()) return;
+				else listeners[i].accept(event);
+		}
+	}
+
+	private static final class DispatcherLoader extends ClassLoader {
+		private DispatcherLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		private Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
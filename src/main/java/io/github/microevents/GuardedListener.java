@@ -0,0 +1,79 @@
+package io.github.microevents;
+
+import io.github.microevents.events.BatchListener;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+
+/**
+ * the listener every registered listener is wrapped in, it's the only place their exceptions are caught and it calls
+ * {@link Listener#listen(Event)} directly, so the listener's own {@link Listener#accept(Event)} isn't a second layer.
+ * the exceptions go to the manager's {@link ExceptionHandler}
+ *
+ * @param <E> the event type
+ */
+class GuardedListener<E extends Event> implements Listener<E> {
+	final Listener<E> listener;
+	final long id;
+	final MicroEventManager manager;
+	// set once the exception handler asked for the listener to be unregistered, it isn't called anymore
+	volatile boolean tripped;
+
+	GuardedListener(Listener<E> listener, long id, MicroEventManager manager) {
+		this.listener = listener;
+		this.id = id;
+		this.manager = manager;
+	}
+
+	static <E extends Event> GuardedListener<E> of(Listener<E> listener, long id, MicroEventManager manager) {
+		return listener instanceof BatchListener ? new Batch<>((BatchListener<E>) listener, id, manager) : new GuardedListener<>(listener, id, manager);
+	}
+
+	@Override
+	public void accept(E event) {
+		if (tripped) return;
+		try {
+			listener.listen(event);
+		} catch (Throwable t) {
+			manager.exception(this, event, t);
+		}
+	}
+
+	@Override
+	public void listen(E event) {
+		listener.listen(event);
+	}
+
+	@Override
+	public String toString() {
+		return listener.toString();
+	}
+
+	/**
+	 * the guarded listener for {@link BatchListener}s, so they still get their batches
+	 */
+	static final class Batch<E extends Event> extends GuardedListener<E> implements BatchListener<E> {
+		Batch(BatchListener<E> listener, long id, MicroEventManager manager) {
+			super(listener, id, manager);
+		}
+
+		@Override
+		public void acceptAll(E[] events, int size) {
+			if (tripped) return;
+			try {
+				((BatchListener<E>) listener).listenAll(events, size);
+			} catch (Throwable t) {
+				manager.exception(this, events[0], t);
+			}
+		}
+
+		@Override
+		public void listen(E event) {
+			listener.listen(event);
+		}
+
+		@Override
+		public void listenAll(E[] events, int size) {
+			((BatchListener<E>) listener).listenAll(events, size);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package io.github.microevents;
+
+import io.github.microevents.events.*;
+
+/**
+ * an {@link EventHandler} that records the invokes of another handler in it's {@link EventStats}, only used while the
+ * metrics are enabled so the plain handlers don't pay for them
+ *
+ * @param <E> the event type
+ */
+class InstrumentedEventHandler<E extends Event> implements EventHandler<E> {
+	final EventHandler<E> handler;
+	private final EventStats stats;
+
+	InstrumentedEventHandler(EventHandler<E> handler, EventStats stats) {
+		this.handler = handler;
+		this.stats = stats;
+	}
+
+	@Override
+	public void register(int id, Listener<E> listener, Priority priority) {
+		handler.register(id, listener, priority);
+	}
+
+	@Override
+	public void registerAll(int[] ids, Listener<E>[] listeners, Priority[] priorities, int size) {
+		handler.registerAll(ids, listeners, priorities, size);
+	}
+
+	@Override
+	public void remove(int id) {
+		handler.remove(id);
+	}
+
+	@Override
+	public void removeAll(int[] ids, int size) {
+		handler.removeAll(ids, size);
+	}
+
+	@Override
+	public void invoke(E event, boolean forSubListeners) {
+		long start = System.nanoTime();
+		handler.invoke(event, forSubListeners);
+		stats.record(System.nanoTime() - start, 1);
+		if (event instanceof Cancellable && ((Cancellable) event).isCancelled()) stats.cancelled();
+	}
+
+	@Override
+	public void invokeAll(E[] events, boolean forSubListeners) {
+		if (events.length == 0) return;
+		long start = System.nanoTime();
+		handler.invokeAll(events, forSubListeners);
+		stats.record(System.nanoTime() - start, events.length);
+		for (E event : events)
+			if (event instanceof Cancellable && ((Cancellable) event).isCancelled()) stats.cancelled();
+	}
+}
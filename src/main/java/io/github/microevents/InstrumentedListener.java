@@ -0,0 +1,64 @@
+package io.github.microevents;
+
+import io.github.microevents.events.BatchListener;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+
+/**
+ * a listener that times another listener in it's {@link ListenerStats}, only registered while the metrics are
+ * enabled. the listener is always guarded, so it's exceptions are counted by the manager
+ *
+ * @param <E> the event type
+ */
+class InstrumentedListener<E extends Event> implements Listener<E> {
+	final Listener<E> listener;
+	final ListenerStats stats;
+
+	InstrumentedListener(Listener<E> listener, ListenerStats stats) {
+		this.listener = listener;
+		this.stats = stats;
+	}
+
+	@Override
+	public void accept(E event) {
+		long start = System.nanoTime();
+		listener.accept(event);
+		stats.record(System.nanoTime() - start, 1);
+	}
+
+	@Override
+	public void listen(E event) {
+		listener.listen(event);
+	}
+
+	@Override
+	public String toString() {
+		return listener.toString();
+	}
+
+	/**
+	 * the instrumented listener for {@link BatchListener}s, so they still get their batches
+	 */
+	static final class Batch<E extends Event> extends InstrumentedListener<E> implements BatchListener<E> {
+		Batch(BatchListener<E> listener, ListenerStats stats) {
+			super(listener, stats);
+		}
+
+		@Override
+		public void acceptAll(E[] events, int size) {
+			long start = System.nanoTime();
+			((BatchListener<E>) listener).acceptAll(events, size);
+			stats.record(System.nanoTime() - start, size);
+		}
+
+		@Override
+		public void listen(E event) {
+			listener.listen(event);
+		}
+
+		@Override
+		public void listenAll(E[] events, int size) {
+			((BatchListener<E>) listener).listenAll(events, size);
+		}
+	}
+}
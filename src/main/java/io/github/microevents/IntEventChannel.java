@@ -0,0 +1,26 @@
+package io.github.microevents;
+
+import io.github.microevents.events.IntListener;
+
+/**
+ * a channel for events that are just an int, see {@link EventChannel}
+ */
+public final class IntEventChannel extends EventChannel<IntListener> {
+	public IntEventChannel() {
+		super(IntListener[]::new);
+	}
+
+	/**
+	 * calls the listeners in priority order
+	 *
+	 * @return if the event was cancelled
+	 */
+	public boolean fire(int value) {
+		return dispatch(value, 0);
+	}
+
+	@Override
+	protected boolean listen(IntListener listener, long a, long b) {
+		return listener.listen((int) a);
+	}
+}
@@ -0,0 +1,26 @@
+package io.github.microevents;
+
+import io.github.microevents.events.IntLongListener;
+
+/**
+ * a channel for events that are just an int and a long, see {@link EventChannel}
+ */
+public final class IntLongEventChannel extends EventChannel<IntLongListener> {
+	public IntLongEventChannel() {
+		super(IntLongListener[]::new);
+	}
+
+	/**
+	 * calls the listeners in priority order
+	 *
+	 * @return if the event was cancelled
+	 */
+	public boolean fire(int a, long b) {
+		return dispatch(a, b);
+	}
+
+	@Override
+	protected boolean listen(IntLongListener listener, long a, long b) {
+		return listener.listen((int) a, b);
+	}
+}
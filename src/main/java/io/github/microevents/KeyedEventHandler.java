@@ -0,0 +1,147 @@
+package io.github.microevents;
+
+import io.github.microevents.events.*;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.Arrays;
+
+/**
+ * a {@link MicroEventHandler} for {@link Keyed} events that indexes the {@link KeyedListener}s by their key, so an
+ * invoke only calls the listeners of the event's key and the unkeyed ones, no matter how many keys have listeners.
+ * within a priority the unkeyed listeners run before the keyed ones
+ *
+ * @param <E> the event type
+ */
+public class KeyedEventHandler<E extends Keyed> extends MicroEventHandler<E> {
+	// the listeners of each key, kept small since there may be one per entity
+	protected final Long2ObjectMap<Bucket<E>> keys = new Long2ObjectOpenHashMap<>();
+	// the key of every keyed listener, to find it's bucket when it's removed
+	protected final Int2LongMap keyed = new Int2LongOpenHashMap();
+
+	@Override
+	public EventHandler<E> newHandler() {
+		return new KeyedEventHandler<>();
+	}
+
+	@Override
+	public void register(int id, Listener<E> listener, Priority priority) {
+		if (!(listener instanceof KeyedListener)) {
+			super.register(id, listener, priority);
+			return;
+		}
+		KeyedListener<E> key = (KeyedListener<E>) listener;
+		keyed.put(id, key.getKey());
+		Bucket<E> bucket = keys.get(key.getKey());
+		if (bucket == null) keys.put(key.getKey(), bucket = new Bucket<>());
+		bucket.add(id, key.getListener(), priority.ordinal());
+	}
+
+	@Override
+	public void remove(int id) {
+		if (!keyed.containsKey(id)) {
+			super.remove(id);
+			return;
+		}
+		long key = keyed.remove(id);
+		Bucket<E> bucket = keys.get(key);
+		if (bucket.remove(id)) keys.remove(key);
+	}
+
+	// the keyed listeners are removed from their buckets, the others in one pass over the lists
+	@Override
+	public void removeAll(int[] ids, int size) {
+		int[] unkeyed = new int[size];
+		int count = 0;
+		for (int i = 0; i < size; i++)
+			if (keyed.containsKey(ids[i])) remove(ids[i]);
+			else unkeyed[count++] = ids[i];
+		super.removeAll(unkeyed, count);
+	}
+
+	@Override
+	public void invoke(E event, boolean sub) {
+		Bucket<E> bucket = keys.isEmpty() ? null : keys.get(event.getKey());
+		if (bucket == null) {
+			super.invoke(event, sub);
+			return;
+		}
+		boolean cancelled = invoke(0, event, false, sub, bucket);
+		for (int priority = 1; priority < 7 && !cancelled; priority++)
+			cancelled = invoke(priority, event, true, sub, bucket);
+	}
+
+	// the unkeyed listeners of the priority and then the ones of the key
+	private boolean invoke(int priority, E event, boolean obeyCancelled, boolean sub, Bucket<E> bucket) {
+		boolean cancelled = invoke(priority, event, obeyCancelled, sub);
+		Listener<E>[] listeners = bucket.listeners[priority];
+		if (listeners == null || cancelled && obeyCancelled) return cancelled;
+		int[] ids = bucket.ids[priority];
+		Cancellable cancellable = event instanceof Cancellable ? (Cancellable) event : null;
+		for (int i = 0; i < listeners.length; i++) {
+			if (sub && (ids[i] >>> 15 & 1) == 0) continue;
+			if (obeyCancelled && cancellable != null && cancellable.isCancelled()) break;
+			listeners[i].accept(event);
+		}
+		return cancellable != null && cancellable.isCancelled();
+	}
+
+	// the keyed listeners don't get batches, each event is invoked on it's own once there are any
+	@Override
+	public void invokeAll(E[] events, boolean sub) {
+		if (keys.isEmpty()) super.invokeAll(events, sub);
+		else for (E event : events)
+			invoke(event, sub);
+	}
+
+	/**
+	 * the listeners of one key by priority, null for the priorities without any
+	 */
+	protected static final class Bucket<E extends Event> {
+		final Listener<E>[][] listeners = new Listener[7][];
+		final int[][] ids = new int[7][];
+
+		void add(int id, Listener<E> listener, int priority) {
+			int length = ids[priority] == null ? 0 : ids[priority].length;
+			listeners[priority] = length == 0 ? new Listener[1] : Arrays.copyOf(listeners[priority], length + 1);
+			ids[priority] = length == 0 ? new int[1] : Arrays.copyOf(ids[priority], length + 1);
+			listeners[priority][length] = listener;
+			ids[priority][length] = id;
+		}
+
+		// returns if the bucket is empty
+		boolean remove(int id) {
+			int priority = id & 7;
+			int[] old = ids[priority];
+			for (int i = 0; i < old.length; i++)
+				if (old[i] == id) {
+					if (old.length == 1) {
+						listeners[priority] = null;
+						ids[priority] = null;
+					} else {
+						listeners[priority] = remove(listeners[priority], i);
+						ids[priority] = remove(old, i);
+					}
+					break;
+				}
+			for (int[] priorityIds : ids)
+				if (priorityIds != null) return false;
+			return true;
+		}
+
+		private static Listener[] remove(Listener[] array, int index) {
+			Listener[] copy = new Listener[array.length - 1];
+			System.arraycopy(array, 0, copy, 0, index);
+			System.arraycopy(array, index + 1, copy, index, copy.length - index);
+			return copy;
+		}
+
+		private static int[] remove(int[] array, int index) {
+			int[] copy = new int[array.length - 1];
+			System.arraycopy(array, 0, copy, 0, index);
+			System.arraycopy(array, index + 1, copy, index, copy.length - index);
+			return copy;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package io.github.microevents;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * the execution time and failures of a listener, see {@link EventMetrics}
+ */
+public class ListenerStats {
+	private final long id;
+	private final String event, listener;
+	private final LongAdder calls = new LongAdder(), nanos = new LongAdder(), exceptions = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	ListenerStats(long id, Class<?> event, Object listener) {
+		this.id = id;
+		this.event = event.getName();
+		this.listener = listener.toString();
+	}
+
+	void record(long nanos, int events) {
+		calls.add(events);
+		this.nanos.add(nanos);
+		max.accumulate(nanos / events);
+	}
+
+	void exception() {
+		exceptions.increment();
+	}
+
+	/**
+	 * @return the listener id
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * @return the name of the class the listener was registered for
+	 */
+	public String getEvent() {
+		return event;
+	}
+
+	/**
+	 * @return the listener's toString
+	 */
+	public String getListener() {
+		return listener;
+	}
+
+	/**
+	 * @return the amount of events the listener got
+	 */
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	public long getTotalNanos() {
+		return nanos.sum();
+	}
+
+	public long getMeanNanos() {
+		long calls = getCalls();
+		return calls == 0 ? 0 : getTotalNanos() / calls;
+	}
+
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	public long getExceptions() {
+		return exceptions.sum();
+	}
+
+	void reset() {
+		calls.reset();
+		nanos.reset();
+		exceptions.reset();
+		max.reset();
+	}
+}
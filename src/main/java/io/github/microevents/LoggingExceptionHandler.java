@@ -0,0 +1,79 @@
+package io.github.microevents;
+
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * logs the exceptions of the listeners, at most a set amount per interval so a broken listener can't flood the log.
+ * the exceptions over the limit are counted and the count is logged once the next interval starts. it never
+ * unregisters a listener, see {@link CircuitBreaker} for that
+ */
+public class LoggingExceptionHandler implements ExceptionHandler {
+	private static final Logger LOGGER = Logger.getLogger("MicroEventManager");
+
+	private final int maxLogs;
+	private final long interval;
+	private final LongAdder exceptions = new LongAdder();
+	// the start of the current interval, the logs left in it, and the exceptions it didn't log
+	private final AtomicLong window = new AtomicLong(System.nanoTime());
+	private final AtomicInteger logs = new AtomicInteger(), suppressed = new AtomicInteger();
+	private final LongAdder totalSuppressed = new LongAdder();
+
+	/**
+	 * creates a new handler
+	 *
+	 * @param maxLogs the amount of exceptions logged per interval
+	 * @param interval the length of an interval
+	 * @param unit the unit of the interval
+	 */
+	public LoggingExceptionHandler(int maxLogs, long interval, TimeUnit unit) {
+		this.maxLogs = maxLogs;
+		this.interval = unit.toNanos(interval);
+	}
+
+	/**
+	 * creates a new handler that logs at most 10 exceptions per second
+	 */
+	public LoggingExceptionHandler() {
+		this(10, 1, TimeUnit.SECONDS);
+	}
+
+	@Override
+	public boolean handle(long listenerID, Listener<?> listener, Event event, Throwable throwable) {
+		exceptions.increment();
+		long now = System.nanoTime(), start = window.get();
+		if (now - start >= interval && window.compareAndSet(start, now)) {
+			int missed = suppressed.getAndSet(0);
+			if (missed > 0) LOGGER.warning(missed + " listener exceptions weren't logged in the last interval");
+			logs.set(0);
+		}
+		if (logs.incrementAndGet() <= maxLogs)
+			LOGGER.log(Level.SEVERE, event == null ? "channel listener " + listenerID + " threw an exception"
+					: (listener == null ? "an exception was thrown invoking " : "listener " + listenerID + " (" + listener + ") threw an exception on ") + event.getClass().getName(), throwable);
+		else {
+			suppressed.incrementAndGet();
+			totalSuppressed.increment();
+		}
+		return false;
+	}
+
+	/**
+	 * @return the amount of exceptions handled
+	 */
+	public long getExceptions() {
+		return exceptions.sum();
+	}
+
+	/**
+	 * @return the amount of exceptions that weren't logged because of the limit
+	 */
+	public long getSuppressed() {
+		return totalSuppressed.sum();
+	}
+}
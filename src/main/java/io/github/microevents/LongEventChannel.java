@@ -0,0 +1,26 @@
+package io.github.microevents;
+
+import io.github.microevents.events.LongListener;
+
+/**
+ * a channel for events that are just a long, see {@link EventChannel}
+ */
+public final class LongEventChannel extends EventChannel<LongListener> {
+	public LongEventChannel() {
+		super(LongListener[]::new);
+	}
+
+	/**
+	 * calls the listeners in priority order
+	 *
+	 * @return if the event was cancelled
+	 */
+	public boolean fire(long value) {
+		return dispatch(value, 0);
+	}
+
+	@Override
+	protected boolean listen(LongListener listener, long a, long b) {
+		return listener.listen(a);
+	}
+}
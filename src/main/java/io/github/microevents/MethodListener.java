@@ -0,0 +1,59 @@
+package io.github.microevents;
+
+import com.hervian.lambda.Lambda;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+
+/**
+ * a listener that calls an {@link io.github.microevents.events.EventListener} method registered by reflection, named
+ * after the method so it can be told apart in the metrics and the watchdog's reports. every method shares these three
+ * classes and their one {@link Lambda#invoke_for_void} call site, so once a few methods are registered the call is
+ * megamorphic and the method isn't inlined, even from the own call sites of a {@link GeneratedEventHandler}. the
+ * listeners generated by {@link io.github.microevents.processor.EventListenerProcessor} call the method directly from a
+ * class per listener, they're the monomorphic path
+ *
+ * @param <E> the event type
+ */
+abstract class MethodListener<E extends Event> implements Listener<E> {
+	private final Method method;
+
+	private MethodListener(Method method) {
+		this.method = method;
+	}
+
+	static <E extends Event> Listener<E> of(Method method, Lambda lambda, Object instance) {
+		return new MethodListener<E>(method) {
+			@Override
+			public void listen(E event) {
+				lambda.invoke_for_void(instance, event);
+			}
+		};
+	}
+
+	// only holds the instance weakly, once it's collected the listener does nothing until it's unregistered
+	static <E extends Event> Listener<E> weak(Method method, Lambda lambda, WeakReference<Object> instance) {
+		return new MethodListener<E>(method) {
+			@Override
+			public void listen(E event) {
+				Object target = instance.get();
+				if (target != null) lambda.invoke_for_void(target, event);
+			}
+		};
+	}
+
+	static <E extends Event> Listener<E> of(Method method, Lambda lambda) {
+		return new MethodListener<E>(method) {
+			@Override
+			public void listen(E event) {
+				lambda.invoke_for_void(event);
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return method.getDeclaringClass().getName() + '#' + method.getName();
+	}
+}
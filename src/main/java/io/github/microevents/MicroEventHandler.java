@@ -2,11 +2,17 @@ package io.github.microevents;
 
 import io.github.microevents.events.*;
 import io.github.microevents.util.IntPair;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 
 public class MicroEventHandler<E extends Event> implements EventHandler<E> {
-	// an array organized by priority of all of the listeners
+	// an array organized by priority of all of the listeners, removed listeners are left as null until the list is compacted
 	protected final ObjectArrayList<IntPair<Listener<E>>>[] listeners = new ObjectArrayList[7];
+	// the index of every listener in it's priority's list, so it can be removed without a search
+	protected final Int2IntMap indices = new Int2IntOpenHashMap();
+	// the amount of removed listeners still in each priority's list
+	protected final int[] dead = new int[7];
 	// if the array has any listeners for that priority, just for faster access
 	protected byte hasAny;
 
@@ -16,12 +22,14 @@ public class MicroEventHandler<E extends Event> implements EventHandler<E> {
 	public MicroEventHandler() {
 		for (int i = 0; i < listeners.length; i++)
 			listeners[i] = new ObjectArrayList<>();
+		indices.defaultReturnValue(-1);
 	}
 
 	@Override
 	public void register(int id, Listener<E> listener, Priority priority) {
 		int ordinal = priority.ordinal();
 		int flag = 1 << ordinal;
+		indices.put(id, listeners[ordinal].size());
 		listeners[ordinal].add(new IntPair<>(listener, id));
 		hasAny |= flag;
 		if (((id >>> 15) & 1) == 1) hasSub |= flag;
@@ -29,7 +37,50 @@ public class MicroEventHandler<E extends Event> implements EventHandler<E> {
 
 	@Override
 	public void remove(int id) {
-		listeners[id & 7].removeIf(pair -> pair.b == id);
+		int index = indices.remove(id);
+		if (index == -1) return;
+		int priority = id & 7;
+		listeners[priority].set(index, null);
+		if (++dead[priority] > listeners[priority].size() >> 1) compact(priority);
+	}
+
+	// leaves all of the listeners as null first, so each priority is compacted at most once. ids that aren't in the lists
+	// are skipped, sub classes that keep listeners somewhere else override it to remove those first
+	@Override
+	public void removeAll(int[] ids, int size) {
+		int touched = 0;
+		for (int i = 0; i < size; i++) {
+			int index = indices.remove(ids[i]);
+			if (index == -1) continue;
+			int priority = ids[i] & 7;
+			listeners[priority].set(index, null);
+			dead[priority]++;
+			touched |= 1 << priority;
+		}
+		for (int priority = 0; priority < 7; priority++)
+			if ((touched & 1 << priority) != 0 && dead[priority] > listeners[priority].size() >> 1) compact(priority);
+	}
+
+	// drops the removed listeners keeping the order, only once half the list is dead so removing stays O(1) amortized
+	private void compact(int priority) {
+		ObjectArrayList<IntPair<Listener<E>>> list = listeners[priority];
+		Object[] pairs = list.elements();
+		int size = list.size(), alive = 0;
+		boolean sub = false;
+		for (int i = 0; i < size; i++) {
+			IntPair<Listener<E>> pair = (IntPair<Listener<E>>) pairs[i];
+			if (pair == null) continue;
+			if (alive != i) {
+				pairs[alive] = pair;
+				indices.put(pair.b, alive);
+			}
+			alive++;
+			sub |= (pair.b >>> 15 & 1) == 1;
+		}
+		list.size(alive);
+		dead[priority] = 0;
+		if (alive == 0) hasAny &= ~(1 << priority);
+		if (!sub) hasSub &= ~(1 << priority);
 	}
 
 	@Override
@@ -41,17 +92,60 @@ public class MicroEventHandler<E extends Event> implements EventHandler<E> {
 		}
 	}
 
-	// it just works.
-	private boolean invoke(int priority, E event, boolean obeyCancelled, boolean sub) {
-		if (!sub && (hasAny & 1 << priority) != 0 || (hasSub & 1 << priority) != 0 && (hasAny & 1 << priority) != 0)
+	// it just works. indexed over the backing array so no iterator is allocated per invoke, returns if the event was cancelled
+	protected boolean invoke(int priority, E event, boolean obeyCancelled, boolean sub) {
+		if (!sub && (hasAny & 1 << priority) != 0 || (hasSub & 1 << priority) != 0 && (hasAny & 1 << priority) != 0) {
+			ObjectArrayList<IntPair<Listener<E>>> list = listeners[priority];
+			Object[] pairs = list.elements();
+			int size = list.size();
 			if (event instanceof Cancellable) {
-				for (IntPair<Listener<E>> pair : listeners[priority])
+				for (int i = 0; i < size; i++) {
+					IntPair<Listener<E>> pair = (IntPair<Listener<E>>) pairs[i];
+					if (pair == null) continue;
 					if (((Cancellable) event).isCancelled() && obeyCancelled) break;
 					else if (!sub || (pair.b >>> 15 & 1) == 1) pair.a.accept(event);
+				}
 				return ((Cancellable) event).isCancelled();
-			} else for (IntPair<Listener<E>> pair : listeners[priority])
-				pair.a.accept(event);
+			} else for (int i = 0; i < size; i++) {
+				IntPair<Listener<E>> pair = (IntPair<Listener<E>>) pairs[i];
+				if (pair != null && (!sub || (pair.b >>> 15 & 1) == 1)) pair.a.accept(event);
+			}
+		}
 		return false;
 	}
 
+	// priority by priority over the whole batch, so the bitmasks are checked once and batch listeners get every event
+	@Override
+	public void invokeAll(E[] events, boolean sub) {
+		if (hasAny == 0 || sub && hasSub == 0) return;
+		E[] live = events.clone(); // the events that weren't cancelled yet
+		int alive = live.length;
+		for (int priority = 0; priority < 7 && alive > 0; priority++) {
+			if (((sub ? hasSub : hasAny) & 1 << priority) == 0) continue;
+			ObjectArrayList<IntPair<Listener<E>>> list = listeners[priority];
+			Object[] pairs = list.elements();
+			int size = list.size();
+			for (int i = 0; i < size; i++) {
+				IntPair<Listener<E>> pair = (IntPair<Listener<E>>) pairs[i];
+				if (pair == null || sub && (pair.b >>> 15 & 1) == 0) continue;
+				if (pair.a instanceof BatchListener) {
+					if (priority != 0) alive = removeCancelled(live, alive);
+					if (alive > 0) ((BatchListener<E>) pair.a).acceptAll(live, alive);
+				} else for (int j = 0; j < alive; j++) {
+					E event = live[j];
+					if (priority == 0 || !(event instanceof Cancellable && ((Cancellable) event).isCancelled())) pair.a.accept(event);
+				}
+			}
+			alive = removeCancelled(live, alive);
+		}
+	}
+
+	// moves the events that weren't cancelled to the front, keeping their order
+	private static int removeCancelled(Event[] events, int size) {
+		int alive = 0;
+		for (int i = 0; i < size; i++)
+			if (!(events[i] instanceof Cancellable && ((Cancellable) events[i]).isCancelled())) events[alive++] = events[i];
+		return alive;
+	}
+
 }
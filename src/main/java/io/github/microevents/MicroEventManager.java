@@ -8,57 +8,129 @@ import io.github.microevents.util.InheritedMap;
 import io.github.microevents.util.NodedList;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.*;
 import it.unimi.dsi.fastutil.objects.*;
-import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
-import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
 import java.lang.invoke.LambdaMetafactory;
-import java.lang.invoke.MethodHandles;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.function.ToLongBiFunction;
 import java.util.logging.Logger;
 
 /**
- * The standard implementation for the {@link EventManager}
+ * The standard implementation for the {@link EventManager}, registration is synchronized on the manager so it is safe
+ * from any thread as long as the event handlers are, see {@link ConcurrentMicroEventHandler}
  */
 public class MicroEventManager implements EventManager {
 	private static final Logger LOGGER = Logger.getLogger("MicroEventManager");
 
-	// max events supported, due to id system
-	private static final int MAX_EVENTS = 4095;
+	// max listeners at any given time and max event classes supported, due to id system
+	private static final int MAX_LISTENERS = 1 << 28, MAX_EVENTS = 1 << 16;
 
-	// max listeners at any given time supported
-	private static final int MAX_LISTENERS = Short.MAX_VALUE * 2;
+	// stores all available ids for listeners, grown when it's full
+	private final IDHolder listenerIDHolder = new IDHolder(1024, MAX_LISTENERS);
 
-	// currently unassigned event id
-	private short eventId = 0;
+	// the generation of every id holder slot, bumped when it's freed so the ids of unregistered listeners never match
+	// the listener that gets the slot next
+	private char[] generations = new char[1024];
 
-	// stores all available ids for listeners
-	private IDHolder listenerIDHolder = new IDHolder(MAX_LISTENERS);
+	// map of the class of the events to its handler, never mutated, registerEvent publishes a new copy
+	private volatile Map<Class<? extends Event>, EventHandler> listeners = new Object2ObjectOpenHashMap<>();
 
-	// map of the class of the events to its handler
-	private final Map<Class<? extends Event>, EventHandler> listeners = new Object2ObjectOpenHashMap<>();
+	// the one handler each event class is invoked with, it holds the listeners of the class and the sub listeners of all
+	// of it's supers (classes and interfaces) so an invoke is a single priority ordered loop. registered classes map to
+	// their own handler, classes invoked without being registered get one with just the sub listeners, of the kind of
+	// their nearest registered super's handler, see newHandler. never mutated, writers publish a new copy while holding
+	// the lock
+	private volatile Map<Class<?>, EventHandler> dispatchTable = new Object2ObjectOpenHashMap<>();
+
+	// the dispatch table of the generic events with a generic type, by event class and then generic type, the handlers
+	// are of the kind of the event class's, see newHandler
+	private volatile Map<Class<?>, Map<Class<?>, EventHandler>> genericTable = new Object2ObjectOpenHashMap<>();
+
+	// every published handler with the class and generic type it dispatches, the tables are built from these
+	private final ObjectList<Dispatch> published = new ObjectArrayList<>();
+
+	// the published handlers the listeners of each registered event class may be in, the ones of the class and of it's
+	// sub classes, so registering doesn't go through the whole dispatch table. built when a handler is published
+	private final Map<Class<?>, ObjectList<Dispatch>> dispatches = new Object2ObjectOpenHashMap<>();
+
+	// every listener in registration order, to fill the handlers of classes and generic types added later
+	private final Long2ObjectMap<Listener<?>> registered = new Long2ObjectLinkedOpenHashMap<>();
+
+	// the generic types of the listeners that only listen to generic events of a type
+	private final Long2ObjectMap<Class<?>> genericTypes = new Long2ObjectOpenHashMap<>();
 
 	// map of event class to event key for generating listener ids
-	private final Object2ShortMap<Class<? extends Event>> eventKeys = new Object2ShortOpenHashMap<>();
+	private final Object2IntMap<Class<? extends Event>> eventKeys = new Object2IntOpenHashMap<>();
 
-	// map of event keys to event class for parsing listener ids
-	private final Short2ObjectMap<Class<? extends Event>> keyEvents = new Short2ObjectOpenHashMap<>();
+	// the event classes by event key for parsing listener ids, the next event key is it's size
+	private final ObjectList<Class<? extends Event>> keyEvents = new ObjectArrayList<>();
 
 	// the default event handler supplier
 	private final Supplier<EventHandler<?>> eventHandlerSupplier;
 
+	// runs the async listeners and invokeAsync
+	private final Executor executor;
+
+	// the futures of the async listeners started by the invokeAsync running on the current thread
+	private final ThreadLocal<List<CompletableFuture<?>>> pendingAsync = new ThreadLocal<>();
+
+	// the metrics the published handlers and listeners are instrumented for, null while they're disabled
+	private volatile EventMetrics metrics;
+
+	// the watchdog the published handlers and listeners are watched by, null if there is none
+	private Watchdog watchdog;
+
+	// gets the exceptions of every listener, they're all wrapped in a GuardedListener
+	private volatile ExceptionHandler exceptionHandler = new LoggingExceptionHandler();
+
+	// the listeners the exception handler asked to unregister, removed by sweep since they can't be while invoking
+	private final LongList tripped = new LongArrayList();
+
+	// the groups of the objects registered weakly, their references are queued once the object is collected
+	private final Set<GroupReference> references = new ObjectOpenHashSet<>();
+	private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
 	/**
 	 * Creates a new wool event manager with a default EventHandler
 	 *
 	 * @param eventHandlerSupplier default event handler supplier
+	 * @param executor the executor async listeners and {@link #invokeAsync(Event)} run on
 	 */
-	public MicroEventManager(Supplier<EventHandler<?>> eventHandlerSupplier) {
+	public MicroEventManager(Supplier<EventHandler<?>> eventHandlerSupplier, Executor executor) {
 		this.eventHandlerSupplier = eventHandlerSupplier;
+		this.executor = executor;
+	}
+
+	/**
+	 * Creates a new wool event manager with a default EventHandler, async listeners run on virtual threads if the jvm
+	 * supports them, otherwise on a cached pool of daemon threads
+	 *
+	 * @param eventHandlerSupplier default event handler supplier
+	 */
+	public MicroEventManager(Supplier<EventHandler<?>> eventHandlerSupplier) {
+		this(eventHandlerSupplier, defaultExecutor());
 	}
 
 	/**
@@ -72,83 +144,466 @@ public class MicroEventManager implements EventManager {
 	}
 
 	@Override
-	public <T extends Event> int registerListener(Class<T> eventClass, Listener<T> listener, Priority priority, boolean callSubs) {
-		if (listenerIDHolder.full()) // check if the id holder has exceeded capacity
-			throw new IllegalArgumentException("cannot register more than " + MAX_LISTENERS + " listeners!");
-		int identity = newListenerID(priority, eventClass, callSubs);
-		Objects.requireNonNull(listeners.get(eventClass), eventClass + " has not been registered!").register(identity, listener, priority);
-		if (callSubs) for (Class<?> aSuper : getSupers(eventClass)) {
-			EventHandler<?> eventHandler = listeners.get(aSuper);
-			if (eventHandler != null) eventHandler.register(identity, (Listener) listener, priority);
-		}
+	public <T extends Event> long registerListener(Class<T> eventClass, Listener<T> listener, Priority priority, boolean callSubs, boolean async) {
+		return register(eventClass, null, null, listener, priority, callSubs, async);
+	}
 
+	@Override
+	public <T extends Event> long registerListener(Class<T> eventClass, Listener<T> listener, Priority priority, boolean callSubs) {
+		return register(eventClass, null, null, listener, priority, callSubs, false);
+	}
+
+	@Override
+	public <T extends GenericEvent<?>> long registerListener(Class<T> eventClass, Class<?> genericType, Listener<T> listener, Priority priority, boolean callSubs, boolean async) {
+		return register(eventClass, Objects.requireNonNull(genericType, "genericType"), null, listener, priority, callSubs, async);
+	}
+
+	@Override
+	public <T extends Event> long registerListener(Class<T> eventClass, Function<? super T, ?> property, Object key, Listener<T> listener, Priority priority, boolean callSubs, boolean async) {
+		Objects.requireNonNull(property, "property");
+		return register(eventClass, null, l -> new FilteredListener<>(property, key, l), listener, priority, callSubs, async);
+	}
+
+	@Override
+	public <T extends Keyed> long registerListener(Class<T> eventClass, long key, Listener<T> listener, Priority priority, boolean callSubs, boolean async) {
+		return register(eventClass, null, l -> new KeyedListener<>(key, l), listener, priority, callSubs, async);
+	}
+
+	/**
+	 * @param filter wraps the listener in a {@link FilteredListener} or a {@link KeyedListener}, null for the others
+	 */
+	private synchronized long register(Class<?> eventClass, Class<?> genericType, UnaryOperator<Listener> filter, Listener<?> listener, Priority priority, boolean callSubs, boolean async) {
+		Objects.requireNonNull(listeners.get(eventClass), eventClass + " has not been registered!");
+		sweep();
+		long identity = newListenerID(priority, eventClass, callSubs);
+		listener = GuardedListener.of((Listener) listener, identity, this);
+		if (async) listener = new AsyncListener<>((Listener) listener, executor, pendingAsync);
+		listener = wrap(identity, listener, null);
+		if (filter != null) listener = filter.apply(listener);
+		registered.put(identity, listener);
+		if (genericType != null) genericTypes.put(identity, genericType);
+		for (Dispatch dispatch : dispatches.get(eventClass))
+			if (matches(identity, dispatch.eventClass, dispatch.genericType)) dispatch.handler.register((int) identity, listener, priority);
 		return identity;
 	}
 
+	/**
+	 * ids that aren't registered, like the ones that were already unregistered, are ignored
+	 */
+	@Override
+	public synchronized void unregister(long listenerID) {
+		if (registered.containsKey(listenerID)) {
+			for (Dispatch dispatch : dispatches.get(getEvent(listenerID)))
+				if (matches(listenerID, dispatch.eventClass, dispatch.genericType)) dispatch.handler.remove((int) listenerID);
+			free(listenerID, metrics, exceptionHandler);
+		}
+		sweep();
+	}
+
+	/**
+	 * removes the listeners with a single {@link EventHandler#removeAll(int[], int)} per handler they're in
+	 */
 	@Override
-	public void unregister(int listenerID) {
-		Class<? extends Event> event = getEvent(listenerID);
-		Objects.requireNonNull(listeners.get(event), "No event with id " + getEvent(listenerID) + " found!").remove(listenerID);
-		listenerIDHolder.remove(listenerID >>> 16);
+	public synchronized void unregisterAll(LongList listenerIDs) {
+		LongList ids = new LongArrayList(listenerIDs.size());
+		for (int i = 0; i < listenerIDs.size(); i++)
+			if (registered.containsKey(listenerIDs.getLong(i))) ids.add(listenerIDs.getLong(i));
+		Map<Dispatch, IntList> batches = new Reference2ObjectLinkedOpenHashMap<>();
+		for (int i = 0; i < ids.size(); i++) {
+			long id = ids.getLong(i);
+			for (Dispatch dispatch : dispatches.get(getEvent(id)))
+				if (matches(id, dispatch.eventClass, dispatch.genericType)) batches.computeIfAbsent(dispatch, d -> new IntArrayList()).add((int) id);
+		}
+		for (Map.Entry<Dispatch, IntList> batch : batches.entrySet())
+			batch.getKey().handler.removeAll(batch.getValue().toIntArray(), batch.getValue().size());
+		EventMetrics metrics = this.metrics;
+		ExceptionHandler exceptionHandler = this.exceptionHandler;
+		for (int i = 0; i < ids.size(); i++)
+			free(ids.getLong(i), metrics, exceptionHandler);
+		sweep();
+	}
+
+	// drops a registered listener that was removed from it's handlers, and frees it's slot for a new generation
+	private void free(long id, EventMetrics metrics, ExceptionHandler exceptionHandler) {
+		registered.remove(id);
+		genericTypes.remove(id);
+		if (metrics != null) metrics.remove(id);
+		int slot = slot((int) id);
+		if (!listenerIDHolder.remove(slot)) throw new IllegalStateException("the slot of listener " + id + " was already free");
+		generations[slot]++;
+		exceptionHandler.unregistered(id);
+	}
+
+	/**
+	 * sets what happens to the exceptions thrown by the listeners, by default at most 10 per second are logged
+	 *
+	 * @param exceptionHandler the exception handler
+	 * @see CircuitBreaker
+	 */
+	public void setExceptionHandler(ExceptionHandler exceptionHandler) {
+		this.exceptionHandler = Objects.requireNonNull(exceptionHandler, "exceptionHandler");
 	}
 
 	/**
-	 * keep a cache of the super classes to avoid unneeded reflection calls
+	 * @return the exception handler
 	 */
-	protected Map<Class<? extends Event>, List<Class<? extends Event>>> eventSubcache = new Object2ObjectOpenHashMap<>();
+	public ExceptionHandler exceptionHandler() {
+		return exceptionHandler;
+	}
+
+	// called by the guarded listeners, counts the exception in the metrics and lets the exception handler decide
+	void exception(GuardedListener<?> listener, Event event, Throwable throwable) {
+		EventMetrics metrics = this.metrics;
+		ListenerStats stats = metrics == null ? null : metrics.listener(listener.id);
+		if (stats != null) stats.exception();
+		if (exceptionHandler.handle(listener.id, listener.listener, event, throwable)) {
+			listener.tripped = true;
+			synchronized (tripped) {
+				tripped.add(listener.id);
+			}
+		}
+	}
+
+	// unregisters the listeners that were tripped by the exception handler and the groups of collected objects, must hold the lock
+	private void sweep() {
+		for (Reference<?> reference; (reference = collected.poll()) != null; )
+			((GroupReference) reference).group.close(); // forgets the reference
+		long[] ids;
+		synchronized (tripped) {
+			if (tripped.isEmpty()) return;
+			ids = tripped.toLongArray();
+			tripped.clear();
+		}
+		unregisterAll(LongArrayList.wrap(ids));
+	}
 
 	@Override
 	public <T extends Event> void invoke(T event) {
-		Class<? extends Event> eventClass = event.getClass();
-		invokeFor(event, eventClass, false);
-		for (Class<? extends Event> aSuper : getSupers(eventClass))
-			invokeFor(event, aSuper, true);
+		handler(event).invoke(event, false);
+	}
+
+	/**
+	 * @return the handler the event is dispatched with, see {@link #dispatchTable}
+	 */
+	private EventHandler handler(Event event) {
+		Class<?> eventClass = event.getClass();
+		if (event instanceof GenericEvent) {
+			Class<?> type = ((GenericEvent<?>) event).getGenericType();
+			if (type != null) {
+				Map<Class<?>, EventHandler> types = genericTable.get(eventClass);
+				EventHandler handler = types == null ? null : types.get(type);
+				return handler == null ? resolve(eventClass, type) : handler;
+			}
+		}
+		EventHandler handler = dispatchTable.get(eventClass);
+		return handler == null ? resolve(eventClass, null) : handler;
+	}
+
+	@Override
+	public <T extends Event> void invokeAll(Class<T> eventClass, T[] events) {
+		for (T event : events)
+			if (event.getClass() != eventClass)
+				throw new IllegalArgumentException(event.getClass() + " is not " + eventClass + ", batches must be of the exact same class");
+		if (events.getClass().getComponentType() != eventClass) // batch listeners are compiled against the exact array type
+			events = Arrays.copyOf(events, events.length, (Class<T[]>) Array.newInstance(eventClass, 0).getClass());
+		if (events.length == 0) return;
+		if (events[0] instanceof GenericEvent) { // the batch can only go to one handler if it has one generic type
+			Class<?> type = ((GenericEvent<?>) events[0]).getGenericType();
+			for (T event : events)
+				if (((GenericEvent<?>) event).getGenericType() != type) {
+					for (T each : events)
+						invoke(each);
+					return;
+				}
+		}
+		handler(events[0]).invokeAll(events, false);
+	}
+
+	@Override
+	public <T extends Event> void invokeAll(Class<T> eventClass, List<T> events) {
+		invokeAll(eventClass, events.toArray((T[]) Array.newInstance(eventClass, events.size())));
+	}
+
+	@Override
+	public <T extends Event> CompletableFuture<T> invokeAsync(T event) {
+		return CompletableFuture.supplyAsync(() -> {
+			List<CompletableFuture<?>> pending = new ObjectArrayList<>();
+			pendingAsync.set(pending);
+			try {
+				invoke(event);
+			} finally {
+				pendingAsync.remove();
+			}
+			return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]));
+		}, executor).thenCompose(f -> f).thenApply(v -> event);
+	}
+
+	/**
+	 * creates the handler for an event class that was never registered, or a generic type that was never invoked, fills
+	 * it with the listeners that match it and publishes it
+	 *
+	 * @param eventClass the class of the event
+	 * @param genericType the generic type of the event, or null
+	 * @return the handler for the class and generic type, see {@link #dispatchTable}
+	 */
+	private synchronized EventHandler resolve(Class<?> eventClass, Class<?> genericType) {
+		Map<Class<?>, EventHandler> types = genericType == null ? dispatchTable : genericTable.get(eventClass);
+		EventHandler handler = types == null ? null : types.get(genericType == null ? eventClass : genericType);
+		if (handler != null) return handler; // resolved by another thread
+		return publish(eventClass, genericType, newHandler(eventClass));
+	}
+
+	/**
+	 * creates the handler of an event class that was never registered, or of a generic type of an event class, from
+	 * {@link EventHandler#newHandler()} of the handler of the class or it's nearest registered super class, or the first
+	 * registered interface it implements, so it's dispatched like the events it's listeners were registered for
+	 *
+	 * @return a new handler, the default one if no super's handler has a kind of it's own
+	 */
+	private EventHandler newHandler(Class<?> eventClass) {
+		EventHandler registered = null;
+		for (Class<?> c = eventClass; c != null && registered == null; c = c.getSuperclass())
+			registered = listeners.get(c);
+		for (int i = 0; i < keyEvents.size() && registered == null; i++)
+			if (keyEvents.get(i).isInterface() && keyEvents.get(i).isAssignableFrom(eventClass)) registered = listeners.get(keyEvents.get(i));
+		EventHandler handler = registered == null ? null : registered.newHandler();
+		return handler == null ? eventHandlerSupplier.get() : handler;
+	}
+
+	/**
+	 * fills the handler with the listeners that match the class and generic type, and makes it the handler they're
+	 * invoked with, must hold the lock
+	 *
+	 * @return the handler, instrumented if the metrics are enabled and watched if there is a watchdog
+	 */
+	private EventHandler publish(Class<?> eventClass, Class<?> genericType, EventHandler handler) {
+		handler = wrap(eventClass, handler);
+		fill(handler, eventClass, genericType);
+		index(eventClass, genericType, handler);
+		if (genericType == null) {
+			Map<Class<?>, EventHandler> copy = new Object2ObjectOpenHashMap<>(dispatchTable);
+			copy.put(eventClass, handler);
+			dispatchTable = copy;
+		} else {
+			Map<Class<?>, Map<Class<?>, EventHandler>> copy = new Object2ObjectOpenHashMap<>(genericTable);
+			Map<Class<?>, EventHandler> types = new Object2ObjectOpenHashMap<>(copy.getOrDefault(eventClass, Collections.emptyMap()));
+			types.put(genericType, handler);
+			copy.put(eventClass, types);
+			genericTable = copy;
+		}
+		return handler;
+	}
+
+	// adds the published handler to the dispatches of the class and of every registered super class of it
+	private void index(Class<?> eventClass, Class<?> genericType, EventHandler handler) {
+		for (Dispatch dispatch : published)
+			if (dispatch.eventClass == eventClass && dispatch.genericType == genericType) { // the class was registered again
+				dispatch.handler = handler;
+				return;
+			}
+		Dispatch dispatch = new Dispatch(eventClass, genericType, handler);
+		published.add(dispatch);
+		for (Class<? extends Event> event : keyEvents)
+			if (event.isAssignableFrom(eventClass)) dispatches.computeIfAbsent(event, e -> new ObjectArrayList<>()).add(dispatch);
+	}
+
+	// registers the listeners that match the class and generic type in the handler at once, in the order they were
+	// registered
+	private void fill(EventHandler handler, Class<?> eventClass, Class<?> genericType) {
+		int[] ids = new int[registered.size()];
+		Listener[] listeners = new Listener[ids.length];
+		Priority[] priorities = new Priority[ids.length], values = Priority.values();
+		int size = 0;
+		for (Long2ObjectMap.Entry<Listener<?>> entry : registered.long2ObjectEntrySet()) {
+			long id = entry.getLongKey();
+			if (matches(id, eventClass, genericType)) {
+				ids[size] = (int) id;
+				listeners[size] = entry.getValue();
+				priorities[size++] = values[(int) id & 7];
+			}
+		}
+		handler.registerAll(ids, listeners, priorities, size);
+	}
+
+	/**
+	 * starts recording the invoke counts and latencies of every event class, and the execution time and exceptions of
+	 * every listener. the handlers and listeners are swapped for instrumented ones, so the metrics cost nothing while
+	 * they're disabled, events invoked on other threads while they're being swapped may miss listeners
+	 *
+	 * @return the metrics, the same ones until they're disabled
+	 */
+	public synchronized EventMetrics enableMetrics() {
+		if (metrics == null) {
+			metrics = new EventMetrics();
+			rewrap();
+		}
+		return metrics;
+	}
+
+	/**
+	 * stops recording the metrics, and swaps the plain handlers and listeners back in
+	 */
+	public synchronized void disableMetrics() {
+		if (metrics != null) {
+			metrics = null;
+			rewrap();
+		}
+	}
+
+	/**
+	 * @return the metrics, or null if they're disabled
+	 */
+	public synchronized EventMetrics metrics() {
+		return metrics;
 	}
 
-	private <T extends Event> void invokeFor(T event, Class<? extends Event> clazz, boolean forSubs) {
-		EventHandler handler = listeners.get(clazz);
-		assert handler != null || forSubs : clazz + " not registered!";
-		if (handler != null) handler.invoke(event, forSubs);
+	/**
+	 * installs a watchdog that reports the listeners and invokes that go over their time budgets, and demotes the
+	 * listeners that do it too often. the handlers and listeners are swapped for watched ones like the metrics, the
+	 * demoted listeners stay demoted until another watchdog is installed
+	 *
+	 * @param watchdog the watchdog, or null to remove it
+	 */
+	public synchronized void setWatchdog(Watchdog watchdog) {
+		if (this.watchdog == watchdog) return;
+		this.watchdog = watchdog;
+		rewrap();
 	}
 
-	private List<Class<? extends Event>> getSupers(Class<? extends Event> classOf) {
-		List<Class<? extends Event>> cache = eventSubcache.get(classOf);
-		return cache == null ? cacheSupers(classOf) : cache;
+	/**
+	 * @return the watchdog, or null if there is none
+	 */
+	public synchronized Watchdog watchdog() {
+		return watchdog;
 	}
 
-	private List<Class<? extends Event>> cacheSupers(Class<? extends Event> event) { // TODO replace with getSubclasses
-		ObjectList<Class<? extends Event>> classes = new ObjectArrayList<>();
-		Class<?> current = event.getSuperclass();
-		while (current != null && Event.class.isAssignableFrom(current)) {
-			classes.add((Class<? extends Event>) current);
-			current = current.getSuperclass();
+	/**
+	 * instruments and watches the listener if the metrics are enabled and there is a watchdog
+	 *
+	 * @param previous the wrapped listener it replaces, it's violations and demotion are kept if it was watched by the
+	 * same watchdog. null for new listeners
+	 */
+	private Listener wrap(long id, Listener listener, Listener previous) {
+		if (metrics != null) listener = metrics.instrument(id, getEvent(id), listener);
+		if (watchdog != null) {
+			UnaryOperator<Listener> async = l -> new AsyncListener<>(l, executor, pendingAsync);
+			WatchedListener watched = listener instanceof BatchListener ? new WatchedListener.Batch<>((BatchListener) listener, id, watchdog, (UnaryOperator) async)
+					: new WatchedListener<>(listener, id, watchdog, (UnaryOperator) async);
+			if (previous instanceof WatchedListener && ((WatchedListener) previous).watchdog == watchdog) watched.inherit((WatchedListener) previous);
+			listener = watched;
 		}
+		return listener;
+	}
 
-		eventSubcache.put(event, classes);
-		return classes;
+	private Listener rewrap(long id, Listener previous) {
+		return wrap(id, unwrap(previous), previous);
 	}
 
+	private EventHandler wrap(Class<?> eventClass, EventHandler handler) {
+		if (metrics != null) handler = metrics.instrument(eventClass, handler);
+		if (watchdog != null && watchdog.budget(eventClass) != Long.MAX_VALUE) handler = new WatchedEventHandler<>(handler, eventClass, watchdog);
+		return handler;
+	}
+
+	private static Listener unwrap(Listener listener) {
+		if (listener instanceof WatchedListener) listener = ((WatchedListener) listener).listener;
+		return listener instanceof InstrumentedListener ? ((InstrumentedListener) listener).listener : listener;
+	}
+
+	private static EventHandler unwrap(EventHandler handler) {
+		if (handler instanceof WatchedEventHandler) handler = ((WatchedEventHandler) handler).handler;
+		return handler instanceof InstrumentedEventHandler ? ((InstrumentedEventHandler) handler).handler : handler;
+	}
+
+	// re-registers every listener in every published handler, wrapped for the current metrics and watchdog
+	private void rewrap() {
+		for (Long2ObjectMap.Entry<Listener<?>> entry : registered.long2ObjectEntrySet()) {
+			Listener listener = entry.getValue();
+			if (listener instanceof FilteredListener) {
+				FilteredListener filter = (FilteredListener) listener;
+				entry.setValue(new FilteredListener<>(filter.getProperty(), filter.getKey(), rewrap(entry.getLongKey(), filter.getListener())));
+			} else if (listener instanceof KeyedListener) {
+				KeyedListener keyed = (KeyedListener) listener;
+				entry.setValue(new KeyedListener<>(keyed.getKey(), rewrap(entry.getLongKey(), keyed.getListener())));
+			} else entry.setValue(rewrap(entry.getLongKey(), listener));
+		}
+
+		Map<Class<?>, EventHandler> table = new Object2ObjectOpenHashMap<>(dispatchTable.size());
+		Map<Class<?>, Map<Class<?>, EventHandler>> generic = new Object2ObjectOpenHashMap<>(genericTable.size());
+		for (Dispatch dispatch : published) {
+			dispatch.handler = swap(dispatch.handler, dispatch.eventClass, dispatch.genericType);
+			if (dispatch.genericType == null) table.put(dispatch.eventClass, dispatch.handler);
+			else generic.computeIfAbsent(dispatch.eventClass, c -> new Object2ObjectOpenHashMap<>()).put(dispatch.genericType, dispatch.handler);
+		}
+		dispatchTable = table;
+		genericTable = generic;
+	}
+
+	private EventHandler swap(EventHandler handler, Class<?> eventClass, Class<?> genericType) {
+		int[] ids = new int[registered.size()];
+		int size = 0;
+		for (long id : registered.keySet())
+			if (matches(id, eventClass, genericType)) ids[size++] = (int) id;
+		handler.removeAll(ids, size);
+		handler = wrap(eventClass, unwrap(handler));
+		fill(handler, eventClass, genericType);
+		return handler;
+	}
+
+	/**
+	 * @return if the listener should be called for events of the class and generic type (or no generic type if null)
+	 */
+	private boolean matches(long id, Class<?> eventClass, Class<?> genericType) {
+		Class<?> event = getEvent(id);
+		if (event != eventClass && ((id >>> 15 & 1) == 0 || !event.isAssignableFrom(eventClass))) return false;
+		Class<?> type = genericTypes.get(id);
+		return type == null || genericType != null && type.isAssignableFrom(genericType);
+	}
 
 	@Override
-	public void registerEvent(Class<? extends Event> eventClass) {
+	public synchronized void registerEvent(Class<? extends Event> eventClass) {
 		registerEvent(eventClass, (EventHandler) eventHandlerSupplier.get());
 	}
 
+	/**
+	 * <b>the handler only gets the events of exactly this class without a generic type.</b> the sub classes that aren't
+	 * registered, and the generic types of {@link GenericEvent}s, get new handlers of it's kind from
+	 * {@link EventHandler#newHandler()}, or the manager's default handler if it doesn't implement it. a sub class that's
+	 * registered on it's own, even with {@link #registerEvent(Class)}, gets a handler of it's own that the sub listeners
+	 * of this class are flattened into, so this handler doesn't see those events at all
+	 */
 	@Override
-	public <T extends Event> void registerEvent(Class<T> eventClass, EventHandler<T> handler) {
-		assert eventId < MAX_EVENTS : "Cannot register more than " + MAX_EVENTS + " events in one event manager!";
-		short id = eventId++;
-		listeners.put(eventClass, handler);
-		keyEvents.put(id, eventClass);
+	public synchronized <T extends Event> void registerEvent(Class<T> eventClass, EventHandler<T> handler) {
+		int id = keyEvents.size();
+		if (id >= MAX_EVENTS) throw new IllegalArgumentException("cannot register more than " + MAX_EVENTS + " events!");
+		Map<Class<? extends Event>, EventHandler> copy = new Object2ObjectOpenHashMap<>(listeners);
+		copy.put(eventClass, handler);
+		listeners = copy;
+		keyEvents.add(eventClass);
 		eventKeys.put(eventClass, id);
+		ObjectList<Dispatch> subs = new ObjectArrayList<>();
+		for (Dispatch dispatch : published)
+			if (eventClass.isAssignableFrom(dispatch.eventClass)) subs.add(dispatch);
+		dispatches.put(eventClass, subs);
+		publish(eventClass, null, handler);
 	}
 
 	/**
-	 * a map that gives the functions that take in an object's class and return it's listener registers
+	 * a map that gives the functions that take in an object's class and return it's listener registers. they're cached
+	 * with the classes and shared by every manager, so they take the manager instead of capturing it
 	 */
-	private final InheritedMap<Object, ToIntFunction<Object>> instanceMethods = new InheritedMap<>(Object.class, c -> {
+	private static final InheritedMap<Object, ToLongBiFunction<EventManager, Object>> INSTANCE_METHODS = new InheritedMap<>(Object.class, c -> declaredListeners(c, false));
+
+	// the same for the listeners that only hold the object weakly
+	private static final InheritedMap<Object, ToLongBiFunction<EventManager, Object>> WEAK_INSTANCE_METHODS = new InheritedMap<>(Object.class, c -> declaredListeners(c, true));
+
+	// the listener registers of the declared instance methods of the class, generated ones if the class has them
+	private static List<ToLongBiFunction<EventManager, Object>> declaredListeners(Class<?> c, boolean weak) {
+		GeneratedListeners generated = generatedListeners(c);
+		List<ToLongBiFunction<EventManager, Object>> registers = generated == null ? null : weak ? generated.weakInstanceListeners() : generated.instanceListeners();
+		if (registers != null) return registers;
 		Method[] objects = c.getDeclaredMethods();
-		ObjectList<ToIntFunction<Object>> declared = new ObjectArrayList<>();
+		ObjectList<ToLongBiFunction<EventManager, Object>> declared = new ObjectArrayList<>();
 		for (Method method : objects)
 			if (!(Modifier.isStatic(method.getModifiers()) || Modifier.isAbstract(method.getModifiers()))) { // only for instance methods
 				EventListener listener = method.getAnnotation(EventListener.class);
@@ -159,7 +614,11 @@ public class MicroEventManager implements EventManager {
 					else if (!Event.class.isAssignableFrom(params[0]))
 						throw new IllegalArgumentException(method + " is trying to listen to " + params[0] + " which does not extend " + Event.class);
 					Lambda lambda = LambdaFactory.create(method); // for faster method invoke
-					declared.add(o -> registerListener((Class<? extends Event>) params[0], e -> lambda.invoke_for_void(o, e), listener.priority(), listener.subEvents()));
+					Class<?> genericType = genericType(method.getGenericParameterTypes()[0]);
+					Function<Object, Object> property = listener.filter().isEmpty() ? null : property(method, params[0], genericType, listener.filter());
+					Function<Object, Object> key = property == null ? null : function(getter(c, listener.filter(), false));
+					declared.add((manager, o) -> ((MicroEventManager) manager).register(params[0], genericType, property == null ? null : filter(property, key.apply(o)),
+							weak ? MethodListener.weak(method, lambda, new WeakReference<>(o)) : MethodListener.of(method, lambda, o), listener.priority(), listener.subEvents(), listener.async()));
 					if (!Modifier.isFinal(method.getModifiers())) // TODO find a performant way to check for super methods
 						LOGGER.warning(method + " is not final, it is recommended to make listener methods final as subclasses that override them will get called twice per event!");
 				} catch (Throwable throwable) {
@@ -167,20 +626,35 @@ public class MicroEventManager implements EventManager {
 				}
 			}
 		return declared;
-	});
+	}
+
+	@Override
+	public ListenerGroup registerEventListeners(Object object) {
+		return registerEventListeners(object, false);
+	}
 
 	@Override
-	public IntList registerEventListeners(Object object) {
-		NodedList<ToIntFunction<Object>> map = instanceMethods.getAttributes(object.getClass());
-		IntList list = new IntArrayList(map.size());
-		for (ToIntFunction<Object> f : map)
-			list.add(f.applyAsInt(object));
-		return list;
+	public synchronized ListenerGroup registerEventListeners(Object object, boolean weak) {
+		NodedList<ToLongBiFunction<EventManager, Object>> registers = (weak ? WEAK_INSTANCE_METHODS : INSTANCE_METHODS).getAttributes(object.getClass()); // cached per class, flat
+		long[] ids = new long[registers.size()];
+		for (int i = 0; i < ids.length; i++)
+			ids[i] = registers.get(i).applyAsLong(this, object);
+		if (!weak) return new ListenerGroup(this, ids);
+		GroupReference reference = new GroupReference(object, collected);
+		references.add(reference);
+		return reference.group = new ListenerGroup(this, ids, () -> forget(reference));
+	}
+
+	// drops the reference of a weak group that was closed, so the manager doesn't keep it until the object is collected
+	private synchronized void forget(GroupReference reference) {
+		references.remove(reference);
 	}
 
 	@Override
-	public IntList registerStaticEventListeners(Class<?> classOf) {
-		IntList integers = new IntArrayList();
+	public synchronized ListenerGroup registerStaticEventListeners(Class<?> classOf) {
+		GeneratedListeners generated = generatedListeners(classOf);
+		if (generated != null) return new ListenerGroup(this, generated.registerStaticListeners(this).toLongArray());
+		ListenerGroup integers = new ListenerGroup(this);
 		for (Method method : classOf.getDeclaredMethods())
 			if (Modifier.isStatic(method.getModifiers()) && !Modifier.isAbstract(method.getModifiers())) {
 				EventListener listener = method.getAnnotation(EventListener.class);
@@ -191,7 +665,11 @@ public class MicroEventManager implements EventManager {
 					else if (!Event.class.isAssignableFrom(params[0]))
 						throw new IllegalArgumentException(method + " is trying to listen to " + params[0] + " which does not extend " + Event.class);
 					Lambda lambda = LambdaFactory.create(method);
-					integers.add(registerListener((Class<? extends Event>) params[0], lambda::invoke_for_void, listener.priority(), listener.subEvents()));
+					Class<?> genericType = genericType(method.getGenericParameterTypes()[0]);
+					if (listener.filter().isEmpty())
+						integers.add(register(params[0], genericType, null, MethodListener.of(method, lambda), listener.priority(), listener.subEvents(), listener.async()));
+					else
+						integers.add(register(params[0], null, filter(property(method, params[0], genericType, listener.filter()), getter(classOf, listener.filter(), true).invoke(null)), MethodListener.of(method, lambda), listener.priority(), listener.subEvents(), listener.async()));
 				} catch (Throwable t) {
 					throw new RuntimeException(t);
 				}
@@ -199,25 +677,200 @@ public class MicroEventManager implements EventManager {
 		return integers;
 	}
 
+	private static UnaryOperator<Listener> filter(Function<Object, Object> property, Object key) {
+		return l -> new FilteredListener<>(property, key, l);
+	}
+
+	// the property function of a filter, shared by all the listeners with the same property so they share an index
+	private static Function<Object, Object> property(Method listener, Class<?> eventClass, Class<?> genericType, String name) throws ReflectiveOperationException {
+		if (genericType != null)
+			throw new IllegalArgumentException(listener + " can't have a filter and a generic type");
+		Method getter = getter(eventClass, name, false);
+		return (Function<Object, Object>) FilteredListener.property(getter.getDeclaringClass(), name, function(getter));
+	}
+
+	/**
+	 * finds a method without parameters in the class or it's supers, or a default method of it's interfaces
+	 */
+	private static Method getter(Class<?> owner, String name, boolean isStatic) throws ReflectiveOperationException {
+		for (Class<?> c = owner; c != null; c = c.getSuperclass())
+			for (Method method : c.getDeclaredMethods())
+				if (method.getName().equals(name) && method.getParameterCount() == 0 && Modifier.isStatic(method.getModifiers()) == isStatic) {
+					method.setAccessible(true);
+					return method;
+				}
+		for (Method method : owner.getMethods())
+			if (method.getName().equals(name) && method.getParameterCount() == 0 && Modifier.isStatic(method.getModifiers()) == isStatic)
+				return method;
+		throw new NoSuchMethodException(owner.getName() + '.' + name + "() for the filter");
+	}
+
+	// an instance getter as a function, made like the listener lambdas so the property is a direct call on every
+	// invoke. the lambda keeps the getter's primitive return type, so it's boxed here
+	private static Function<Object, Object> function(Method getter) {
+		Lambda lambda;
+		try {
+			lambda = LambdaFactory.create(getter);
+		} catch (Throwable t) {
+			throw new RuntimeException(t);
+		}
+		Class<?> type = getter.getReturnType();
+		if (!type.isPrimitive()) return lambda::invoke_for_Object;
+		else if (type == long.class) return lambda::invoke_for_long;
+		else if (type == int.class) return lambda::invoke_for_int;
+		else if (type == boolean.class) return lambda::invoke_for_boolean;
+		else if (type == double.class) return lambda::invoke_for_double;
+		else if (type == float.class) return lambda::invoke_for_float;
+		else if (type == short.class) return lambda::invoke_for_short;
+		else if (type == byte.class) return lambda::invoke_for_byte;
+		else if (type == char.class) return lambda::invoke_for_char;
+		throw new IllegalArgumentException(getter + " returns void, it can't be a filter");
+	}
+
+	/**
+	 * @return an executor that starts a virtual thread per task if the jvm has them, a cached pool of daemon threads if
+	 * it doesn't
+	 */
+	private static Executor defaultExecutor() {
+		try {
+			return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, "MicroEvents async listener");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
 
 	/**
-	 * generates a new listener id
+	 * finds the type argument of {@link GenericEvent} in the parameter of a listener method, Zombie for EntityEvent&lt;Zombie&gt;
+	 *
+	 * @param parameter the generic type of the parameter
+	 * @return null if the parameter isn't a parameterized generic event, or it's type argument is Object
+	 */
+	private static Class<?> genericType(Type parameter) {
+		if (!(parameter instanceof ParameterizedType) || !GenericEvent.class.isAssignableFrom((Class<?>) ((ParameterizedType) parameter).getRawType()))
+			return null;
+		Class<?> type = erase(typeArgument(parameter, Collections.emptyMap()));
+		return type == Object.class ? null : type;
+	}
+
+	// walks up the super types of the type, binding the type variables, until it reaches GenericEvent
+	private static Type typeArgument(Type type, Map<TypeVariable<?>, Type> bindings) {
+		Class<?> raw;
+		if (type instanceof ParameterizedType) {
+			raw = (Class<?>) ((ParameterizedType) type).getRawType();
+			Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+			TypeVariable<?>[] variables = raw.getTypeParameters();
+			Map<TypeVariable<?>, Type> bound = new Object2ObjectOpenHashMap<>();
+			for (int i = 0; i < variables.length; i++)
+				bound.put(variables[i], bindings.getOrDefault(arguments[i], arguments[i]));
+			if (raw == GenericEvent.class) return bound.get(variables[0]);
+			bindings = bound;
+		} else if (type instanceof Class && type != GenericEvent.class) {
+			raw = (Class<?>) type;
+			bindings = Collections.emptyMap();
+		} else return null;
+
+		for (Type superType : raw.getGenericInterfaces()) {
+			Type argument = typeArgument(superType, bindings);
+			if (argument != null) return argument;
+		}
+		return raw.getGenericSuperclass() == null ? null : typeArgument(raw.getGenericSuperclass(), bindings);
+	}
+
+	private static Class<?> erase(Type type) {
+		if (type instanceof Class) return (Class<?>) type;
+		else if (type instanceof ParameterizedType) return (Class<?>) ((ParameterizedType) type).getRawType();
+		else if (type instanceof WildcardType) return erase(((WildcardType) type).getUpperBounds()[0]);
+		else if (type instanceof TypeVariable) return erase(((TypeVariable<?>) type).getBounds()[0]);
+		return Object.class;
+	}
+
+	/**
+	 * the classes the {@link io.github.microevents.processor.EventListenerProcessor} generated, by the class they
+	 * register. classes that weren't processed get {@link Optional#empty()}, so they're only looked up once
+	 */
+	private static final ClassValue<Optional<GeneratedListeners>> GENERATED = new ClassValue<Optional<GeneratedListeners>>() {
+		@Override
+		protected Optional<GeneratedListeners> computeValue(Class<?> type) {
+			try {
+				Class<?> generated = Class.forName(type.getName() + GeneratedListeners.SUFFIX, true, type.getClassLoader());
+				return Optional.of((GeneratedListeners) generated.getConstructor().newInstance());
+			} catch (ClassNotFoundException e) {
+				return Optional.empty();
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("unable to create the generated listeners of " + type, e);
+			}
+		}
+	};
+
+	/**
+	 * finds the class the {@link io.github.microevents.processor.EventListenerProcessor} generated for the class
+	 *
+	 * @param classOf the class with the listeners
+	 * @return null if the class wasn't processed
+	 */
+	private static GeneratedListeners generatedListeners(Class<?> classOf) {
+		return GENERATED.get(classOf).orElse(null);
+	}
+
+	/**
+	 * generates a new listener id, the low int is the key the handlers get: the priority in bits 0-2, the sub flag in bit
+	 * 15, and the slot from the id holder in the other 28 bits. the high int is the event key in bits 32-47 and the
+	 * generation of the slot in bits 48-63, so an old id only matches a listener that reused it's slot after 65536 more
+	 * registrations of that slot
 	 *
 	 * @param priority stored in 3 bits
-	 * @param event stored in 12 bits
+	 * @param event stored in bits 32-47
 	 * @return a key that's a combination of the listener id, event, and priority all in one :tiny_potato:
 	 */
-	private int newListenerID(Priority priority, Class<?> event, boolean callSubclasses) {
-		return priority.ordinal() | (eventKeys.getShort(event) << 3) | ((callSubclasses ? 1 : 0) << 15) | (listenerIDHolder.next() << 16);
+	private long newListenerID(Priority priority, Class<?> event, boolean callSubclasses) {
+		if (listenerIDHolder.full()) // check if the id holder has exceeded capacity
+			throw new IllegalArgumentException("cannot register more than " + MAX_LISTENERS + " listeners!");
+		int slot = listenerIDHolder.next();
+		if (slot >= generations.length) generations = Arrays.copyOf(generations, listenerIDHolder.capacity());
+		int key = priority.ordinal() | (slot & 0xFFF) << 3 | (callSubclasses ? 1 : 0) << 15 | slot >>> 12 << 16;
+		return (long) generations[slot] << 48 | (long) eventKeys.getInt(event) << 32 | key & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * @return the id holder slot stored in the handler key of a listener id
+	 */
+	private static int slot(int key) {
+		return key >>> 3 & 0xFFF | key >>> 16 << 12;
 	}
 
 	/**
 	 * retrieves the class of the event stored in the listenerid
 	 *
-	 * @param sig
-	 * @return
+	 * @param sig the listener id
+	 * @return null if there is no event with the key
 	 */
-	private Class<? extends Event> getEvent(int sig) {
-		return keyEvents.get((short) ((sig >>> 3) & MAX_EVENTS));
+	private Class<? extends Event> getEvent(long sig) {
+		int key = (int) (sig >>> 32) & 0xFFFF;
+		return key < keyEvents.size() ? keyEvents.get(key) : null;
+	}
+
+	// a published handler, the handler is replaced when the metrics or the watchdog change
+	private static final class Dispatch {
+		final Class<?> eventClass, genericType;
+		EventHandler handler;
+
+		Dispatch(Class<?> eventClass, Class<?> genericType, EventHandler handler) {
+			this.eventClass = eventClass;
+			this.genericType = genericType;
+			this.handler = handler;
+		}
+	}
+
+	// unregisters the group of a weakly registered object once it's collected
+	private static final class GroupReference extends WeakReference<Object> {
+		ListenerGroup group;
+
+		GroupReference(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+		}
 	}
 }
@@ -0,0 +1,130 @@
+package io.github.microevents;
+
+import io.github.microevents.events.*;
+import io.github.microevents.util.IntPair;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * a {@link MicroEventHandler} that splits the listeners of some priorities across a {@link ForkJoinPool}, and joins
+ * them before the next priority. meant for priorities with many listeners that don't mutate the event, like logging
+ * or analytics on {@link Priority#FINAL}, since they run at the same time in no particular order.
+ * <p>
+ * a priority only goes parallel when it's estimated time is over the threshold, the time per listener is sampled
+ * every 64 invokes, so small lists and cheap listeners stay on the invoking thread. a cancel only stops the listeners
+ * that didn't start yet
+ *
+ * @param <E> the event type
+ */
+public class ParallelEventHandler<E extends Event> extends MicroEventHandler<E> {
+	// less than this many listeners are never split, and no task gets less than half of it
+	private static final int MIN_SPLIT = 8;
+
+	private final ForkJoinPool pool;
+	private final long threshold;
+	// the priorities that may go parallel, a bit per ordinal
+	private final byte parallel;
+	// the sampled time per listener of each priority, racy but it's only an estimate
+	private final long[] cost = new long[7];
+	private int invokes;
+
+	/**
+	 * creates a new parallel handler
+	 *
+	 * @param pool the pool the listeners are split across
+	 * @param thresholdNanos the estimated time a priority has to take before it's split
+	 * @param priorities the priorities that may be split
+	 */
+	public ParallelEventHandler(ForkJoinPool pool, long thresholdNanos, Priority... priorities) {
+		this(pool, thresholdNanos, parallel(priorities));
+	}
+
+	private ParallelEventHandler(ForkJoinPool pool, long thresholdNanos, byte parallel) {
+		this.pool = pool;
+		this.threshold = thresholdNanos;
+		this.parallel = parallel;
+	}
+
+	/**
+	 * creates a new parallel handler on the common pool, that splits priorities estimated to take over 50 microseconds
+	 *
+	 * @param priorities the priorities that may be split
+	 */
+	public ParallelEventHandler(Priority... priorities) {
+		this(ForkJoinPool.commonPool(), TimeUnit.MICROSECONDS.toNanos(50), priorities);
+	}
+
+	private static byte parallel(Priority[] priorities) {
+		byte parallel = 0;
+		for (Priority priority : priorities)
+			parallel |= 1 << priority.ordinal();
+		return parallel;
+	}
+
+	@Override
+	public EventHandler<E> newHandler() {
+		return new ParallelEventHandler<>(pool, threshold, parallel);
+	}
+
+	@Override
+	protected boolean invoke(int priority, E event, boolean obeyCancelled, boolean sub) {
+		int flag = 1 << priority;
+		if ((parallel & flag) == 0 || (hasAny & flag) == 0 || sub && (hasSub & flag) == 0) return super.invoke(priority, event, obeyCancelled, sub);
+		Object[] pairs = listeners[priority].elements();
+		int size = listeners[priority].size();
+		boolean sample = (++invokes & 63) == 0;
+		if (size >= MIN_SPLIT && size * cost[priority] >= threshold)
+			pool.invoke(new Fanout(pairs, 0, size, priority, event, obeyCancelled, sub, sample));
+		else run(pairs, 0, size, priority, event, obeyCancelled, sub, sample);
+		return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+	}
+
+	// calls the listeners between from and to, and updates the cost of the priority if it's sampled
+	private void run(Object[] pairs, int from, int to, int priority, E event, boolean obeyCancelled, boolean sub, boolean sample) {
+		long start = sample ? System.nanoTime() : 0;
+		Cancellable cancellable = event instanceof Cancellable && obeyCancelled ? (Cancellable) event : null;
+		for (int i = from; i < to; i++) {
+			IntPair<Listener<E>> pair = (IntPair<Listener<E>>) pairs[i];
+			if (pair == null || sub && (pair.b >>> 15 & 1) == 0) continue;
+			if (cancellable != null && cancellable.isCancelled()) break;
+			pair.a.accept(event);
+		}
+		if (sample) {
+			long perListener = (System.nanoTime() - start) / Math.max(1, to - from);
+			cost[priority] = cost[priority] == 0 ? perListener : (cost[priority] * 7 + perListener) >> 3;
+		}
+	}
+
+	// splits the listeners in halves until a half is estimated to take less than the threshold
+	private final class Fanout extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] pairs;
+		private final int from, to, priority;
+		private final E event;
+		private final boolean obeyCancelled, sub, sample;
+
+		Fanout(Object[] pairs, int from, int to, int priority, E event, boolean obeyCancelled, boolean sub, boolean sample) {
+			this.pairs = pairs;
+			this.from = from;
+			this.to = to;
+			this.priority = priority;
+			this.event = event;
+			this.obeyCancelled = obeyCancelled;
+			this.sub = sub;
+			this.sample = sample;
+		}
+
+		@Override
+		protected void compute() {
+			int size = to - from;
+			if (size < MIN_SPLIT || size * cost[priority] < threshold) run(pairs, from, to, priority, event, obeyCancelled, sub, sample);
+			else {
+				int middle = from + (size >>> 1);
+				invokeAll(new Fanout(pairs, from, middle, priority, event, obeyCancelled, sub, sample),
+						new Fanout(pairs, middle, to, priority, event, obeyCancelled, sub, sample));
+			}
+		}
+	}
+}
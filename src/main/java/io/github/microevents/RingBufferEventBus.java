@@ -0,0 +1,297 @@
+package io.github.microevents;
+
+import io.github.microevents.events.Event;
+import io.github.microevents.events.EventManager;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * a ring buffer of preallocated, reused events in front of an {@link EventManager}. producers claim a slot, fill the
+ * event in it and publish it, consumer threads invoke the published events through the manager, so producers never
+ * allocate or run listeners themselves. any amount of producers may publish, each event is invoked by exactly one of
+ * the consumers, with more than one consumer events can be invoked out of order.
+ * <p>
+ * the events are reused, so listeners must not keep references to them, and the producer has to reset every field
+ * (including the cancelled state) when filling a slot. every claimed slot must be published or {@link #skip(long)
+ * skipped}, the consumers wait for it before they invoke the events after it
+ *
+ * @param <E> the event type
+ */
+public class RingBufferEventBus<E extends Event> implements AutoCloseable {
+	private final EventManager manager;
+	private final E[] slots;
+	private final int mask;
+	private final WaitStrategy waitStrategy;
+	private final Backpressure backpressure;
+
+	// the last claimed sequence
+	private final AtomicLong cursor = new AtomicLong(-1);
+	// the sequence published in every slot, a slot is readable once it holds the sequence the consumer is waiting for
+	private final AtomicLongArray published;
+	// if the slot was skipped instead of filled, written before it's published
+	private final boolean[] skipped;
+	// the last sequence claimed by a consumer
+	private final AtomicLong work = new AtomicLong(-1);
+	private volatile ExceptionHandler exceptionHandler = new LoggingExceptionHandler();
+
+	private volatile Worker[] workers = new Worker[0];
+	private volatile boolean running;
+
+	/**
+	 * creates a new ring buffer, the consumers must be started with {@link #start(int, ThreadFactory)}
+	 *
+	 * @param manager the manager the events are invoked in
+	 * @param factory creates the events for the slots
+	 * @param size the amount of slots, must be a power of 2
+	 * @param waitStrategy how producers and consumers wait
+	 * @param backpressure what {@link #publish(Consumer)} does when the buffer is full
+	 */
+	public RingBufferEventBus(EventManager manager, Supplier<E> factory, int size, WaitStrategy waitStrategy, Backpressure backpressure) {
+		if (Integer.bitCount(size) != 1) throw new IllegalArgumentException("size must be a power of 2, was " + size);
+		this.manager = manager;
+		this.slots = (E[]) new Event[size];
+		for (int i = 0; i < size; i++)
+			slots[i] = factory.get();
+		this.mask = size - 1;
+		this.waitStrategy = waitStrategy;
+		this.backpressure = backpressure;
+		this.published = new AtomicLongArray(size);
+		this.skipped = new boolean[size];
+		for (int i = 0; i < size; i++)
+			published.set(i, -1);
+	}
+
+	/**
+	 * starts the consumer threads
+	 *
+	 * @param consumers the amount of threads
+	 * @param threadFactory creates the threads
+	 */
+	public synchronized void start(int consumers, ThreadFactory threadFactory) {
+		if (running) throw new IllegalStateException("already started");
+		running = true;
+		Worker[] workers = new Worker[consumers];
+		for (int i = 0; i < consumers; i++) {
+			workers[i] = new Worker(this);
+			workers[i].sequence = work.get();
+		}
+		this.workers = workers;
+		for (Worker worker : workers)
+			(worker.thread = threadFactory.newThread(worker)).start();
+	}
+
+	/**
+	 * claims the next slot, waiting until there is one if the buffer is full
+	 *
+	 * @return the sequence of the slot, must be published with {@link #publish(long)}
+	 */
+	public long claim() {
+		long sequence = cursor.incrementAndGet();
+		for (int attempt = 0; sequence - slots.length > minConsumed(); attempt++)
+			waitStrategy.idle(attempt);
+		return sequence;
+	}
+
+	/**
+	 * claims the next slot if the buffer isn't full
+	 *
+	 * @return the sequence of the slot, or -1 if the buffer is full
+	 */
+	public long tryClaim() {
+		long current;
+		do {
+			current = cursor.get();
+			if (current + 1 - slots.length > minConsumed()) return -1;
+		} while (!cursor.compareAndSet(current, current + 1));
+		return current + 1;
+	}
+
+	/**
+	 * @param sequence a claimed sequence
+	 * @return the event in the slot, to be filled by the producer
+	 */
+	public E get(long sequence) {
+		return slots[(int) sequence & mask];
+	}
+
+	/**
+	 * makes the slot visible to the consumers
+	 *
+	 * @param sequence the claimed sequence
+	 */
+	public void publish(long sequence) {
+		skipped[(int) sequence & mask] = false;
+		published.lazySet((int) sequence & mask, sequence);
+	}
+
+	/**
+	 * publishes the slot without invoking it's event, for producers that claimed a slot but couldn't fill it
+	 *
+	 * @param sequence the claimed sequence
+	 */
+	public void skip(long sequence) {
+		skipped[(int) sequence & mask] = true;
+		published.lazySet((int) sequence & mask, sequence);
+	}
+
+	/**
+	 * claims a slot, fills it and publishes it. if the filler throws the slot is skipped and the exception is rethrown
+	 *
+	 * @param filler fills the event
+	 * @return false if the event was dropped because the buffer was full, only with {@link Backpressure#DROP}
+	 */
+	public boolean publish(Consumer<E> filler) {
+		long sequence = backpressure == Backpressure.BLOCK ? claim() : tryClaim();
+		if (sequence == -1) return false;
+		boolean filled = false;
+		try {
+			filler.accept(get(sequence));
+			filled = true;
+		} finally {
+			if (filled) publish(sequence);
+			else skip(sequence);
+		}
+		return true;
+	}
+
+	/**
+	 * sets what happens to the exceptions thrown while the consumers invoke an event, they're passed with the listener id
+	 * -1 and no listener. the exceptions of the listeners of a {@link MicroEventManager} are handled by the manager
+	 * first, so these are the ones it's exception handler or it's handlers throw. by default they're logged
+	 *
+	 * @param exceptionHandler the exception handler, it's return value is ignored
+	 */
+	public void setExceptionHandler(ExceptionHandler exceptionHandler) {
+		this.exceptionHandler = Objects.requireNonNull(exceptionHandler, "exceptionHandler");
+	}
+
+	/**
+	 * stops the consumers once they are done with the events that were published, and waits for them to exit. if the
+	 * thread is interrupted it stops waiting, the consumers are still stopped (after the event they're invoking) and the
+	 * interrupt status is kept, closing again waits for them
+	 */
+	@Override
+	public synchronized void close() {
+		long last = cursor.get();
+		for (int attempt = 0; running && minConsumed() < last && !Thread.currentThread().isInterrupted(); attempt++)
+			waitStrategy.idle(attempt);
+		running = false;
+		try {
+			for (Worker worker : workers)
+				worker.thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// the last sequence every consumer is done with, slots after it can't be reused yet
+	private long minConsumed() {
+		Worker[] workers = this.workers;
+		long min = work.get();
+		for (Worker worker : workers)
+			min = Math.min(min, worker.sequence);
+		return min;
+	}
+
+	/**
+	 * how producers wait for free slots and consumers wait for published events
+	 */
+	public enum WaitStrategy {
+		/**
+		 * keeps the thread spinning, lowest latency but burns a core per waiting thread
+		 */
+		BUSY_SPIN {
+			@Override
+			void idle(int attempt) {}
+		},
+
+		/**
+		 * spins for a bit, then yields the thread
+		 */
+		YIELD {
+			@Override
+			void idle(int attempt) {
+				if (attempt > 100) Thread.yield();
+			}
+		},
+
+		/**
+		 * spins, yields, then parks the thread for short periods, the cheapest on the cpu
+		 */
+		PARK {
+			@Override
+			void idle(int attempt) {
+				if (attempt > 200) LockSupport.parkNanos(1000);
+				else if (attempt > 100) Thread.yield();
+			}
+		};
+
+		abstract void idle(int attempt);
+	}
+
+	/**
+	 * what {@link #publish(Consumer)} does when all the slots are still in use
+	 */
+	public enum Backpressure {
+		/**
+		 * wait for a slot with the wait strategy
+		 */
+		BLOCK,
+
+		/**
+		 * drop the event
+		 */
+		DROP
+	}
+
+	private void consume(Worker worker) {
+		long next = 0;
+		boolean claim = true;
+		int attempt = 0;
+		while (true) {
+			if (claim) {
+				do {
+					next = work.get() + 1;
+					worker.sequence = next - 1;
+				} while (!work.compareAndSet(next - 1, next));
+				claim = false;
+			}
+
+			int slot = (int) next & mask;
+			if (published.get(slot) == next) {
+				if (!skipped[slot]) try {
+					manager.invoke(slots[slot]);
+				} catch (Throwable t) { // the consumer keeps going, or every producer would be stuck on the full buffer
+					exceptionHandler.handle(-1, null, slots[slot], t);
+				}
+				claim = true;
+				attempt = 0;
+			} else if (running) waitStrategy.idle(attempt++);
+			else {
+				worker.sequence = Long.MAX_VALUE; // done, stop gating the producers
+				return;
+			}
+		}
+	}
+
+	private static final class Worker implements Runnable {
+		private final RingBufferEventBus<?> bus;
+		// the last sequence this worker is done with
+		volatile long sequence;
+		Thread thread;
+
+		private Worker(RingBufferEventBus<?> bus) {
+			this.bus = bus;
+		}
+
+		@Override
+		public void run() {
+			bus.consume(this);
+		}
+	}
+}
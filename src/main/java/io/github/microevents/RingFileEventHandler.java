@@ -0,0 +1,89 @@
+package io.github.microevents;
+
+import io.github.microevents.events.*;
+
+/**
+ * an {@link EventHandler} that also writes every event it invokes to an {@link EventRingFile}, so another process can
+ * follow the events with an {@link EventRingReader}. the event is written after the listeners were called, so the file
+ * has the event as the listeners left it, writing it never blocks the invoking thread.
+ * <pre>{@code
+ * EventRingFile ring = new EventRingFile(Paths.get("events.ring"), 256, 1 << 16);
+ * manager.registerEvent(ChatEvent.class, new RingFileEventHandler<>(ring, 1, new ChatEventCodec()));
+ * }</pre>
+ * the sub classes of the event that aren't registered on their own, and the generic events of every generic type, are
+ * written too with the same type, the manager gets their handlers from {@link #newHandler()}. a sub class registered with a handler of it's own is only written if
+ * that handler is a ring file handler too
+ *
+ * @param <E> the event type
+ */
+public class RingFileEventHandler<E extends Event> implements EventHandler<E> {
+	private final EventHandler<E> handler;
+	private final EventRingFile ring;
+	private final int type;
+	private final EventCodec<? super E> codec;
+
+	/**
+	 * creates a new handler that calls it's listeners with a {@link MicroEventHandler}
+	 *
+	 * @param ring the file the events are written to
+	 * @param type the type the events are written with
+	 * @param codec the codec that writes them
+	 */
+	public RingFileEventHandler(EventRingFile ring, int type, EventCodec<? super E> codec) {
+		this(new MicroEventHandler<>(), ring, type, codec);
+	}
+
+	/**
+	 * creates a new handler
+	 *
+	 * @param handler the handler that calls the listeners
+	 * @param ring the file the events are written to
+	 * @param type the type the events are written with
+	 * @param codec the codec that writes them
+	 */
+	public RingFileEventHandler(EventHandler<E> handler, EventRingFile ring, int type, EventCodec<? super E> codec) {
+		this.handler = handler;
+		this.ring = ring;
+		this.type = type;
+		this.codec = codec;
+	}
+
+	@Override
+	public EventHandler<E> newHandler() {
+		EventHandler<E> handler = this.handler.newHandler();
+		return new RingFileEventHandler<>(handler == null ? new MicroEventHandler<>() : handler, ring, type, codec);
+	}
+
+	@Override
+	public void register(int id, Listener<E> listener, Priority priority) {
+		handler.register(id, listener, priority);
+	}
+
+	@Override
+	public void registerAll(int[] ids, Listener<E>[] listeners, Priority[] priorities, int size) {
+		handler.registerAll(ids, listeners, priorities, size);
+	}
+
+	@Override
+	public void remove(int id) {
+		handler.remove(id);
+	}
+
+	@Override
+	public void removeAll(int[] ids, int size) {
+		handler.removeAll(ids, size);
+	}
+
+	@Override
+	public void invoke(E event, boolean forSubListeners) {
+		handler.invoke(event, forSubListeners);
+		ring.publish(type, event, codec);
+	}
+
+	@Override
+	public void invokeAll(E[] events, boolean forSubListeners) {
+		handler.invokeAll(events, forSubListeners);
+		for (E event : events)
+			ring.publish(type, event, codec);
+	}
+}
@@ -0,0 +1,133 @@
+package io.github.microevents;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * the volatile, ordered and cas accesses to the slot markers of a mapped {@link EventRingFile}. the jdk has no public
+ * api for them on java 8, so they're looked up once: the {@code VarHandle} view of a byte buffer on java 9 and later,
+ * and {@code sun.misc.Unsafe} on the mapping's address on java 8. both are only reached through method handles, so
+ * nothing else depends on internal apis and the handles are constants the jit inlines
+ */
+final class SlotMarkers {
+	// if the handles take the buffer and an offset, otherwise they take null and an address
+	private static final boolean VAR_HANDLES;
+	private static final MethodHandle GET, PUT, CAS, LOAD_FENCE;
+	// the address field of the direct buffers, only used on java 8
+	private static final Field ADDRESS;
+
+	static {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle get, put, cas, loadFence;
+		Field address = null;
+		boolean varHandles;
+		try {
+			Class<?> varHandle = Class.forName("java.lang.invoke.VarHandle");
+			Class<?> modes = Class.forName("java.lang.invoke.VarHandle$AccessMode");
+			Object view = MethodHandles.class.getMethod("byteBufferViewVarHandle", Class.class, ByteOrder.class).invoke(null, long[].class, ByteOrder.nativeOrder());
+			Method toMethodHandle = varHandle.getMethod("toMethodHandle", modes);
+			get = (MethodHandle) toMethodHandle.invoke(view, modes.getField("GET_ACQUIRE").get(null));
+			put = (MethodHandle) toMethodHandle.invoke(view, modes.getField("SET_RELEASE").get(null));
+			cas = (MethodHandle) toMethodHandle.invoke(view, modes.getField("COMPARE_AND_SET").get(null));
+			loadFence = lookup.findStatic(varHandle, "acquireFence", MethodType.methodType(void.class));
+			varHandles = true;
+		} catch (ClassNotFoundException | NoSuchMethodException e) { // java 8
+			try {
+				Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+				theUnsafe.setAccessible(true);
+				Object unsafe = theUnsafe.get(null);
+				get = lookup.findVirtual(unsafeClass, "getLongVolatile", MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+				put = lookup.findVirtual(unsafeClass, "putOrderedLong", MethodType.methodType(void.class, Object.class, long.class, long.class)).bindTo(unsafe);
+				cas = lookup.findVirtual(unsafeClass, "compareAndSwapLong", MethodType.methodType(boolean.class, Object.class, long.class, long.class, long.class)).bindTo(unsafe);
+				loadFence = lookup.findVirtual(unsafeClass, "loadFence", MethodType.methodType(void.class)).bindTo(unsafe);
+				address = Buffer.class.getDeclaredField("address");
+				address.setAccessible(true);
+				varHandles = false;
+			} catch (ReflectiveOperationException e8) {
+				throw new ExceptionInInitializerError(e8);
+			}
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+		VAR_HANDLES = varHandles;
+		GET = get;
+		PUT = put;
+		CAS = cas;
+		LOAD_FENCE = loadFence;
+		ADDRESS = address;
+	}
+
+	private final ByteBuffer buffer;
+	private final long address;
+
+	/**
+	 * @param buffer a direct buffer in the native byte order, the markers are at offsets that are a multiple of 8
+	 */
+	SlotMarkers(ByteBuffer buffer) {
+		this.buffer = buffer;
+		try {
+			this.address = VAR_HANDLES ? 0 : ADDRESS.getLong(buffer);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return the marker, no later read is moved before it
+	 */
+	long getVolatile(int offset) {
+		try {
+			return VAR_HANDLES ? (long) GET.invokeExact(buffer, offset) : (long) GET.invokeExact((Object) null, address + offset);
+		} catch (Throwable t) {
+			throw rethrow(t);
+		}
+	}
+
+	/**
+	 * sets the marker, no earlier write is moved after it
+	 */
+	void putOrdered(int offset, long value) {
+		try {
+			if (VAR_HANDLES) PUT.invokeExact(buffer, offset, value);
+			else PUT.invokeExact((Object) null, address + offset, value);
+		} catch (Throwable t) {
+			throw rethrow(t);
+		}
+	}
+
+	/**
+	 * swaps the marker if it's the expected one, no read or write is moved across it
+	 */
+	boolean compareAndSet(int offset, long expected, long value) {
+		try {
+			return VAR_HANDLES ? (boolean) CAS.invokeExact(buffer, offset, expected, value) : (boolean) CAS.invokeExact((Object) null, address + offset, expected, value);
+		} catch (Throwable t) {
+			throw rethrow(t);
+		}
+	}
+
+	/**
+	 * keeps the reads before it from being moved after the reads after it
+	 */
+	static void loadFence() {
+		try {
+			LOAD_FENCE.invokeExact();
+		} catch (Throwable t) {
+			throw rethrow(t);
+		}
+	}
+
+	// the handles only throw what the accesses themselves throw
+	private static RuntimeException rethrow(Throwable t) {
+		if (t instanceof RuntimeException) throw (RuntimeException) t;
+		if (t instanceof Error) throw (Error) t;
+		throw new IllegalStateException(t);
+	}
+}
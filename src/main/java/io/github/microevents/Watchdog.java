@@ -0,0 +1,120 @@
+package io.github.microevents;
+
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Priority;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * watches how long listeners and invokes take against their time budgets. only one in every sample rate calls of a
+ * listener (or invokes of an event class) is timed, so most calls don't pay for {@link System#nanoTime()}. offenders
+ * are logged with their listener id, and a listener that goes over it's budget too many times can be moved to the
+ * manager's executor or disabled.
+ * <p>
+ * installed with {@link MicroEventManager#setWatchdog(Watchdog)}, the budgets must be set before it's installed
+ */
+public class Watchdog {
+	private static final Logger LOGGER = Logger.getLogger("MicroEvents Watchdog");
+
+	// one less than the sample rate, calls are timed when their count has none of these bits
+	final int sampleMask;
+	private final int maxViolations;
+	private final Action action;
+	// the budget of the listeners of each priority
+	private final long[] priorityBudgets = new long[7];
+	private final Long2LongMap listenerBudgets = new Long2LongOpenHashMap();
+	private final Object2LongMap<Class<?>> eventBudgets = new Object2LongOpenHashMap<>();
+
+	/**
+	 * creates a new watchdog
+	 *
+	 * @param listenerBudgetNanos the time a listener may take on one event
+	 * @param sampleRate one in this many calls is timed, rounded up to a power of 2
+	 * @param maxViolations the amount of times a listener may go over it's budget before the action is taken
+	 * @param action what's done to a listener that went over it's budget too often
+	 */
+	public Watchdog(long listenerBudgetNanos, int sampleRate, int maxViolations, Action action) {
+		this.sampleMask = sampleRate <= 1 ? 0 : -1 >>> Integer.numberOfLeadingZeros(sampleRate - 1);
+		this.maxViolations = maxViolations;
+		this.action = action;
+		Arrays.fill(priorityBudgets, listenerBudgetNanos);
+		eventBudgets.defaultReturnValue(Long.MAX_VALUE);
+	}
+
+	/**
+	 * sets the budget of every listener of a priority
+	 *
+	 * @return this
+	 */
+	public Watchdog budget(Priority priority, long nanos) {
+		priorityBudgets[priority.ordinal()] = nanos;
+		return this;
+	}
+
+	/**
+	 * sets the budget of one listener
+	 *
+	 * @return this
+	 */
+	public Watchdog budget(long listenerID, long nanos) {
+		listenerBudgets.put(listenerID, nanos);
+		return this;
+	}
+
+	/**
+	 * sets the budget of a whole invoke of an event class, all of it's listeners together. invokes without a budget
+	 * aren't timed at all
+	 *
+	 * @param eventClass the concrete class of the events
+	 * @return this
+	 */
+	public Watchdog budget(Class<? extends Event> eventClass, long nanos) {
+		eventBudgets.put(eventClass, nanos);
+		return this;
+	}
+
+	long budget(long listenerID) {
+		return listenerBudgets.getOrDefault(listenerID, priorityBudgets[(int) listenerID & 7]);
+	}
+
+	long budget(Class<?> eventClass) {
+		return eventBudgets.getLong(eventClass);
+	}
+
+	void violation(WatchedListener<?> listener, long nanos) {
+		LOGGER.warning("listener " + listener.id + " (" + listener.listener + ") took " + nanos + "ns, over it's budget of " + listener.budget + "ns");
+		// the count isn't atomic, so it can skip past the max on other threads
+		if (++listener.violations >= maxViolations && action != Action.REPORT && listener.demoted == null) {
+			LOGGER.warning("listener " + listener.id + " (" + listener.listener + ") went over it's budget " + maxViolations + " times, " + (action == Action.ASYNC ? "it will run async" : "it's disabled"));
+			listener.demote(action);
+		}
+	}
+
+	void violation(Class<?> eventClass, long nanos, long budget) {
+		LOGGER.warning("invoking " + eventClass.getName() + " took " + nanos + "ns, over it's budget of " + budget + "ns");
+	}
+
+	/**
+	 * what's done to a listener that went over it's budget too often
+	 */
+	public enum Action {
+		/**
+		 * only log the violations
+		 */
+		REPORT,
+
+		/**
+		 * run the listener on the manager's executor, like {@link io.github.microevents.events.EventListener#async()}
+		 */
+		ASYNC,
+
+		/**
+		 * stop calling the listener, it stays registered until it's unregistered
+		 */
+		DISABLE
+	}
+}
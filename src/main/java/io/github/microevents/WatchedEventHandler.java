@@ -0,0 +1,61 @@
+package io.github.microevents;
+
+import io.github.microevents.events.*;
+
+/**
+ * an {@link EventHandler} that times a sample of another handler's invokes against the event's budget in the
+ * {@link Watchdog}, only used for event classes with a budget while a watchdog is installed
+ *
+ * @param <E> the event type
+ */
+class WatchedEventHandler<E extends Event> implements EventHandler<E> {
+	final EventHandler<E> handler;
+	private final Class<?> eventClass;
+	private final Watchdog watchdog;
+	private final long budget;
+	// not atomic, it's only a sample
+	private int invokes;
+
+	WatchedEventHandler(EventHandler<E> handler, Class<?> eventClass, Watchdog watchdog) {
+		this.handler = handler;
+		this.eventClass = eventClass;
+		this.watchdog = watchdog;
+		this.budget = watchdog.budget(eventClass);
+	}
+
+	@Override
+	public void register(int id, Listener<E> listener, Priority priority) {
+		handler.register(id, listener, priority);
+	}
+
+	@Override
+	public void registerAll(int[] ids, Listener<E>[] listeners, Priority[] priorities, int size) {
+		handler.registerAll(ids, listeners, priorities, size);
+	}
+
+	@Override
+	public void remove(int id) {
+		handler.remove(id);
+	}
+
+	@Override
+	public void removeAll(int[] ids, int size) {
+		handler.removeAll(ids, size);
+	}
+
+	@Override
+	public void invoke(E event, boolean forSubListeners) {
+		if ((++invokes & watchdog.sampleMask) != 0) handler.invoke(event, forSubListeners);
+		else {
+			long start = System.nanoTime();
+			handler.invoke(event, forSubListeners);
+			long took = System.nanoTime() - start;
+			if (took > budget) watchdog.violation(eventClass, took, budget);
+		}
+	}
+
+	@Override
+	public void invokeAll(E[] events, boolean forSubListeners) {
+		handler.invokeAll(events, forSubListeners);
+	}
+}
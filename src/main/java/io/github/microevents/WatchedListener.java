@@ -0,0 +1,102 @@
+package io.github.microevents;
+
+import io.github.microevents.events.BatchListener;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+import java.util.function.UnaryOperator;
+
+/**
+ * a listener that times a sample of another listener's calls for the {@link Watchdog}, only registered while a watchdog
+ * is installed
+ *
+ * @param <E> the event type
+ */
+class WatchedListener<E extends Event> implements Listener<E> {
+	final Listener<E> listener;
+	final long id, budget;
+	final Watchdog watchdog;
+	// makes the async version of the listener
+	private final UnaryOperator<Listener<E>> async;
+	// what's called, the listener until it's demoted
+	volatile Listener<E> target;
+	// not atomic, it's only a sample
+	private int calls;
+	int violations;
+	// what the listener was demoted with, null until it is
+	volatile Watchdog.Action demoted;
+
+	WatchedListener(Listener<E> listener, long id, Watchdog watchdog, UnaryOperator<Listener<E>> async) {
+		this.listener = listener;
+		this.target = listener;
+		this.id = id;
+		this.budget = watchdog.budget(id);
+		this.watchdog = watchdog;
+		this.async = async;
+	}
+
+	@Override
+	public void accept(E event) {
+		if ((++calls & watchdog.sampleMask) != 0) target.accept(event);
+		else {
+			long start = System.nanoTime();
+			target.accept(event);
+			long took = System.nanoTime() - start;
+			if (took > budget) watchdog.violation(this, took);
+		}
+	}
+
+	@Override
+	public void listen(E event) {
+		target.listen(event);
+	}
+
+	void demote(Watchdog.Action action) {
+		demoted = action;
+		target = action == Watchdog.Action.ASYNC ? async.apply(listener) : e -> {};
+	}
+
+	// takes over the violations and demotion of the watched listener this one replaces when it's rewrapped
+	void inherit(WatchedListener<E> previous) {
+		violations = previous.violations;
+		Watchdog.Action action = previous.demoted;
+		if (action != null) demote(action);
+	}
+
+	@Override
+	public String toString() {
+		return listener.toString();
+	}
+
+	/**
+	 * the watched listener for {@link BatchListener}s, so they still get their batches until they're demoted
+	 */
+	static final class Batch<E extends Event> extends WatchedListener<E> implements BatchListener<E> {
+		Batch(BatchListener<E> listener, long id, Watchdog watchdog, UnaryOperator<Listener<E>> async) {
+			super(listener, id, watchdog, async);
+		}
+
+		@Override
+		public void acceptAll(E[] events, int size) {
+			Listener<E> target = this.target;
+			if (target != listener) {
+				for (int i = 0; i < size; i++)
+					target.accept(events[i]);
+				return;
+			}
+			long start = System.nanoTime(); // batches are rare enough to time every one
+			((BatchListener<E>) target).acceptAll(events, size);
+			long took = (System.nanoTime() - start) / size;
+			if (took > budget) watchdog.violation(this, took);
+		}
+
+		@Override
+		public void listen(E event) {
+			target.listen(event);
+		}
+
+		@Override
+		public void listenAll(E[] events, int size) {
+			((BatchListener<E>) listener).listenAll(events, size);
+		}
+	}
+}
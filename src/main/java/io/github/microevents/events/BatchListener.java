@@ -0,0 +1,42 @@
+package io.github.microevents.events;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * a listener that receives all the events of an {@link EventManager#invokeAll(Class, Event[])} at once, so it can do
+ * it's work in bulk. single invokes are passed as a batch of one, in an array that's reused by the thread, so the
+ * arrays mustn't be kept after {@link #listenAll(Event[], int)} returns
+ * @param <E> the type the listener is listening too
+ */
+public interface BatchListener<E extends Event> extends Listener<E> {
+	@Override
+	default void listen(E event) {
+		Event[] batch = SingleBatches.take(event);
+		try {
+			listenAll((E[]) batch, 1);
+		} finally {
+			SingleBatches.release(batch);
+		}
+	}
+
+	/**
+	 * calls {@link #listenAll(Event[], int)}, catching exceptions like {@link Listener#accept(Event)}
+	 * @param events the events
+	 * @param size the amount of events
+	 */
+	default void acceptAll(E[] events, int size) {
+		try {
+			listenAll(events, size);
+		} catch (Throwable t) {
+			Logger.getLogger("MicroEventManager").log(Level.SEVERE, getClass() + " threw an exception!", t);
+		}
+	}
+
+	/**
+	 * the action to perform, cancelled events are already filtered out
+	 * @param events the events, only the first size elements are part of the batch
+	 * @param size the amount of events
+	 */
+	void listenAll(E[] events, int size);
+}
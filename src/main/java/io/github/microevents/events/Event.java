@@ -4,4 +4,11 @@ package io.github.microevents.events;
  * An event is an object that can be listened to, sub classes can be invoked in an
  * {@link EventManager} to be distributed to its listeners
  */
-public interface Event {}
+public interface Event {
+	/**
+	 * called when a pooled event is released, so it can be reused, must clear every field (including the cancelled
+	 * state) that a listener or the next user could otherwise see
+	 * @see EventPool
+	 */
+	default void reset() {}
+}
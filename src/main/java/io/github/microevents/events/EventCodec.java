@@ -0,0 +1,29 @@
+package io.github.microevents.events;
+
+import java.nio.ByteBuffer;
+
+/**
+ * a compact binary form of an event, used to write events to an {@link io.github.microevents.EventRingFile} and read
+ * them back in another process. the buffers are in the native byte order and are only valid during the call, so
+ * codecs should write primitive fields straight into them instead of building byte arrays
+ *
+ * @param <E> the event type
+ */
+public interface EventCodec<E> {
+	/**
+	 * writes the event at the buffer's position, a {@link java.nio.BufferOverflowException} means it didn't fit and
+	 * the event is dropped
+	 *
+	 * @param event the event
+	 * @param buffer the buffer, it's limit is the end of the space that's left
+	 */
+	void encode(E event, ByteBuffer buffer);
+
+	/**
+	 * reads an event written by {@link #encode(Object, ByteBuffer)}
+	 *
+	 * @param buffer the buffer, from the position to the limit is exactly what was written
+	 * @return the event
+	 */
+	E decode(ByteBuffer buffer);
+}
@@ -16,15 +16,61 @@ public interface EventHandler<T extends Event> {
 	void register(int id, Listener<T> listener, Priority priority);
 
 	/**
-	 * removes a listener with the given id, do not expect fast removal of listeners
+	 * registers many listeners at once, in order, handlers should override it if every change is expensive
+	 * @param ids the listener ids, only the first size are registered
+	 * @param listeners the listeners of the ids
+	 * @param priorities their priorities
+	 * @param size the amount of listeners
+	 */
+	default void registerAll(int[] ids, Listener<T>[] listeners, Priority[] priorities, int size) {
+		for (int i = 0; i < size; i++)
+			register(ids[i], listeners[i], priorities[i]);
+	}
+
+	/**
+	 * removes a listener with the given id, listeners may be removed as often as they're registered so it shouldn't
+	 * search through all of them
 	 * @param id the id of the listener
 	 */
 	void remove(int id);
 
+	/**
+	 * removes many listeners at once, handlers should override it to do a single pass over their lists
+	 * @param ids the listener ids, only the first size are removed
+	 * @param size the amount of ids
+	 */
+	default void removeAll(int[] ids, int size) {
+		for (int i = 0; i < size; i++)
+			remove(ids[i]);
+	}
+
 	/**
 	 * invokes the event inside the event handler
 	 * @param event an event of this event handler
-	 * @param forSubListeners if the event should only be invoked for listeners that listen to sub events
+	 * @param forSubListeners if the event should only be invoked for listeners that listen to sub events, the
+	 * {@link io.github.microevents.MicroEventManager} registers the sub listeners of the super events in the handler of
+	 * every sub event, so it always passes false
 	 */
 	void invoke(T event, boolean forSubListeners);
+
+	/**
+	 * invokes a batch of events, each event must see the same listeners in the same order as if it was invoked on it's
+	 * own, but implementations may interleave the events, and should pass the batch to {@link BatchListener}s at once
+	 * @param events events of this event handler
+	 * @param forSubListeners if the events should only be invoked for listeners that listen to sub events
+	 */
+	default void invokeAll(T[] events, boolean forSubListeners) {
+		for (T event : events)
+			invoke(event, forSubListeners);
+	}
+
+	/**
+	 * creates an empty handler of the same kind, the {@link io.github.microevents.MicroEventManager} uses it for the sub
+	 * classes of the event that are invoked without being registered, and for every generic type of a
+	 * {@link GenericEvent}, so they're dispatched the way the event is
+	 * @return the new handler, or null if the manager's default handler should be used
+	 */
+	default EventHandler<T> newHandler() {
+		return null;
+	}
 }
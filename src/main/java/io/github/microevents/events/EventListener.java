@@ -8,7 +8,10 @@ import java.lang.annotation.Target;
 
 /**
  * An annotation used by event managers to auto-generate listeners for methods
- * by annotating a method with this
+ * by annotating a method with this, with {@link io.github.microevents.processor.EventListenerProcessor} on the
+ * annotation processor path the listeners are generated at compile time instead of found by reflection. the listeners
+ * found by reflection all call their methods through one shared call site, so only the generated ones can be inlined
+ * into the handlers
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
@@ -25,4 +28,21 @@ public @interface EventListener {
 	 * @return defaults to false
 	 */
 	boolean subEvents() default false;
+
+	/**
+	 * whether or not the listener runs on the event manager's executor instead of the invoking thread. an async
+	 * listener is started when it's priority comes up and is skipped like any other listener if the event was cancelled
+	 * before that, once started it runs concurrently with the listeners after it, so it should treat the event as read
+	 * only, cancelling the event from an async listener has no defined effect
+	 * @return defaults to false
+	 */
+	boolean async() default false;
+
+	/**
+	 * the name of a method of the event without parameters, if it's set the listener only gets the events where it
+	 * returns a value equal to the method with the same name on the listener's object (on the listener's class for
+	 * static listeners). the listener's value is read once when it's registered, see {@link FilteredListener}
+	 * @return defaults to no filter
+	 */
+	String filter() default "";
 }
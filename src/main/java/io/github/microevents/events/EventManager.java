@@ -1,7 +1,10 @@
 package io.github.microevents.events;
 
-import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.LongList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -9,31 +12,132 @@ import java.util.List;
  */
 public interface EventManager {
 	/**
-	 * Registers a new listener to the event handler, not thread-safe
+	 * Registers a new listener to the event handler, thread-safe if the event's handler is
 	 * @param eventClass the class of the event
 	 * @param listener the listener
 	 * @param priority the priority of the listener
-	 * @param callSubs whether or not the listener should be registered for sub classes of the event
+	 * @param callSubs whether or not the listener should be registered for sub classes of the event, or the implementing classes if it's an interface
 	 * @param <T> the type of event
 	 * @return the listener id
 	 */
-	<T extends Event> int registerListener(Class<T> eventClass, Listener<T> listener, Priority priority, boolean callSubs);
+	<T extends Event> long registerListener(Class<T> eventClass, Listener<T> listener, Priority priority, boolean callSubs);
 
 	/**
-	 * removes the listener from the event handler, not thread-safe
+	 * Registers a new listener to the event handler, that may run asynchronously
+	 * @param eventClass the class of the event
+	 * @param listener the listener
+	 * @param priority the priority of the listener
+	 * @param callSubs whether or not the listener should be registered for sub classes of the event, or the implementing classes if it's an interface
+	 * @param async whether or not the listener should run on the manager's executor, see {@link EventListener#async()}
+	 * @param <T> the type of event
+	 * @return the listener id
+	 */
+	<T extends Event> long registerListener(Class<T> eventClass, Listener<T> listener, Priority priority, boolean callSubs, boolean async);
+
+	/**
+	 * Registers a new listener for the generic events of a type, see {@link GenericEvent}
+	 * @param eventClass the class of the event
+	 * @param genericType the listener only gets the events whose generic type is this type, or a sub type of it
+	 * @param listener the listener
+	 * @param priority the priority of the listener
+	 * @param callSubs whether or not the listener should be registered for sub classes of the event, or the implementing classes if it's an interface
+	 * @param async whether or not the listener should run on the manager's executor, see {@link EventListener#async()}
+	 * @param <T> the type of event
+	 * @return the listener id
+	 */
+	<T extends GenericEvent<?>> long registerListener(Class<T> eventClass, Class<?> genericType, Listener<T> listener, Priority priority, boolean callSubs, boolean async);
+
+	/**
+	 * Registers a new listener that only gets the events whose property equals the key, see {@link FilteredListener}
+	 * @param eventClass the class of the event
+	 * @param property gets the property of the events, listeners of the same property should share the instance
+	 * @param key the value of the property the listener listens to, compared with equals
+	 * @param listener the listener
+	 * @param priority the priority of the listener
+	 * @param callSubs whether or not the listener should be registered for sub classes of the event, or the implementing classes if it's an interface
+	 * @param async whether or not the listener should run on the manager's executor, see {@link EventListener#async()}
+	 * @param <T> the type of event
+	 * @return the listener id
+	 */
+	<T extends Event> long registerListener(Class<T> eventClass, Function<? super T, ?> property, Object key, Listener<T> listener, Priority priority, boolean callSubs, boolean async);
+
+	/**
+	 * Registers a new listener that only gets the events of one key, see {@link KeyedListener}
+	 * @param eventClass the class of the event
+	 * @param key the key of the events the listener gets
+	 * @param listener the listener
+	 * @param priority the priority of the listener
+	 * @param callSubs whether or not the listener should be registered for sub classes of the event, or the implementing classes if it's an interface
+	 * @param async whether or not the listener should run on the manager's executor, see {@link EventListener#async()}
+	 * @param <T> the type of event
+	 * @return the listener id
+	 */
+	<T extends Keyed> long registerListener(Class<T> eventClass, long key, Listener<T> listener, Priority priority, boolean callSubs, boolean async);
+
+	/**
+	 * removes the listener from the event handler, thread-safe if the event's handler is
 	 * @param listenerID the listener's id
 	 */
-	void unregister(int listenerID);
+	void unregister(long listenerID);
 
 	/**
-	 * throws a new event in the event handler, thread-safe
+	 * removes many listeners at once, like the ids of a {@link ListenerGroup}, ids that aren't registered are skipped
+	 * @param listenerIDs the listener ids
+	 */
+	default void unregisterAll(LongList listenerIDs) {
+		for (int i = 0; i < listenerIDs.size(); i++)
+			unregister(listenerIDs.getLong(i));
+	}
+
+	/**
+	 * throws a new event in the event handler, thread-safe, lock-free and allocation free once the class of the event has
+	 * been invoked before
 	 * @param event the object
 	 * @param <T> the event type
 	 */
 	<T extends Event> void invoke(T event);
 
 	/**
-	 * registers the event, must be called before any invocation, not thread-safe
+	 * throws a batch of events of the same class, the handlers are only looked up once for the whole batch. every event
+	 * sees the same listeners in the same order, with the same cancellation as with {@link #invoke(Event)}, but the
+	 * events may be interleaved, priority by priority, and {@link BatchListener}s get all of them at once
+	 * @param eventClass the exact class of every event
+	 * @param events the events
+	 * @param <T> the event type
+	 * @throws IllegalArgumentException if an event's class isn't eventClass
+	 */
+	<T extends Event> void invokeAll(Class<T> eventClass, T[] events);
+
+	/**
+	 * @see #invokeAll(Class, Event[])
+	 * @param eventClass the exact class of every event
+	 * @param events the events
+	 * @param <T> the event type
+	 */
+	<T extends Event> void invokeAll(Class<T> eventClass, List<T> events);
+
+	/**
+	 * throws a new event in the event handler on the manager's executor instead of the calling thread, the synchronous
+	 * listeners still run one after the other in priority order
+	 * @param event the object
+	 * @param <T> the event type
+	 * @return a future completed with the event once the synchronous listeners, and the async listeners they started, are done
+	 */
+	<T extends Event> CompletableFuture<T> invokeAsync(T event);
+
+	/**
+	 * creates a pool of reusable events that are invoked in this manager
+	 * @param factory creates new events when the pool is empty
+	 * @param <T> the event type
+	 * @return a new pool that keeps up to 64 idle events per thread
+	 * @see EventPool
+	 */
+	default <T extends Event> EventPool<T> newPool(Supplier<T> factory) {
+		return new EventPool<>(this, factory, 64, false);
+	}
+
+	/**
+	 * registers the event, must be called before any invocation, thread-safe
 	 * @param eventClass the event's class
 	 */
 	void registerEvent(Class<? extends Event> eventClass);
@@ -51,15 +155,25 @@ public interface EventManager {
 	 * registers all the EventListener annotated methods of the object
 	 * @see EventListener
 	 * @param object the instance
-	 * @return the ids of all the created listeners
+	 * @return the ids of all the created listeners, close the group to unregister them
+	 */
+	ListenerGroup registerEventListeners(Object object);
+
+	/**
+	 * registers all the EventListener annotated methods of the object, optionally only holding the object weakly
+	 * @see EventListener
+	 * @param object the instance
+	 * @param weak if the listeners shouldn't keep the object from being collected, once it is they're unregistered
+	 * automatically the next time a listener is registered or unregistered
+	 * @return the ids of all the created listeners, close the group to unregister them
 	 */
-	IntList registerEventListeners(Object object);
+	ListenerGroup registerEventListeners(Object object, boolean weak);
 
 	/**
 	 * registers all the <b>declared</b> static EventListener annotated methods of a class
 	 * @param classOf the class to check for
-	 * @return the ids of all the created listeners
+	 * @return the ids of all the created listeners, close the group to unregister them
 	 * @see Class#getDeclaredMethods()
 	 */
-	IntList registerStaticEventListeners(Class<?> classOf);
+	ListenerGroup registerStaticEventListeners(Class<?> classOf);
 }
@@ -0,0 +1,170 @@
+package io.github.microevents.events;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * a pool of reusable events of one class, every thread has it's own pool so acquiring and releasing never contends.
+ * events are {@link Event#reset()} when they're released, listeners must not keep references to pooled events after
+ * the invoke returns, in debug mode released events are never reused and {@link #checkRetained()} reports the ones
+ * that are still referenced.
+ * <p>
+ * async listeners run after the invoke returns, so {@link #fire(Consumer)} would release the event while they still
+ * use it. events with async listeners should be fired with {@link #fireAsync(Consumer)}, which releases them once
+ * the async listeners are done
+ *
+ * @param <E> the event type
+ */
+public class EventPool<E extends Event> {
+	private static final Logger LOGGER = Logger.getLogger("EventPool");
+
+	private final EventManager manager;
+	private final Supplier<E> factory;
+	// the max amount of idle events kept per thread
+	private final int capacity;
+	private final boolean debug;
+	private final ThreadLocal<Pool<E>> pools = ThreadLocal.withInitial(Pool::new);
+
+	// debug mode only, the events that were released and where
+	private final Queue<Released> released = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * creates a new event pool
+	 *
+	 * @param manager the manager {@link #fire(Consumer)} invokes the events in
+	 * @param factory creates new events when the pool is empty
+	 * @param capacity the max amount of idle events kept per thread
+	 * @param debug if released events should be tracked instead of reused
+	 */
+	public EventPool(EventManager manager, Supplier<E> factory, int capacity, boolean debug) {
+		this.manager = manager;
+		this.factory = factory;
+		this.capacity = capacity;
+		this.debug = debug;
+	}
+
+	/**
+	 * @return an idle event of the current thread's pool, or a new one if it's empty
+	 */
+	public E acquire() {
+		if (debug) return factory.get();
+		Pool<E> pool = pools.get();
+		if (pool.idle.isEmpty()) pool.drain(capacity);
+		return pool.idle.isEmpty() ? factory.get() : pool.idle.pop();
+	}
+
+	/**
+	 * resets the event and returns it to the current thread's pool
+	 *
+	 * @param event an event from {@link #acquire()} that is no longer used
+	 */
+	public void release(E event) {
+		event.reset();
+		if (debug) released.add(new Released(event, new Throwable("released here")));
+		else {
+			ObjectArrayList<E> idle = pools.get().idle;
+			if (idle.size() < capacity) idle.push(event);
+		}
+	}
+
+	/**
+	 * acquires an event, fills it, invokes it and releases it again, it must not have async listeners
+	 *
+	 * @param filler sets the fields of the event
+	 * @return the event's cancelled state, false if it's not {@link Cancellable}
+	 */
+	public boolean fire(Consumer<E> filler) {
+		E event = acquire();
+		try {
+			filler.accept(event);
+			manager.invoke(event);
+			return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+		} finally {
+			release(event);
+		}
+	}
+
+	/**
+	 * acquires an event, fills it and invokes it with {@link EventManager#invokeAsync(Event)}, it's released once every
+	 * listener, async ones included, is done with it. it goes back to the pool of the thread that fired it, whichever
+	 * thread completes the future, so the pools of the executor's threads don't collect the events of the others
+	 *
+	 * @param filler sets the fields of the event
+	 * @return completes with the event's cancelled state, false if it's not {@link Cancellable}
+	 */
+	public CompletableFuture<Boolean> fireAsync(Consumer<E> filler) {
+		E event = acquire();
+		try {
+			filler.accept(event);
+		} catch (RuntimeException | Error e) {
+			release(event);
+			throw e;
+		}
+		Pool<E> home = pools.get();
+		return manager.invokeAsync(event).thenApply(e -> e instanceof Cancellable && ((Cancellable) e).isCancelled())
+				.whenComplete((cancelled, t) -> {
+					if (debug) release(event);
+					else {
+						event.reset();
+						home.returned.offer(event);
+					}
+				});
+	}
+
+	/**
+	 * debug mode only, logs every released event that hasn't been garbage collected yet, with where it was released,
+	 * those are still referenced by something, usually a listener. only meaningful after a garbage collection
+	 *
+	 * @return the amount of released events that are still referenced
+	 */
+	public int checkRetained() {
+		int retained = 0;
+		for (Iterator<Released> iterator = released.iterator(); iterator.hasNext(); ) {
+			Released event = iterator.next();
+			Event referent = event.get();
+			if (referent == null) iterator.remove();
+			else {
+				retained++;
+				LOGGER.warning(referent + " is still referenced after it was released, a listener may be keeping pooled events: " + event.stackTrace());
+			}
+		}
+		return retained;
+	}
+
+	// the idle events of a thread, and the ones fireAsync released back to it from other threads, only the thread itself
+	// takes them out of the queue
+	private static final class Pool<E> {
+		private final ObjectArrayList<E> idle = new ObjectArrayList<>();
+		private final Queue<E> returned = new ConcurrentLinkedQueue<>();
+
+		// moves the returned events to the idle ones, the rest stay queued until those are used up
+		private void drain(int capacity) {
+			E event;
+			while (idle.size() < capacity && (event = returned.poll()) != null)
+				idle.push(event);
+		}
+	}
+
+	private static final class Released extends WeakReference<Event> {
+		private final Throwable release;
+
+		private Released(Event referent, Throwable release) {
+			super(referent);
+			this.release = release;
+		}
+
+		private String stackTrace() {
+			StringBuilder builder = new StringBuilder();
+			for (StackTraceElement element : release.getStackTrace())
+				builder.append("\n\tat ").append(element);
+			return builder.toString();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package io.github.microevents.events;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * a listener that only gets the events whose property equals it's key, registered with
+ * {@link EventManager#registerListener(Class, Function, Object, Listener, Priority, boolean, boolean)}. it checks the
+ * key itself so it works in every handler, handlers that index their listeners by key (like
+ * {@link io.github.microevents.FilteringEventHandler}) take the listener out of it instead
+ * @param <E> the type the listener is listening too
+ */
+public final class FilteredListener<E extends Event> implements Listener<E> {
+	// the interned property functions, by the class that declares the event's method and it's name. kept with the class
+	// so every manager shares them
+	private static final ClassValue<Map<String, Function<?, ?>>> PROPERTIES = new ClassValue<Map<String, Function<?, ?>>>() {
+		@Override
+		protected Map<String, Function<?, ?>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private final Function<? super E, ?> property;
+	private final Object key;
+	private final Listener<E> listener;
+
+	/**
+	 * @param property gets the property of the events, it shouldn't throw
+	 * @param key the value of the property the listener listens to, compared with equals
+	 * @param listener the listener
+	 */
+	public FilteredListener(Function<? super E, ?> property, Object key, Listener<E> listener) {
+		this.property = property;
+		this.key = key;
+		this.listener = listener;
+	}
+
+	/**
+	 * interns the property function of a method of the events, so the filters of the same method share an index in the
+	 * handlers that index them. {@link EventListener#filter()} goes through it, whether the listeners are registered by
+	 * reflection or generated
+	 * @param owner the class that declares the method
+	 * @param name the name of the method
+	 * @param property a function that calls the method, only kept if the method has no function yet
+	 * @param <E> the event type
+	 * @return the function every filter of the method should use
+	 */
+	public static <E extends Event> Function<? super E, ?> property(Class<?> owner, String name, Function<? super E, ?> property) {
+		return (Function<? super E, ?>) PROPERTIES.get(owner).computeIfAbsent(name, n -> property);
+	}
+
+	@Override
+	public void accept(E event) {
+		if (Objects.equals(key, property.apply(event))) listener.accept(event);
+	}
+
+	@Override
+	public void listen(E event) {
+		if (Objects.equals(key, property.apply(event))) listener.listen(event);
+	}
+
+	/**
+	 * @return the function that gets the property of the events
+	 */
+	public Function<? super E, ?> getProperty() {
+		return property;
+	}
+
+	/**
+	 * @return the value of the property the listener listens to
+	 */
+	public Object getKey() {
+		return key;
+	}
+
+	/**
+	 * @return the listener, without the filter
+	 */
+	public Listener<E> getListener() {
+		return listener;
+	}
+
+	@Override
+	public String toString() {
+		return listener + " where " + key;
+	}
+}
@@ -0,0 +1,42 @@
+package io.github.microevents.events;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+import java.util.List;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * implemented by the classes the {@link io.github.microevents.processor.EventListenerProcessor} generates for every class
+ * with {@link EventListener} methods, they register the listeners without any reflection. a class named
+ * {@code Foo} gets a {@code Foo$$EventListeners} in the same package
+ * <p>
+ * the instance registers are cached with the class and shared by every manager, so they take the manager they register
+ * to instead of holding on to one
+ */
+public interface GeneratedListeners {
+	/**
+	 * the suffix added to the binary name of the listening class
+	 */
+	String SUFFIX = "$$EventListeners";
+
+	/**
+	 * creates the functions that register the <b>declared</b> instance listeners of the class for an instance
+	 * @return a function per listener method, that registers it to the manager for the instance and returns the listener id
+	 */
+	List<ToLongBiFunction<EventManager, Object>> instanceListeners();
+
+	/**
+	 * like {@link #instanceListeners()}, but the listeners only hold the instance weakly, see
+	 * {@link EventManager#registerEventListeners(Object, boolean)}
+	 * @return a function per listener method, or null if the class was generated without weak listeners
+	 */
+	default List<ToLongBiFunction<EventManager, Object>> weakInstanceListeners() {
+		return null;
+	}
+
+	/**
+	 * registers the <b>declared</b> static listeners of the class
+	 * @param manager the manager to register to
+	 * @return the ids of all the created listeners
+	 */
+	LongList registerStaticListeners(EventManager manager);
+}
@@ -0,0 +1,16 @@
+package io.github.microevents.events;
+
+/**
+ * an event with a type argument listeners can listen to, like an EntityEvent&lt;Zombie&gt;. listeners registered with a
+ * generic type (or an {@link EventListener} method with a parameterized event) only get the events whose
+ * {@link #getGenericType()} is that type or a sub type of it
+ * @param <G> the generic type
+ * @see EventManager#registerListener(Class, Class, Listener, Priority, boolean, boolean)
+ */
+public interface GenericEvent<G> extends Event {
+	/**
+	 * the events are dispatched by this type, so it must not change while the event is being invoked
+	 * @return the runtime type of the type argument, or null if the event should only go to the listeners without one
+	 */
+	Class<? extends G> getGenericType();
+}
@@ -0,0 +1,14 @@
+package io.github.microevents.events;
+
+/**
+ * a listener of an {@link io.github.microevents.IntLongEventChannel}, it takes the values of the event as primitives so
+ * firing doesn't allocate
+ */
+@FunctionalInterface
+public interface IntLongListener {
+	/**
+	 * the action to perform
+	 * @return true to cancel the event, the listeners after this one aren't called unless it's a {@link Priority#TOP} listener
+	 */
+	boolean listen(int a, long b);
+}
@@ -0,0 +1,13 @@
+package io.github.microevents.events;
+
+/**
+ * an event that belongs to one thing with a long id, like an entity, so listeners can be registered for a single key
+ * with {@link EventManager#registerListener(Class, long, Listener, Priority, boolean, boolean)}
+ * @see KeyedListener
+ */
+public interface Keyed extends Event {
+	/**
+	 * @return the id of the thing the event belongs to
+	 */
+	long getKey();
+}
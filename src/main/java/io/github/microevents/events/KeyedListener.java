@@ -0,0 +1,50 @@
+package io.github.microevents.events;
+
+/**
+ * a listener that only gets the events of one key, see {@link Keyed}. it checks the key itself so it works in every
+ * handler, {@link io.github.microevents.KeyedEventHandler} takes the listener out of it and indexes it by the key
+ * instead
+ * @param <E> the type the listener is listening too
+ */
+public final class KeyedListener<E extends Keyed> implements Listener<E> {
+	private final long key;
+	private final Listener<E> listener;
+
+	/**
+	 * @param key the key of the events the listener gets
+	 * @param listener the listener
+	 */
+	public KeyedListener(long key, Listener<E> listener) {
+		this.key = key;
+		this.listener = listener;
+	}
+
+	@Override
+	public void accept(E event) {
+		if (event.getKey() == key) listener.accept(event);
+	}
+
+	@Override
+	public void listen(E event) {
+		if (event.getKey() == key) listener.listen(event);
+	}
+
+	/**
+	 * @return the key of the events the listener gets
+	 */
+	public long getKey() {
+		return key;
+	}
+
+	/**
+	 * @return the listener, without the key
+	 */
+	public Listener<E> getListener() {
+		return listener;
+	}
+
+	@Override
+	public String toString() {
+		return listener + " for " + key;
+	}
+}
@@ -1,19 +1,25 @@
 package io.github.microevents.events;
 
 import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * An action to perform when an event is invoked
  * @param <E> the type the listener is listening too
  */
 public interface Listener<E extends Event> extends Consumer<E> {
+	/**
+	 * calls {@link #listen(Event)} and logs it's exceptions, the listeners of a
+	 * {@link io.github.microevents.MicroEventManager} are guarded by it's exception handler instead
+	 * @param e the event
+	 */
 	@Override
 	default void accept(E e) {
 		try {
 			listen(e);
 		} catch (Throwable t) {
-			System.out.println(getClass()+" threw an exception!");
-			t.printStackTrace();
+			Logger.getLogger("MicroEventManager").log(Level.SEVERE, getClass() + " threw an exception!", t);
 		}
 	}
 
@@ -0,0 +1,102 @@
+package io.github.microevents.events;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongLists;
+
+/**
+ * the ids of a group of listeners, like all the listeners of an object, that are unregistered together with
+ * {@link #close()}. more ids can be added to the group, the ids of a group shouldn't be unregistered on their own since
+ * a freed id may be given to a new listener
+ */
+public class ListenerGroup implements AutoCloseable {
+	private final EventManager manager;
+	private final LongArrayList ids;
+	// called once the group is closed, so the manager can forget it
+	private final Runnable onClose;
+	private boolean closed;
+
+	/**
+	 * creates a group of the ids
+	 * @param manager the manager the listeners are registered to
+	 * @param ids the listener ids, the array is used by the group
+	 * @param onClose called once when the group is closed, before the listeners are unregistered
+	 */
+	public ListenerGroup(EventManager manager, long[] ids, Runnable onClose) {
+		this.manager = manager;
+		this.ids = LongArrayList.wrap(ids);
+		this.onClose = onClose;
+	}
+
+	/**
+	 * creates a group of the ids
+	 * @param manager the manager the listeners are registered to
+	 * @param ids the listener ids, the array is used by the group
+	 */
+	public ListenerGroup(EventManager manager, long[] ids) {
+		this(manager, ids, null);
+	}
+
+	/**
+	 * creates an empty group
+	 * @param manager the manager the listeners will be registered to
+	 */
+	public ListenerGroup(EventManager manager) {
+		this(manager, new long[0]);
+	}
+
+	/**
+	 * adds a listener to the group, ids added after the group was closed aren't unregistered by it
+	 * @param listenerID the id of the listener
+	 */
+	public synchronized void add(long listenerID) {
+		ids.add(listenerID);
+	}
+
+	/**
+	 * @return the id of the listener at the index, in the order they were added
+	 */
+	public synchronized long getLong(int index) {
+		return ids.getLong(index);
+	}
+
+	/**
+	 * @return the amount of listeners in the group
+	 */
+	public synchronized int size() {
+		return ids.size();
+	}
+
+	/**
+	 * @return an unmodifiable view of the ids
+	 */
+	public LongList ids() {
+		return LongLists.unmodifiable(ids);
+	}
+
+	/**
+	 * unregisters all the listeners of the group at once, see {@link EventManager#unregisterAll(LongList)}, only the
+	 * first call does anything
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed) return;
+			closed = true;
+		}
+		if (onClose != null) onClose.run();
+		manager.unregisterAll(ids);
+	}
+
+	/**
+	 * @return if the group was closed
+	 */
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return ids.toString();
+	}
+}
@@ -0,0 +1,40 @@
+package io.github.microevents.events;
+
+import java.lang.reflect.Array;
+
+/**
+ * the arrays {@link BatchListener#listen(Event)} passes single events in, one per event class and thread, so a single
+ * invoke doesn't allocate. an array is taken while a listener uses it, so a nested invoke of the same class on the same
+ * thread makes it's own instead of overwriting it
+ */
+final class SingleBatches {
+	// the array has to be of the event's exact class, the lambda's bridge method casts to the listener's array type
+	private static final ClassValue<ThreadLocal<Event[]>> ARRAYS = new ClassValue<ThreadLocal<Event[]>>() {
+		@Override
+		protected ThreadLocal<Event[]> computeValue(Class<?> type) {
+			return ThreadLocal.withInitial(() -> (Event[]) Array.newInstance(type, 1));
+		}
+	};
+
+	private SingleBatches() {}
+
+	/**
+	 * @return an array of the event's class with the event in it, must be given back with {@link #release(Event[])}
+	 */
+	static Event[] take(Event event) {
+		ThreadLocal<Event[]> arrays = ARRAYS.get(event.getClass());
+		Event[] batch = arrays.get();
+		if (batch == null) batch = (Event[]) Array.newInstance(event.getClass(), 1); // nested
+		else arrays.set(null);
+		batch[0] = event;
+		return batch;
+	}
+
+	/**
+	 * clears the array so it doesn't keep the event alive and makes it the thread's array again
+	 */
+	static void release(Event[] batch) {
+		batch[0] = null;
+		ARRAYS.get(batch.getClass().getComponentType()).set(batch);
+	}
+}
@@ -0,0 +1,242 @@
+package io.github.microevents.processor;
+
+import io.github.microevents.events.Event;
+import io.github.microevents.events.EventListener;
+import io.github.microevents.events.FilteredListener;
+import io.github.microevents.events.GeneratedListeners;
+import io.github.microevents.events.GenericEvent;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * generates a {@link GeneratedListeners} for every class with {@link EventListener} methods, so
+ * {@link io.github.microevents.events.EventManager#registerEventListeners(Object)} doesn't need to reflect over the
+ * class at runtime. classes with listeners the generated code can't call (private methods or classes) are skipped,
+ * those are still registered by reflection
+ */
+@SupportedAnnotationTypes("io.github.microevents.events.EventListener")
+public class EventListenerProcessor extends AbstractProcessor {
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Map<TypeElement, List<ExecutableElement>> classes = new LinkedHashMap<>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(EventListener.class))
+			if (validate((ExecutableElement) element))
+				classes.computeIfAbsent((TypeElement) element.getEnclosingElement(), t -> new ArrayList<>()).add((ExecutableElement) element);
+
+		for (Map.Entry<TypeElement, List<ExecutableElement>> entry : classes.entrySet())
+			if (accessible(entry.getKey(), entry.getValue())) try {
+				write(entry.getKey(), entry.getValue());
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "unable to write listeners: " + e, entry.getKey());
+			}
+		return false;
+	}
+
+	// the same checks MicroEventManager does at runtime, but as compile errors
+	private boolean validate(ExecutableElement method) {
+		List<? extends VariableElement> params = method.getParameters();
+		if (method.getModifiers().contains(Modifier.ABSTRACT)) return false;
+		if (params.size() != 1) {
+			error(method, method + " has " + params.size() + " parameters! Should have 1!");
+			return false;
+		}
+		TypeMirror event = processingEnv.getElementUtils().getTypeElement(Event.class.getName()).asType();
+		if (!processingEnv.getTypeUtils().isAssignable(params.get(0).asType(), event)) {
+			error(method, method + " is trying to listen to " + params.get(0).asType() + " which does not extend " + Event.class);
+			return false;
+		}
+		String filter = method.getAnnotation(EventListener.class).filter();
+		if (!filter.isEmpty()) {
+			if (genericType(params.get(0).asType()) != null) {
+				error(method, method + " can't have a filter and a generic type");
+				return false;
+			}
+			TypeElement eventType = (TypeElement) processingEnv.getTypeUtils().asElement(params.get(0).asType());
+			if (getter(eventType, filter, false) == null) {
+				error(method, eventType + " has no method " + filter + "() for the filter");
+				return false;
+			}
+			boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+			if (getter((TypeElement) method.getEnclosingElement(), filter, isStatic) == null) {
+				error(method, method.getEnclosingElement() + " has no " + (isStatic ? "static " : "") + "method " + filter + "() for the filter");
+				return false;
+			}
+		}
+		if (!method.getModifiers().contains(Modifier.STATIC) && !method.getModifiers().contains(Modifier.FINAL))
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, method + " is not final, it is recommended to make listener methods final as subclasses that override them will get called twice per event!", method);
+		return true;
+	}
+
+	// if the generated class (in the same package) can call all of the listeners and the methods of their filters
+	private boolean accessible(TypeElement type, List<ExecutableElement> methods) {
+		for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			if (element.getModifiers().contains(Modifier.PRIVATE)) return false;
+			NestingKind nesting = ((TypeElement) element).getNestingKind();
+			if (nesting == NestingKind.ANONYMOUS || nesting == NestingKind.LOCAL) return false;
+		}
+		for (ExecutableElement method : methods) {
+			if (method.getModifiers().contains(Modifier.PRIVATE)) return false;
+			String filter = method.getAnnotation(EventListener.class).filter();
+			if (filter.isEmpty()) continue;
+			TypeElement event = (TypeElement) processingEnv.getTypeUtils().asElement(method.getParameters().get(0).asType());
+			if (getter(event, filter, false).getModifiers().contains(Modifier.PRIVATE)
+					|| getter(type, filter, method.getModifiers().contains(Modifier.STATIC)).getModifiers().contains(Modifier.PRIVATE)) return false;
+		}
+		return true;
+	}
+
+	private void write(TypeElement type, List<ExecutableElement> methods) throws IOException {
+		String binary = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String simple = (pkg.isEmpty() ? binary : binary.substring(pkg.length() + 1)) + GeneratedListeners.SUFFIX;
+		String owner = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+		try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(binary + GeneratedListeners.SUFFIX, type).openWriter())) {
+			if (!pkg.isEmpty()) out.println("package " + pkg + ";");
+			out.println();
+			out.println("/**");
+			out.println(" * generated by " + getClass().getName() + ", registers the listeners of {@link " + owner + "}");
+			out.println(" */");
+			out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+			out.println("public final class " + simple + " implements " + GeneratedListeners.class.getCanonicalName() + " {");
+			out.println("\t@Override");
+			out.println("\tpublic java.util.List<java.util.function.ToLongBiFunction<io.github.microevents.events.EventManager, Object>> instanceListeners() {");
+			out.println("\t\tjava.util.List<java.util.function.ToLongBiFunction<io.github.microevents.events.EventManager, Object>> listeners = new java.util.ArrayList<>();");
+			for (int i = 0; i < methods.size(); i++)
+				if (!methods.get(i).getModifiers().contains(Modifier.STATIC))
+					out.println("\t\tlisteners.add((manager, o) -> " + register(methods.get(i), "((" + owner + ") o)", "new Listener" + i + "((" + owner + ") o)") + ");");
+			out.println("\t\treturn listeners;");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic java.util.List<java.util.function.ToLongBiFunction<io.github.microevents.events.EventManager, Object>> weakInstanceListeners() {");
+			out.println("\t\tjava.util.List<java.util.function.ToLongBiFunction<io.github.microevents.events.EventManager, Object>> listeners = new java.util.ArrayList<>();");
+			for (int i = 0; i < methods.size(); i++)
+				if (!methods.get(i).getModifiers().contains(Modifier.STATIC))
+					out.println("\t\tlisteners.add((manager, o) -> " + register(methods.get(i), "((" + owner + ") o)", "new WeakListener" + i + "(new java.lang.ref.WeakReference<>((" + owner + ") o))") + ");");
+			out.println("\t\treturn listeners;");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic it.unimi.dsi.fastutil.longs.LongList registerStaticListeners(io.github.microevents.events.EventManager manager) {");
+			out.println("\t\tit.unimi.dsi.fastutil.longs.LongList ids = new it.unimi.dsi.fastutil.longs.LongArrayList();");
+			for (int i = 0; i < methods.size(); i++)
+				if (methods.get(i).getModifiers().contains(Modifier.STATIC))
+					out.println("\t\tids.add(" + register(methods.get(i), owner, "new Listener" + i + "()") + ");");
+			out.println("\t\treturn ids;");
+			out.println("\t}");
+			for (int i = 0; i < methods.size(); i++)
+				listener(out, binary, owner, methods.get(i), i);
+			out.println("}");
+		}
+	}
+
+	/*
+	 * a class per listener method, so the metrics and the watchdog can name the method instead of a lambda and every
+	 * method gets it's own listen for the JIT to profile. instance methods also get a weak one
+	 */
+	private void listener(PrintWriter out, String binary, String owner, ExecutableElement method, int index) {
+		String event = processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType()).toString();
+		String name = method.getSimpleName().toString();
+		if (method.getModifiers().contains(Modifier.STATIC)) {
+			listenerClass(out, "Listener" + index, event, null, owner + '.' + name + "(event);", binary + '#' + name);
+			return;
+		}
+		listenerClass(out, "Listener" + index, event, owner, "target." + name + "(event);", binary + '#' + name);
+		listenerClass(out, "WeakListener" + index, event, "java.lang.ref.WeakReference<" + owner + '>',
+				owner + " instance = target.get();\n\t\t\tif (instance != null) instance." + name + "(event);", binary + '#' + name);
+	}
+
+	private static void listenerClass(PrintWriter out, String name, String event, String target, String call, String method) {
+		out.println();
+		out.println("\tstatic final class " + name + " implements io.github.microevents.events.Listener<" + event + "> {");
+		if (target != null) {
+			out.println("\t\tprivate final " + target + " target;");
+			out.println();
+			out.println("\t\t" + name + "(" + target + " target) {");
+			out.println("\t\t\tthis.target = target;");
+			out.println("\t\t}");
+			out.println();
+		}
+		out.println("\t\t@Override");
+		out.println("\t\tpublic void listen(" + event + " event) {");
+		out.println("\t\t\t" + call);
+		out.println("\t\t}");
+		out.println();
+		out.println("\t\t@Override");
+		out.println("\t\tpublic String toString() {");
+		out.println("\t\t\treturn \"" + method + "\";");
+		out.println("\t\t}");
+		out.println("\t}");
+	}
+
+	// the call that registers the listener, target has the filter's method and listener is the lambda that's registered
+	private String register(ExecutableElement method, String target, String listener) {
+		EventListener annotation = method.getAnnotation(EventListener.class);
+		TypeMirror parameter = method.getParameters().get(0).asType();
+		String event = processingEnv.getTypeUtils().erasure(parameter).toString();
+		String genericType = genericType(parameter);
+		String filter = annotation.filter().isEmpty() ? "" : property(method, event, annotation.filter()) + ", " + target + '.' + annotation.filter() + "(), ";
+		return "manager.registerListener(" + event + ".class, " + (genericType == null ? "" : genericType + ".class, ") + filter + listener + ", io.github.microevents.events.Priority." + annotation.priority() + ", " + annotation.subEvents() + ", " + annotation.async() + ')';
+	}
+
+	// the filter's method reference, interned like the manager does it so the generated listeners share an index with the
+	// ones of other classes and the ones registered by reflection
+	private String property(ExecutableElement method, String event, String name) {
+		TypeElement type = (TypeElement) processingEnv.getTypeUtils().asElement(method.getParameters().get(0).asType());
+		TypeElement owner = (TypeElement) getter(type, name, false).getEnclosingElement();
+		return FilteredListener.class.getCanonicalName() + ".<" + event + ">property(" + processingEnv.getTypeUtils().erasure(owner.asType()) + ".class, \"" + name + "\", " + event + "::" + name + ')';
+	}
+
+	// the type argument of GenericEvent in a parameterized event like EntityEvent<Zombie>, same as MicroEventManager
+	private String genericType(TypeMirror parameter) {
+		Types types = processingEnv.getTypeUtils();
+		TypeMirror generic = types.erasure(processingEnv.getElementUtils().getTypeElement(GenericEvent.class.getName()).asType());
+		if (parameter.getKind() != TypeKind.DECLARED || ((DeclaredType) parameter).getTypeArguments().isEmpty() || !types.isAssignable(types.erasure(parameter), generic))
+			return null;
+		Deque<TypeMirror> queue = new ArrayDeque<>(Collections.singleton(parameter));
+		while (!queue.isEmpty()) {
+			TypeMirror type = queue.poll();
+			if (types.isSameType(types.erasure(type), generic)) {
+				List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+				if (arguments.isEmpty()) return null;
+				TypeMirror argument = arguments.get(0);
+				if (argument.getKind() == TypeKind.WILDCARD)
+					argument = ((WildcardType) argument).getExtendsBound();
+				if (argument == null) return null;
+				String erased = types.erasure(argument).toString();
+				return erased.equals(Object.class.getName()) ? null : erased;
+			}
+			queue.addAll(types.directSupertypes(type));
+		}
+		return null;
+	}
+
+	// a method without parameters in the type or it's supers, null if there is none
+	private ExecutableElement getter(TypeElement type, String name, boolean isStatic) {
+		for (Element member : processingEnv.getElementUtils().getAllMembers(type))
+			if (member.getKind() == ElementKind.METHOD && member.getSimpleName().contentEquals(name) && ((ExecutableElement) member).getParameters().isEmpty()
+					&& member.getModifiers().contains(Modifier.STATIC) == isStatic)
+				return (ExecutableElement) member;
+		return null;
+	}
+
+	private void error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+}
@@ -0,0 +1,172 @@
+package io.github.microevents.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * a thread-safe, lock-free {@link IDHolder}. the ids are stored in chunks of 4096 that are only created once they're
+ * needed, so the capacity costs nothing until it's used. each chunk has a summary word of it's words with free ids, so
+ * allocating is a couple of {@link Long#numberOfTrailingZeros(long)}s and a compare and set. with threads competing
+ * {@link #next()} returns a small free id, not necessarily the smallest
+ */
+public class AtomicIDHolder {
+	// ids per chunk, 64 words of 64
+	private static final int CHUNK_BITS = 12;
+
+	private final AtomicReferenceArray<Chunk> chunks;
+	// the amount of occupied (or reserved by a next call) ids
+	private final AtomicInteger size = new AtomicInteger();
+	// no chunk before this one has a free id, only a hint
+	private final AtomicInteger first = new AtomicInteger();
+	private final int capacity;
+
+	/**
+	 * creates a new holder that can accept the specified amount of entries
+	 *
+	 * @param capacity rounded up to the nearest 64
+	 */
+	public AtomicIDHolder(int capacity) {
+		this.capacity = (int) Math.min((long) (capacity - 1 >> 6) + 1 << 6, Integer.MAX_VALUE & ~63);
+		this.chunks = new AtomicReferenceArray<>((this.capacity - 1 >>> CHUNK_BITS) + 1);
+	}
+
+	/**
+	 * checks whether the specified id is already occupied
+	 *
+	 * @param val the id
+	 * @return true if the value is occupied
+	 * @throws IndexOutOfBoundsException if value is outside of the capacity
+	 */
+	public boolean occupied(int val) {
+		Chunk chunk = chunks.get(val >>> CHUNK_BITS);
+		return chunk != null && (chunk.words.get(val >>> 6 & 63) & 1L << (val & 63)) != 0;
+	}
+
+	/**
+	 * finds an unoccupied id and occupies it
+	 *
+	 * @return the id
+	 * @throws IndexOutOfBoundsException if the capacity has been exceeded
+	 */
+	public int next() {
+		// reserve an id first, so there's always a free one to find
+		if (size.incrementAndGet() > capacity) {
+			size.decrementAndGet();
+			throw new IndexOutOfBoundsException("Capacity Exceed");
+		}
+		for (int start = first.get(); ; start = 0) // a pass only misses ids freed behind it while it runs
+			for (int index = start; index < chunks.length(); index++) {
+				int val = chunk(index).occupy();
+				if (val != -1) return index << CHUNK_BITS | val;
+				first.compareAndSet(index, index + 1);
+			}
+	}
+
+	/**
+	 * removes the id from the holder
+	 *
+	 * @param val the value to be removed
+	 * @return false if the id wasn't occupied
+	 * @throws IndexOutOfBoundsException if value is outside of the capacity
+	 */
+	public boolean remove(int val) {
+		int index = val >>> CHUNK_BITS;
+		Chunk chunk = chunks.get(index);
+		if (chunk == null || !chunk.release(val & (1 << CHUNK_BITS) - 1)) return false;
+		size.decrementAndGet();
+		int current;
+		while ((current = first.get()) > index && !first.compareAndSet(current, index)) ;
+		return true;
+	}
+
+	/**
+	 * checks if the id holder is full
+	 *
+	 * @return true if capacity has been reached
+	 */
+	public boolean full() {
+		return size.get() >= capacity;
+	}
+
+	/**
+	 * @return the amount of ids the holder can hold
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the amount of occupied ids
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	private Chunk chunk(int index) {
+		Chunk chunk = chunks.get(index);
+		if (chunk == null) {
+			int words = Math.min(64, capacity - (index << CHUNK_BITS) >>> 6);
+			chunks.compareAndSet(index, null, new Chunk(words));
+			chunk = chunks.get(index);
+		}
+		return chunk;
+	}
+
+	private static final class Chunk {
+		// a bit per id, set if it's occupied
+		final AtomicLongArray words = new AtomicLongArray(64);
+		// a bit per word, set if it may have a free id
+		final AtomicLong free;
+
+		Chunk(int words) {
+			for (int word = words; word < 64; word++) // past the capacity
+				this.words.set(word, -1L);
+			free = new AtomicLong(words == 64 ? -1L : (1L << words) - 1);
+		}
+
+		// the index of the id in the chunk, or -1 if it's full
+		int occupy() {
+			long summary;
+			while ((summary = free.get()) != 0) {
+				int word = Long.numberOfTrailingZeros(summary);
+				long bits = words.get(word);
+				if (bits == -1L) full(word);
+				else {
+					long bit = Long.lowestOneBit(~bits);
+					if (words.compareAndSet(word, bits, bits | bit)) {
+						if ((bits | bit) == -1L) full(word);
+						return word << 6 | Long.numberOfTrailingZeros(bit);
+					}
+				}
+			}
+			return -1;
+		}
+
+		boolean release(int val) {
+			int word = val >>> 6;
+			long bit = 1L << (val & 63), bits;
+			do {
+				bits = words.get(word);
+				if ((bits & bit) == 0) return false;
+			} while (!words.compareAndSet(word, bits, bits & ~bit));
+			setFree(word, true);
+			return true;
+		}
+
+		// clears the summary bit of a full word, and sets it again if an id was released before it was cleared
+		private void full(int word) {
+			setFree(word, false);
+			if (words.get(word) != -1L) setFree(word, true);
+		}
+
+		private void setFree(int word, boolean set) {
+			long summary, updated;
+			do {
+				summary = free.get();
+				updated = set ? summary | 1L << word : summary & ~(1L << word);
+			} while (summary != updated && !free.compareAndSet(summary, updated));
+		}
+	}
+}
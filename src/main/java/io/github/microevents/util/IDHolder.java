@@ -1,20 +1,38 @@
 package io.github.microevents.util;
 
+import java.util.Arrays;
+
 /**
- * a table to determine if a number has already been used, effectively a super memory compact, and fast IntSet
- * although it's memory compact, it's still a hog if u want huge numbers because all the storage space is allocated
- * up front
+ * a table to determine if a number has already been used, effectively a super memory compact, and fast IntSet. a
+ * summary bitmap keeps track of the words with free ids, so finding the smallest free id is a couple of
+ * {@link Long#numberOfTrailingZeros(long)}s instead of a scan, and the storage grows as it's needed up to the max
+ * capacity. not thread-safe, see {@link AtomicIDHolder}
  */
 public class IDHolder {
 	/**
-	 * used for storing all the possible ids
+	 * used for storing all the possible ids, a bit per id, set if it's occupied
 	 */
 	private long[] values;
 
 	/**
-	 * last checked index, for faster sequential access
+	 * a bit per word of {@link #values}, set if the word has a free id
+	 */
+	private long[] free;
+
+	/**
+	 * no word of {@link #free} before this index has a free id, for faster sequential access
+	 */
+	private int first = 0;
+
+	/**
+	 * the amount of occupied ids
+	 */
+	private int size = 0;
+
+	/**
+	 * the amount of words {@link #next()} grows {@link #values} up to
 	 */
-	private int last = 0;
+	private int maxWords;
 
 	/**
 	 * creates a new IDHolder that can accept the specified amount of entries
@@ -22,7 +40,20 @@ public class IDHolder {
 	 * @param capacity rounded up to the nearest 64
 	 */
 	public IDHolder(int capacity) {
-		values = new long[(capacity - 1 >> 6) + 1];
+		this(capacity, capacity);
+	}
+
+	/**
+	 * creates a new IDHolder that starts with room for the capacity, and grows once it's full
+	 *
+	 * @param capacity the initial capacity, rounded up to the nearest 64
+	 * @param maxCapacity the most entries it grows to, rounded up to the nearest 64
+	 */
+	public IDHolder(int capacity, int maxCapacity) {
+		values = new long[0];
+		free = new long[0];
+		maxWords = (maxCapacity - 1 >> 6) + 1;
+		grow(capacity);
 	}
 
 	/**
@@ -37,66 +68,95 @@ public class IDHolder {
 	}
 
 	/**
-	 * gets the first unoccupied id and occupied it
+	 * gets the first unoccupied id and occupied it, growing the holder if it's full
 	 *
 	 * @return the smallest unoccupied id
-	 * @throws IndexOutOfBoundsException if the capacity has been exceeded
+	 * @throws IndexOutOfBoundsException if the max capacity has been exceeded
 	 */
 	public int next() {
-		int val = occupyBit(last);
-		if (val != -1) return val + (last << 6);
-
-		for (int i = 0; i < values.length; i++)
-			if (values[i] != 0xFFFFFFFFFFFFFFFFL) {
-				last = i;
-				return (i << 6) + occupyBit(i);
-			}
-		throw new IndexOutOfBoundsException("Capacity Exceed");
+		int val = peek();
+		if (val == -1) {
+			if (values.length >= maxWords) throw new IndexOutOfBoundsException("Capacity Exceed");
+			growWords(Math.min(maxWords, Math.max(1, values.length * 2)));
+			val = peek();
+		}
+		int word = val >>> 6;
+		values[word] |= 1L << (val & 63);
+		if (values[word] == -1L) free[word >>> 6] &= ~(1L << (word & 63));
+		size++;
+		return val;
 	}
 
 	/**
 	 * checks if the id holder is full
-	 * @return true if capacity has been reached
+	 * @return true if the max capacity has been reached
 	 */
 	public boolean full() {
-		return peek() == -1;
+		return size >= (long) maxWords << 6;
 	}
 
 	/**
-	 * same as {@link IDHolder#next()} but does not occupied the id and doesn't throw an out of bounds exception if capacity
-	 * was exceeded
- 	 * @return the smallest unoccupied id or -1 if capacity has been reached
+	 * same as {@link IDHolder#next()} but does not occupied the id, grow the holder or throw an out of bounds exception if
+	 * capacity was exceeded
+ 	 * @return the smallest unoccupied id or -1 if the current capacity has been reached
 	 */
 	public int peek() {
-		for (int i = 0; i < values.length; i++)
-			if (values[i] != 0xFFFFFFFFFFFFFFFFL) return (i << 6) + peekBit(i);
+		for (; first < free.length; first++)
+			if (free[first] != 0) {
+				int word = first << 6 | Long.numberOfTrailingZeros(free[first]);
+				return word << 6 | Long.numberOfTrailingZeros(~values[word]);
+			}
 		return -1;
 	}
 
 	/**
-	 * removes the id from the holder
-	 * @param val the value to be removed
-	 * @throws ArrayIndexOutOfBoundsException if the value is larger than the capacity
+	 * @return the amount of ids the holder can hold without growing
 	 */
-	public void remove(int val) {
-		last = val >>> 6;
-		values[last] ^= 1L << (val & 63);
+	public int capacity() {
+		return values.length << 6;
 	}
 
+	/**
+	 * @return the amount of occupied ids
+	 */
+	public int size() {
+		return size;
+	}
 
-	private int occupyBit(int index) {
-		for (int x = 0; x < 64; x++)
-			if ((values[index] & (1L << x)) == 0) {
-				values[index] |= 1L << x;
-				return x;
-			}
-		return -1;
+	/**
+	 * makes room for more ids, keeping the occupied ones, the max capacity is raised if it's lower
+	 *
+	 * @param capacity the new capacity, rounded up to the nearest 64
+	 */
+	public void grow(int capacity) {
+		growWords((capacity - 1 >> 6) + 1);
 	}
 
-	private int peekBit(int index) {
-		for (int x = 0; x < 64; x++)
-			if ((values[index] & (1L << x)) == 0) return x;
-		return -1;
+	private void growWords(int words) {
+		int old = values.length;
+		if (words <= old) return;
+		values = Arrays.copyOf(values, words);
+		free = Arrays.copyOf(free, (words - 1 >> 6) + 1);
+		for (int word = old; word < words; word++)
+			free[word >>> 6] |= 1L << (word & 63);
+		first = Math.min(first, old >>> 6);
+		maxWords = Math.max(maxWords, words);
 	}
 
+	/**
+	 * removes the id from the holder
+	 * @param val the value to be removed
+	 * @return false if the id wasn't occupied
+	 * @throws ArrayIndexOutOfBoundsException if the value is larger than the capacity
+	 */
+	public boolean remove(int val) {
+		int word = val >>> 6;
+		long bit = 1L << (val & 63);
+		if ((values[word] & bit) == 0) return false;
+		values[word] &= ~bit;
+		free[word >>> 6] |= 1L << (word & 63);
+		first = Math.min(first, word >>> 6);
+		size--;
+		return true;
+	}
 }
@@ -1,63 +1,75 @@
 package io.github.microevents.util;
 
-import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import java.util.*;
 import java.util.function.Function;
 
 /**
  * represents a map that stores a relation between classes, and items that they can inherit, like methods (mostly a reflection util)
+ * <p>
+ * the attributes are cached in {@link ClassValue}s, so a lookup of a cached class is lock free and the cache doesn't
+ * keep the classes (or their class loaders) from being unloaded. the cached attributes are kept by the classes, so they
+ * must not reference the map or whatever holds it, or the classes pin them (and the map pins the classes through the
+ * values) until the classes are unloaded
  * @param <P> the parent class type
  * @param <O> the object/attribute type
  */
 public class InheritedMap<P, O> {
-	// a map of the classes to their attributes
-	private final Map<Class<? extends P>, List<O>> attributes = new Object2ObjectOpenHashMap<>();
-	// a map of classes to their and inherited attributes
-	private final Map<Class<? extends P>, NodedList<O>> cache = new Object2ObjectOpenHashMap<>();
-	// the parent type
-	private final Class<P> parentType;
-	// a class to attributes converter
-	private final Function<Class<? extends P>, List<O>> attributeSupplier;
+	// the attributes of each class and it's supers
+	private final Inherited<P, O> cache;
 
 	/**
 	 * creates a new inherited map with the given parent class and attribute supplier
 	 * @param parentClass the parent object
-	 * @param attributeSupplier the converter
+	 * @param attributeSupplier the converter, it may be called more than once for a class if it's looked up on multiple threads at once
 	 */
 	public InheritedMap(Class<P> parentClass, Function<Class<? extends P>, List<O>> attributeSupplier) {
-		this.parentType = parentClass;
-		this.attributeSupplier = attributeSupplier;
+		this.cache = new Inherited<>(parentClass, new Declared<>(attributeSupplier));
 	}
 
 	/**
 	 * gets all of the classes attributes, inherited and owned, this is cached
 	 * @param type the class
-	 * @return an immutable list of all the attributes
+	 * @return an immutable list of all the attributes, the class's own first
 	 */
 	public NodedList<O> getAttributes(Class<? extends P> type) {
-		NodedList<O> nodedList = cache.get(type);
-		if(nodedList == null) {
-			List<List<O>> lists = new ObjectArrayList<>();
-			while (type != null && parentType.isAssignableFrom(type)) {
-				List<O> ok = map(type);
-				if(ok.size() > 0)
-					lists.add(map(type));
-				type = (Class) type.getSuperclass();
-			}
-			nodedList = new NodedList<>(lists);
-			cache.put(type, nodedList);
+		return cache.get(type);
+	}
+
+	// the attributes of each class, without the inherited ones
+	private static final class Declared<P, O> extends ClassValue<List<O>> {
+		private final Function<Class<? extends P>, List<O>> attributeSupplier;
+
+		Declared(Function<Class<? extends P>, List<O>> attributeSupplier) {
+			this.attributeSupplier = attributeSupplier;
+		}
+
+		@Override
+		protected List<O> computeValue(Class<?> type) {
+			return attributeSupplier.apply((Class<? extends P>) type);
 		}
-		return nodedList;
 	}
 
-	private List<O> map(Class<? extends P> type) {
-		List<O> types = attributes.get(type);
-		if(types == null) {
-			types = attributeSupplier.apply(type);
-			attributes.put(type, types);
+	// the attributes of each class and it's supers, built from the cached list of the super class
+	private static final class Inherited<P, O> extends ClassValue<NodedList<O>> {
+		private final Class<P> parentType;
+		private final Declared<P, O> declared;
+
+		Inherited(Class<P> parentType, Declared<P, O> declared) {
+			this.parentType = parentType;
+			this.declared = declared;
+		}
+
+		@Override
+		protected NodedList<O> computeValue(Class<?> type) {
+			List<O> own = declared.get(type);
+			Class<?> superclass = type.getSuperclass();
+			List<List<O>> inherited = superclass == null || !parentType.isAssignableFrom(superclass) ? Collections.emptyList() : get(superclass).combo;
+			if (own.isEmpty()) return inherited.isEmpty() ? new NodedList<>(Collections.emptyList()) : get(superclass);
+			List<List<O>> lists = new ObjectArrayList<>(inherited.size() + 1);
+			lists.add(own);
+			lists.addAll(inherited);
+			return new NodedList<>(lists);
 		}
-		return types;
 	}
 }
@@ -16,6 +16,9 @@ public class NodedList<E> extends AbstractList<E> {
 	// the total size of all of the lists
 	final int size;
 
+	// the elements of all of the lists in order, copied once so get and iterating don't walk the lists
+	final Object[] elements;
+
 	/**
 	 * creates a new NodedList from the lists provided
 	 * @param combo the lists that this will use
@@ -28,15 +31,18 @@ public class NodedList<E> extends AbstractList<E> {
 			sum += i;
 		}
 		size = sum;
+		elements = new Object[sum];
+		int index = 0;
+		for (List<E> es : combo)
+			for (E e : es)
+				elements[index++] = e;
 	}
 
 
 	@Override
 	public E get(int index) {
-		for (List<E> es : combo)
-			if (index - es.size() < 0) return es.get(index);
-			else index -= es.size();
-		throw new IndexOutOfBoundsException(index + " out of bounds!");
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index + " out of bounds!");
+		return (E) elements[index];
 	}
 
 	@Override
@@ -48,4 +54,9 @@ public class NodedList<E> extends AbstractList<E> {
 	public Iterator<E> iterator() {
 		return new NodedListIterator<>(this);
 	}
+
+	@Override
+	public Object[] toArray() {
+		return elements.clone();
+	}
 }
@@ -1,39 +1,26 @@
 package io.github.microevents.util;
 
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 public class NodedListIterator<E> implements Iterator<E> {
-	private NodedList<E> list;
-	private List<E> currentList; // the current list being iterated
+	private final Object[] elements; // the flattened lists of the NodedList
+	private final int size;
 	private int index = 0; // current index
-	private int listPos = 0; // position of the current list in the combo
-	private int listIndex = 0; // index of 0 in the current list in the combo
 
 	public NodedListIterator(NodedList<E> list) {
-		this.list = list;
-		if (list.combo.size() > 0) currentList = list.combo.get(0);
+		this.elements = list.elements;
+		this.size = list.size;
 	}
 
 	@Override
 	public boolean hasNext() {
-		return list.size != index && currentList != null && (index < listIndex + currentList.size() || list.combo.size() > listPos + 1);
+		return index < size;
 	}
 
 	@Override
 	public E next() {
-		E val;
-		if (index < listIndex + currentList.size()) val = currentList.get(index - listIndex);
-		else {
-			listIndex += currentList.size();
-			do {
-				if(listPos+1 == list.combo.size())
-					return null;
-				currentList = list.combo.get(++listPos);
-			} while (currentList.size() == 0);
-			val = currentList.get(0);
-		}
-		index++;
-		return val;
+		if (index >= size) throw new NoSuchElementException();
+		return (E) elements[index++];
 	}
 }
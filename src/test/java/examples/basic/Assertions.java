@@ -0,0 +1,22 @@
+package examples.basic;
+
+import java.util.Objects;
+
+/**
+ * the checks of the example tests, they throw even if the jvm wasn't started with assertions enabled
+ */
+public final class Assertions {
+	private Assertions() {}
+
+	public static void check(boolean condition, String message) {
+		if (!condition) throw new AssertionError(message);
+	}
+
+	public static void equal(Object expected, Object actual, String what) {
+		if (!Objects.equals(expected, actual)) throw new AssertionError(what + ": expected " + expected + " but was " + actual);
+	}
+
+	public static void equal(long expected, long actual, String what) {
+		if (expected != actual) throw new AssertionError(what + ": expected " + expected + " but was " + actual);
+	}
+}
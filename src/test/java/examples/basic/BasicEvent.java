@@ -28,6 +28,11 @@ public class BasicEvent implements Cancellable {
 		return cancelled;
 	}
 
+	@Override
+	public void reset() {
+		cancelled = false;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -0,0 +1,39 @@
+package examples.basic;
+
+import io.github.microevents.MicroEventHandler;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.EventHandler;
+
+/**
+ * a {@link MicroEventHandler} that counts the invokes of it and of every handler made from it with
+ * {@link #newHandler()}, to see which handlers the manager dispatched an event with
+ */
+public final class CountingHandler<E extends Event> extends MicroEventHandler<E> {
+	private final int[] invokes;
+
+	public CountingHandler() {
+		this(new int[1]);
+	}
+
+	private CountingHandler(int[] invokes) {
+		this.invokes = invokes;
+	}
+
+	/**
+	 * @return the invokes of this handler and the ones made from it
+	 */
+	public int invokes() {
+		return invokes[0];
+	}
+
+	@Override
+	public EventHandler<E> newHandler() {
+		return new CountingHandler<>(invokes);
+	}
+
+	@Override
+	public void invoke(E event, boolean forSubListeners) {
+		invokes[0]++;
+		super.invoke(event, forSubListeners);
+	}
+}
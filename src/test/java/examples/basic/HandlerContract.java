@@ -0,0 +1,100 @@
+package examples.basic;
+
+import io.github.microevents.events.EventHandler;
+import io.github.microevents.events.Listener;
+import io.github.microevents.events.Priority;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static examples.basic.Assertions.*;
+
+/**
+ * the behaviour every {@link EventHandler} must have, checked against the handlers of the example tests
+ */
+public final class HandlerContract {
+	private HandlerContract() {}
+
+	/**
+	 * a handler key like the manager makes them, the priority in bits 0-2, the sub flag in bit 15 and the slot around it
+	 */
+	public static int id(int slot, Priority priority, boolean sub) {
+		return priority.ordinal() | (slot & 0xFFF) << 3 | (sub ? 1 : 0) << 15 | slot >>> 12 << 16;
+	}
+
+	public static void verify(Supplier<? extends EventHandler<BasicEvent>> handlers) {
+		order(handlers.get());
+		cancellation(handlers.get());
+		subListeners(handlers.get());
+		removal(handlers.get());
+		batches(handlers.get());
+	}
+
+	private static Listener<BasicEvent> adds(List<String> calls, String name) {
+		return e -> calls.add(name);
+	}
+
+	private static void order(EventHandler<BasicEvent> handler) {
+		List<String> calls = new ArrayList<>();
+		handler.register(id(1, Priority.FINAL, false), adds(calls, "final"), Priority.FINAL);
+		handler.register(id(2, Priority.NORMAL, false), adds(calls, "normal 1"), Priority.NORMAL);
+		// the rest at once, after the ones already registered
+		int[] ids = {id(3, Priority.TOP, false), id(4, Priority.NORMAL, false), id(5, Priority.LOWEST, false), 0};
+		Listener<BasicEvent>[] listeners = new Listener[]{adds(calls, "top"), adds(calls, "normal 2"), adds(calls, "lowest"), null};
+		handler.registerAll(ids, listeners, new Priority[]{Priority.TOP, Priority.NORMAL, Priority.LOWEST, null}, 3);
+		handler.invoke(new BasicEvent("a"), false);
+		equal(Arrays.asList("top", "lowest", "normal 1", "normal 2", "final"), calls, handler.getClass().getSimpleName() + " call order");
+	}
+
+	private static void cancellation(EventHandler<BasicEvent> handler) {
+		List<String> calls = new ArrayList<>();
+		handler.register(id(1, Priority.TOP, false), e -> { calls.add("top 1"); e.cancel(true); }, Priority.TOP);
+		handler.register(id(2, Priority.TOP, false), adds(calls, "top 2"), Priority.TOP);
+		handler.register(id(3, Priority.LOW, false), adds(calls, "low"), Priority.LOW);
+		handler.invoke(new BasicEvent("a"), false);
+		equal(Arrays.asList("top 1", "top 2"), calls, handler.getClass().getSimpleName() + " calls of a cancelled event");
+	}
+
+	private static void subListeners(EventHandler<BasicEvent> handler) {
+		List<String> calls = new ArrayList<>();
+		handler.register(id(1, Priority.NORMAL, false), adds(calls, "exact"), Priority.NORMAL);
+		handler.register(id(2, Priority.NORMAL, true), adds(calls, "sub"), Priority.NORMAL);
+		handler.invoke(new BasicEvent("a"), true);
+		equal(Collections.singletonList("sub"), calls, handler.getClass().getSimpleName() + " calls for sub listeners");
+	}
+
+	// removes every other listener of 3000, one by one and at once, the rest keep their order
+	private static void removal(EventHandler<BasicEvent> handler) {
+		List<String> calls = new ArrayList<>();
+		Priority[] priorities = Priority.values();
+		for (int slot = 0; slot < 3000; slot++)
+			handler.register(id(slot, priorities[slot % 7], false), adds(calls, Integer.toString(slot)), priorities[slot % 7]);
+		for (int slot = 0; slot < 3000; slot += 4)
+			handler.remove(id(slot, priorities[slot % 7], false));
+		int[] ids = new int[750];
+		for (int slot = 2, i = 0; slot < 3000; slot += 4)
+			ids[i++] = id(slot, priorities[slot % 7], false);
+		handler.removeAll(ids, ids.length);
+		handler.remove(id(4095, Priority.NORMAL, false)); // not registered
+		handler.invoke(new BasicEvent("a"), false);
+		List<String> expected = new ArrayList<>();
+		for (Priority priority : priorities)
+			for (int slot = priority.ordinal(); slot < 3000; slot += 7)
+				if (slot % 2 == 1) expected.add(Integer.toString(slot));
+		equal(expected, calls, handler.getClass().getSimpleName() + " calls after removing");
+	}
+
+	// every event of a batch sees the listeners in order, and cancelled ones are skipped after TOP
+	private static void batches(EventHandler<BasicEvent> handler) {
+		List<String> calls = new ArrayList<>();
+		handler.register(id(1, Priority.TOP, false), e -> { calls.add("top " + e.getValue()); e.cancel(e.getValue().equals("b")); }, Priority.TOP);
+		handler.register(id(2, Priority.NORMAL, false), e -> calls.add("normal " + e.getValue()), Priority.NORMAL);
+		handler.invokeAll(new BasicEvent[] {new BasicEvent("a"), new BasicEvent("b"), new BasicEvent("c")}, false);
+		List<String> sorted = new ArrayList<>(calls);
+		Collections.sort(sorted);
+		equal(Arrays.asList("normal a", "normal c", "top a", "top b", "top c"), sorted, handler.getClass().getSimpleName() + " batch calls");
+		check(calls.indexOf("top a") < calls.indexOf("normal a") && calls.indexOf("top c") < calls.indexOf("normal c"), "batch calls out of priority order: " + calls);
+	}
+}
@@ -0,0 +1,35 @@
+package examples.basic;
+
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.EventHandler;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * the managers of the example tests, with their events already registered
+ */
+public final class Managers {
+	private Managers() {}
+
+	@SafeVarargs
+	public static MicroEventManager manager(Class<? extends Event>... events) {
+		return register(new MicroEventManager(), events);
+	}
+
+	@SafeVarargs
+	public static MicroEventManager manager(Supplier<EventHandler<?>> handlers, Class<? extends Event>... events) {
+		return register(new MicroEventManager(handlers), events);
+	}
+
+	@SafeVarargs
+	public static MicroEventManager manager(Supplier<EventHandler<?>> handlers, Executor executor, Class<? extends Event>... events) {
+		return register(new MicroEventManager(handlers, executor), events);
+	}
+
+	private static MicroEventManager register(MicroEventManager manager, Class<? extends Event>[] events) {
+		for (Class<? extends Event> event : events)
+			manager.registerEvent(event);
+		return manager;
+	}
+}
@@ -0,0 +1,94 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import io.github.microevents.MicroEventHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.Priority;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks async listeners and invokeAsync
+ */
+public class AsyncTest {
+	public static void main(String[] args) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4, r -> {
+			Thread thread = new Thread(r, "async test");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			futures(executor);
+			cancelled(executor);
+			exceptions(executor);
+		} finally {
+			executor.shutdownNow();
+		}
+		System.out.println("async ok");
+	}
+
+	// the future completes with the event once the async listeners it started are done, a plain invoke doesn't wait
+	private static void futures(ExecutorService executor) throws Exception {
+		MicroEventManager manager = manager(MicroEventHandler::new, executor, BasicEvent.class);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger done = new AtomicInteger();
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		manager.registerListener(BasicEvent.class, e -> {
+			thread.set(Thread.currentThread());
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				throw new IllegalStateException(ex);
+			}
+			done.incrementAndGet();
+		}, Priority.NORMAL, false, true);
+
+		BasicEvent event = new BasicEvent("a");
+		CompletableFuture<BasicEvent> future = manager.invokeAsync(event);
+		Thread.sleep(50);
+		check(!future.isDone(), "the future waits for the async listener");
+		release.countDown();
+		check(future.get(5, TimeUnit.SECONDS) == event, "the future completes with the event");
+		equal(1, done.get(), "the listener finished before the future");
+		check(thread.get().getName().equals("async test"), "the listener ran on the executor, was " + thread.get());
+
+		manager.invoke(new BasicEvent("b")); // the latch is open, so it completes on it's own
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (done.get() < 2 && System.nanoTime() < deadline) Thread.sleep(1);
+		equal(2, done.get(), "plain invokes start the async listeners too");
+	}
+
+	// an async listener sits at it's priority, so it isn't started once the event is cancelled
+	private static void cancelled(ExecutorService executor) throws Exception {
+		MicroEventManager manager = manager(MicroEventHandler::new, executor, BasicEvent.class);
+		AtomicInteger calls = new AtomicInteger();
+		manager.registerListener(BasicEvent.class, e -> e.cancel(true), Priority.LOW, false);
+		manager.registerListener(BasicEvent.class, e -> calls.incrementAndGet(), Priority.HIGH, false, true);
+		manager.registerListener(BasicEvent.class, e -> calls.addAndGet(10), Priority.TOP, false, true);
+		manager.invokeAsync(new BasicEvent("a")).get(5, TimeUnit.SECONDS);
+		equal(10, calls.get(), "only the TOP async listener is started");
+	}
+
+	// the exceptions of async listeners go to the exception handler, and don't fail the future
+	private static void exceptions(ExecutorService executor) throws Exception {
+		MicroEventManager manager = manager(MicroEventHandler::new, executor, BasicEvent.class);
+		AtomicReference<Throwable> handled = new AtomicReference<>();
+		manager.setExceptionHandler((id, listener, event, throwable) -> {
+			handled.set(throwable);
+			return false;
+		});
+		manager.registerListener(BasicEvent.class, e -> {
+			throw new IllegalStateException("thrown");
+		}, Priority.NORMAL, false, true);
+		manager.invokeAsync(new BasicEvent("a")).get(5, TimeUnit.SECONDS);
+		check(handled.get() instanceof IllegalStateException, "the exception was handled, was " + handled.get());
+	}
+}
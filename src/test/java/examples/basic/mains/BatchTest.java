@@ -0,0 +1,113 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import examples.basic.SubBasicEvent;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.BatchListener;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Priority;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks invokeAll and batch listeners through the manager
+ */
+public class BatchTest {
+	public static void main(String[] args) {
+		batches();
+		single();
+		reused();
+		mixed();
+		exceptions();
+		System.out.println("batch ok");
+	}
+
+	// batch listeners get the events that weren't cancelled in one call, plain listeners get them one by one
+	private static void batches() {
+		MicroEventManager manager = manager(BasicEvent.class, SubBasicEvent.class);
+		List<String> batches = new ArrayList<>(), singles = new ArrayList<>();
+		manager.registerListener(BasicEvent.class, e -> {
+			if (e.getValue().equals("b")) e.cancel(true);
+		}, Priority.LOWEST, false);
+		manager.registerListener(BasicEvent.class, (BatchListener<BasicEvent>) (events, size) -> batches.add(values(events, size)), Priority.NORMAL, false);
+		manager.registerListener(BasicEvent.class, (BatchListener<BasicEvent>) (events, size) -> batches.add("top " + values(events, size)), Priority.TOP, false);
+		manager.registerListener(BasicEvent.class, e -> singles.add(e.getValue()), Priority.HIGH, false);
+
+		manager.invokeAll(BasicEvent.class, new BasicEvent[]{new BasicEvent("a"), new BasicEvent("b"), new BasicEvent("c")});
+		equal("[top [a, b, c], [a, c]]", batches.toString(), "the batches");
+		equal("[a, c]", singles.toString(), "the single listener");
+
+		batches.clear();
+		manager.invokeAll(BasicEvent.class, Arrays.asList(new BasicEvent("d"), new BasicEvent("e")));
+		equal("[top [d, e], [d, e]]", batches.toString(), "lists are invoked as batches");
+	}
+
+	// single invokes are passed to batch listeners as a batch of one
+	private static void single() {
+		MicroEventManager manager = manager(BasicEvent.class, SubBasicEvent.class);
+		List<String> batches = new ArrayList<>();
+		manager.registerListener(BasicEvent.class, (BatchListener<BasicEvent>) (events, size) -> batches.add(values(events, size)), Priority.NORMAL, true);
+		manager.invoke(new BasicEvent("a"));
+		manager.invokeAll(SubBasicEvent.class, new SubBasicEvent[]{new SubBasicEvent(), new SubBasicEvent()});
+		equal(2, batches.size(), "one batch per invoke");
+		equal("[a]", batches.get(0), "the single event");
+		check(batches.get(1).startsWith("[") && batches.get(1).split(",").length == 2, "the sub events are one batch, was " + batches.get(1));
+	}
+
+	// single invokes reuse the thread's array, a nested invoke of the same class gets another one
+	private static void reused() {
+		MicroEventManager manager = manager(BasicEvent.class, SubBasicEvent.class);
+		List<BasicEvent[]> arrays = new ArrayList<>();
+		List<String> batches = new ArrayList<>();
+		manager.registerListener(BasicEvent.class, (BatchListener<BasicEvent>) (events, size) -> {
+			arrays.add(events);
+			if (events[0].getValue().equals("nesting")) manager.invoke(new BasicEvent("nested"));
+			batches.add(values(events, size));
+		}, Priority.NORMAL, false);
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new BasicEvent("b"));
+		check(arrays.get(0) == arrays.get(1), "the array is reused");
+		equal(null, arrays.get(0)[0], "the event isn't kept");
+		manager.invoke(new BasicEvent("nesting"));
+		equal("[[a], [b], [nested], [nesting]]", batches.toString(), "the nested invoke doesn't overwrite the batch");
+		check(arrays.get(2) != arrays.get(3), "the nested invoke has it's own array");
+	}
+
+	// a batch must be of one class
+	private static void mixed() {
+		MicroEventManager manager = manager(BasicEvent.class, SubBasicEvent.class);
+		try {
+			manager.invokeAll(BasicEvent.class, new BasicEvent[]{new BasicEvent("a"), new SubBasicEvent()});
+			throw new AssertionError("mixed batches are rejected");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	// an exception of a batch listener is handled once, with the first event of the batch
+	private static void exceptions() {
+		MicroEventManager manager = manager(BasicEvent.class, SubBasicEvent.class);
+		List<Event> failed = new ArrayList<>();
+		manager.setExceptionHandler((id, listener, event, throwable) -> {
+			failed.add(event);
+			return false;
+		});
+		manager.registerListener(BasicEvent.class, (BatchListener<BasicEvent>) (events, size) -> {
+			throw new IllegalStateException("thrown");
+		}, Priority.NORMAL, false);
+		BasicEvent first = new BasicEvent("a");
+		manager.invokeAll(BasicEvent.class, new BasicEvent[]{first, new BasicEvent("b")});
+		equal(1, failed.size(), "one exception for the batch");
+		check(failed.get(0) == first, "the first event is passed to the handler");
+	}
+
+	private static String values(BasicEvent[] events, int size) {
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < size; i++)
+			values.add(events[i].getValue());
+		return values.toString();
+	}
+}
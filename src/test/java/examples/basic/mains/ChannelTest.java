@@ -0,0 +1,137 @@
+package examples.basic.mains;
+
+import io.github.microevents.CircuitBreaker;
+import io.github.microevents.IntEventChannel;
+import io.github.microevents.IntLongEventChannel;
+import io.github.microevents.LoggingExceptionHandler;
+import io.github.microevents.LongEventChannel;
+import io.github.microevents.events.Priority;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static examples.basic.Assertions.*;
+
+/**
+ * checks the order, cancels and ids of the primitive event channels
+ */
+public class ChannelTest {
+	public static void main(String[] args) {
+		Logger.getLogger("MicroEventManager").setLevel(Level.OFF);
+		order();
+		topThenCancel();
+		cancel();
+		exceptions();
+		values();
+		ids();
+		System.out.println("channels ok");
+	}
+
+	// by priority, then in the order they were registered
+	private static void order() {
+		IntEventChannel channel = new IntEventChannel();
+		List<String> calls = new ArrayList<>();
+		channel.register(v -> !calls.add("final"), Priority.FINAL);
+		channel.register(v -> !calls.add("normal 1"), Priority.NORMAL);
+		channel.register(v -> !calls.add("top"), Priority.TOP);
+		channel.register(v -> !calls.add("normal 2"), Priority.NORMAL);
+		channel.register(v -> !calls.add("lowest"), Priority.LOWEST);
+		check(!channel.fire(1), "not cancelled");
+		equal("[top, lowest, normal 1, normal 2, final]", calls.toString(), "the call order");
+	}
+
+	// a TOP listener's cancel doesn't stop the other TOP listeners, only the ones after them
+	private static void topThenCancel() {
+		IntEventChannel channel = new IntEventChannel();
+		List<String> calls = new ArrayList<>();
+		channel.register(v -> calls.add("top 1") && v == 1, Priority.TOP);
+		channel.register(v -> !calls.add("top 2"), Priority.TOP);
+		channel.register(v -> !calls.add("low"), Priority.LOW);
+		check(channel.fire(1), "cancelled by TOP");
+		equal("[top 1, top 2]", calls.toString(), "every TOP listener and nothing after");
+		calls.clear();
+		check(!channel.fire(2), "not cancelled");
+		equal("[top 1, top 2, low]", calls.toString(), "every listener");
+	}
+
+	// a cancel stops every listener after it, even of the same priority
+	private static void cancel() {
+		IntEventChannel channel = new IntEventChannel();
+		List<String> calls = new ArrayList<>();
+		channel.register(v -> calls.add("normal 1") && v == 1, Priority.NORMAL);
+		channel.register(v -> !calls.add("normal 2"), Priority.NORMAL);
+		channel.register(v -> !calls.add("high"), Priority.HIGH);
+		check(channel.fire(1), "cancelled");
+		equal("[normal 1]", calls.toString(), "nothing after the cancel");
+	}
+
+	// an exception goes to the exception handler and doesn't stop or cancel the fire, the logging one is rate limited
+	private static void exceptions() {
+		IntEventChannel channel = new IntEventChannel();
+		check(channel.exceptionHandler() instanceof LoggingExceptionHandler, "logged by default");
+		LongList handled = new LongArrayList();
+		channel.setExceptionHandler((id, listener, event, throwable) -> !handled.add(id));
+		int[] calls = new int[1];
+		int thrower = channel.register(v -> {
+			throw new IllegalStateException();
+		}, Priority.NORMAL);
+		channel.register(v -> ++calls[0] < 0, Priority.NORMAL);
+		check(!channel.fire(1), "not cancelled by the exception");
+		equal(1, calls[0], "the next listener was called");
+		equal("[" + thrower + "]", handled.toString(), "the id of the listener that threw");
+
+		LoggingExceptionHandler logging = new LoggingExceptionHandler();
+		channel.setExceptionHandler(logging);
+		for (int i = 0; i < 100; i++)
+			channel.fire(1);
+		equal(100L, logging.getExceptions(), "every exception was handled");
+		check(logging.getSuppressed() >= 90, "but only 10 per second logged");
+
+		channel.setExceptionHandler(new CircuitBreaker(logging, 2));
+		channel.fire(1);
+		channel.fire(1);
+		equal(1, channel.size(), "unregistered once the breaker tripped");
+		channel.fire(1);
+		equal(102L, logging.getExceptions(), "not called after it was unregistered");
+	}
+
+	// every channel passes it's values as they were fired
+	private static void values() {
+		List<String> calls = new ArrayList<>();
+		IntEventChannel ints = new IntEventChannel();
+		ints.register(v -> !calls.add("int " + v), Priority.NORMAL);
+		LongEventChannel longs = new LongEventChannel();
+		longs.register(v -> !calls.add("long " + v), Priority.NORMAL);
+		IntLongEventChannel both = new IntLongEventChannel();
+		both.register((a, b) -> !calls.add("int " + a + " long " + b), Priority.NORMAL);
+		ints.fire(-7);
+		longs.fire(Long.MIN_VALUE);
+		both.fire(Integer.MAX_VALUE, -1L << 40);
+		equal("[int -7, long " + Long.MIN_VALUE + ", int " + Integer.MAX_VALUE + " long " + (-1L << 40) + "]", calls.toString(), "the values");
+	}
+
+	// the ids of the registered listeners are unique, unregistered ones are given out again
+	private static void ids() {
+		LongEventChannel channel = new LongEventChannel();
+		IntSet live = new IntOpenHashSet();
+		int[] kept = new int[10];
+		for (int i = 0; i < kept.length; i++)
+			live.add(kept[i] = channel.register(v -> false, Priority.values()[i % 7]));
+		equal(10, live.size(), "unique ids");
+		for (int i = 0; i < 100_000; i++) {
+			int id = channel.register(v -> false, Priority.NORMAL);
+			check(!live.contains(id), "the id of a registered listener was given out again");
+			check(channel.unregister(id), "registered");
+		}
+		check(channel.unregister(kept[3]), "unregistered");
+		check(!channel.unregister(kept[3]), "only once");
+		int reused = channel.register(v -> false, Priority.values()[3]);
+		equal(kept[3], reused, "the freed id with the same priority");
+		equal(10, channel.size(), "the listeners");
+	}
+}
@@ -0,0 +1,72 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import examples.basic.HandlerContract;
+import io.github.microevents.ConcurrentMicroEventHandler;
+import io.github.microevents.events.Priority;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.HandlerContract.id;
+
+/**
+ * checks the copy on write handler, and that invokes never see a half registered or removed listener
+ */
+public class ConcurrentHandlerTest {
+	public static void main(String[] args) throws InterruptedException {
+		HandlerContract.verify(ConcurrentMicroEventHandler::new);
+		concurrentRegistration();
+		System.out.println("concurrent handler ok");
+	}
+
+	// the writer keeps a window of listeners, adding at the end and removing from the start, so every invoke must see a
+	// contiguous run of them in registration order
+	private static void concurrentRegistration() throws InterruptedException {
+		ConcurrentMicroEventHandler<BasicEvent> handler = new ConcurrentMicroEventHandler<>();
+		ThreadLocal<IntArrayList> seen = ThreadLocal.withInitial(IntArrayList::new);
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread writer = new Thread(() -> {
+			for (int slot = 0; slot < 20_000; slot++) {
+				int number = slot;
+				handler.register(id(slot % 4096, Priority.NORMAL, false), e -> seen.get().add(number), Priority.NORMAL);
+				if (slot >= 100) handler.remove(id((slot - 100) % 4096, Priority.NORMAL, false));
+				if (slot % 1000 == 999) { // the oldest 10 at once
+					int[] ids = new int[10];
+					for (int i = 0; i < 10; i++)
+						ids[i] = id((slot - 99 + i) % 4096, Priority.NORMAL, false);
+					handler.removeAll(ids, 10);
+				}
+			}
+			running.set(false);
+		});
+		Thread[] readers = new Thread[3];
+		int[] invokes = new int[readers.length];
+		for (int r = 0; r < readers.length; r++) {
+			int reader = r;
+			readers[r] = new Thread(() -> {
+				try {
+					IntArrayList calls = seen.get();
+					while (running.get()) {
+						calls.clear();
+						handler.invoke(new BasicEvent("a"), false);
+						for (int i = 1; i < calls.size(); i++)
+							if (calls.getInt(i) != calls.getInt(i - 1) + 1) throw new IllegalStateException("saw " + calls);
+						invokes[reader]++;
+					}
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+			});
+			readers[r].start();
+		}
+		writer.start();
+		writer.join();
+		for (Thread reader : readers)
+			reader.join();
+		if (failure.get() != null) throw new AssertionError("an invoke saw an inconsistent snapshot", failure.get());
+		check(invokes[0] > 0, "the readers never invoked");
+	}
+}
@@ -0,0 +1,139 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import examples.basic.SubBasicEvent;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.EventManager;
+import io.github.microevents.events.Priority;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static examples.basic.Assertions.*;
+
+/**
+ * checks the order listeners are called in, cancellation, and sub listeners
+ */
+public class DispatchTest {
+	public static void main(String[] args) {
+		priorities();
+		cancellation();
+		subEvents();
+		unregister();
+		staleIds();
+		allocationFree();
+		System.out.println("dispatch ok");
+	}
+
+	// listeners are called by priority, and in the order they were registered within one
+	private static void priorities() {
+		EventManager manager = new MicroEventManager();
+		manager.registerEvent(BasicEvent.class);
+		List<String> calls = new ArrayList<>();
+		manager.registerListener(BasicEvent.class, e -> calls.add("final"), Priority.FINAL, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("normal 1"), Priority.NORMAL, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("lowest"), Priority.LOWEST, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("normal 2"), Priority.NORMAL, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("top"), Priority.TOP, false);
+		manager.invoke(new BasicEvent("a"));
+		equal(Arrays.asList("top", "lowest", "normal 1", "normal 2", "final"), calls, "call order");
+	}
+
+	// a cancel in TOP is ignored until TOP is done, after that the next listeners are skipped
+	private static void cancellation() {
+		EventManager manager = new MicroEventManager();
+		manager.registerEvent(BasicEvent.class);
+		List<String> calls = new ArrayList<>();
+		manager.registerListener(BasicEvent.class, e -> { calls.add("top 1"); e.cancel(true); }, Priority.TOP, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("top 2"), Priority.TOP, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("normal"), Priority.NORMAL, false);
+		manager.invoke(new BasicEvent("a"));
+		equal(Arrays.asList("top 1", "top 2"), calls, "calls of an event cancelled in TOP");
+
+		manager = new MicroEventManager();
+		manager.registerEvent(BasicEvent.class);
+		calls.clear();
+		manager.registerListener(BasicEvent.class, e -> calls.add("top"), Priority.TOP, false);
+		manager.registerListener(BasicEvent.class, e -> { calls.add("low"); e.cancel(true); }, Priority.LOW, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("normal"), Priority.NORMAL, false);
+		manager.invoke(new BasicEvent("a"));
+		equal(Arrays.asList("top", "low"), calls, "calls of an event cancelled in LOW");
+	}
+
+	// sub listeners get the events of sub classes, and of the classes implementing an interface
+	private static void subEvents() {
+		EventManager manager = new MicroEventManager();
+		manager.registerEvent(BasicEvent.class);
+		manager.registerEvent(SubBasicEvent.class);
+		manager.registerEvent(Event.class);
+		List<String> calls = new ArrayList<>();
+		manager.registerListener(BasicEvent.class, e -> calls.add("exact " + e.getValue()), Priority.NORMAL, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("sub " + e.getValue()), Priority.NORMAL, true);
+		manager.registerListener(Event.class, e -> calls.add("any"), Priority.FINAL, true);
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new SubBasicEvent());
+		equal(Arrays.asList("exact a", "sub a", "any", "sub I'm a sub class!", "any"), calls, "sub listener calls");
+	}
+
+	private static void unregister() {
+		EventManager manager = new MicroEventManager();
+		manager.registerEvent(BasicEvent.class);
+		manager.registerEvent(SubBasicEvent.class);
+		int[] calls = new int[2];
+		long first = manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.NORMAL, true);
+		manager.registerListener(BasicEvent.class, e -> calls[1]++, Priority.NORMAL, true);
+		manager.invoke(new SubBasicEvent());
+		manager.unregister(first);
+		manager.invoke(new SubBasicEvent());
+		manager.invoke(new BasicEvent("a"));
+		equal(1, calls[0], "calls of the unregistered listener");
+		equal(3, calls[1], "calls of the other listener");
+	}
+
+	// an id that was unregistered, or cut to an int, never removes the listener that got it's slot
+	private static void staleIds() {
+		EventManager manager = new MicroEventManager();
+		manager.registerEvent(SubBasicEvent.class);
+		manager.registerEvent(BasicEvent.class);
+		int[] calls = new int[2];
+		long old = manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.NORMAL, false);
+		manager.unregister(old);
+		long reused = manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.NORMAL, false);
+		equal((int) old, (int) reused, "the slot was reused");
+		check(old != reused, "with a new generation");
+		manager.unregister(old);
+		manager.unregister((int) reused);
+		manager.invoke(new BasicEvent("a"));
+		equal(1, calls[0], "the stale ids didn't remove the listener");
+
+		long other = manager.registerListener(BasicEvent.class, e -> calls[1]++, Priority.NORMAL, false);
+		manager.unregister(reused);
+		manager.invoke(new BasicEvent("a"));
+		equal(1, calls[0], "removed by it's own id");
+		equal(1, calls[1], "the other listener is still called");
+		manager.unregister(other);
+		manager.invoke(new BasicEvent("a"));
+		equal(1, calls[1], "and can be removed");
+	}
+
+	// once the class was invoked, invoking it doesn't allocate
+	private static void allocationFree() {
+		EventManager manager = new MicroEventManager();
+		manager.registerEvent(BasicEvent.class);
+		manager.registerEvent(SubBasicEvent.class);
+		int[] calls = new int[1];
+		for (Priority priority : Priority.values())
+			manager.registerListener(BasicEvent.class, e -> calls[0]++, priority, true);
+		BasicEvent event = new SubBasicEvent();
+		for (int i = 0; i < 100_000; i++)
+			manager.invoke(event);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		for (int i = 0; i < 100_000; i++)
+			manager.invoke(event);
+		long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+		check(allocated < 1024, "100000 invokes allocated " + allocated + " bytes");
+	}
+}
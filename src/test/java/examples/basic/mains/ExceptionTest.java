@@ -0,0 +1,108 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import io.github.microevents.CircuitBreaker;
+import io.github.microevents.ExceptionHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Listener;
+import io.github.microevents.events.Priority;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks that the exceptions of the listeners go to the exception handler, and that the circuit breaker trips and
+ * forgets the listeners that were unregistered
+ */
+public class ExceptionTest {
+	public static void main(String[] args) {
+		handled();
+		breaker();
+		reused();
+		System.out.println("exceptions ok");
+	}
+
+	// the exceptions don't stop the invoke, the handler hears of every listener that's unregistered
+	private static void handled() {
+		Recording recording = new Recording();
+		MicroEventManager manager = manager(BasicEvent.class);
+		manager.setExceptionHandler(recording);
+		int[] calls = new int[1];
+		long thrower = manager.registerListener(BasicEvent.class, e -> {
+			throw new IllegalStateException(e.getValue());
+		}, Priority.LOW, false);
+		long other = manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.HIGH, false);
+		manager.invoke(new BasicEvent("a"));
+		equal(1, calls[0], "the next listener still got the event");
+		equal(LongArrayList.wrap(new long[]{thrower}), recording.handled, "the listener that threw");
+
+		manager.unregister(thrower);
+		manager.unregisterAll(LongArrayList.wrap(new long[]{other, thrower}));
+		equal(LongArrayList.wrap(new long[]{thrower, other}), recording.unregistered, "once for each listener that was registered");
+	}
+
+	// the breaker unregisters the listener after the max exceptions, and tells the handler it wraps
+	private static void breaker() {
+		Recording recording = new Recording();
+		CircuitBreaker breaker = new CircuitBreaker(recording, 3);
+		MicroEventManager manager = manager(BasicEvent.class);
+		manager.setExceptionHandler(breaker);
+		int[] calls = new int[1];
+		long id = manager.registerListener(BasicEvent.class, e -> {
+			calls[0]++;
+			throw new IllegalStateException();
+		}, Priority.NORMAL, false);
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new BasicEvent("a"));
+		equal(2, breaker.getFailures(id), "the failures");
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new BasicEvent("a"));
+		equal(3, calls[0], "tripped after 3 exceptions");
+		equal(3, recording.handled.size(), "every exception was passed on");
+
+		manager.registerListener(BasicEvent.class, e -> {}, Priority.NORMAL, false); // sweeps the tripped listener
+		equal(LongArrayList.wrap(new long[]{id}), recording.unregistered, "the tripped listener was unregistered");
+		equal(0, breaker.getFailures(id), "and forgotten");
+	}
+
+	// a listener that gets the id of an unregistered one starts without it's failures
+	private static void reused() {
+		CircuitBreaker breaker = new CircuitBreaker((id, listener, event, throwable) -> false, 2);
+		MicroEventManager manager = manager(BasicEvent.class);
+		manager.setExceptionHandler(breaker);
+		int[] calls = new int[1];
+		Listener<BasicEvent> thrower = e -> {
+			calls[0]++;
+			throw new IllegalStateException();
+		};
+		long first = manager.registerListener(BasicEvent.class, thrower, Priority.NORMAL, false);
+		manager.invoke(new BasicEvent("a"));
+		manager.unregister(first);
+		equal(0, breaker.getFailures(first), "forgotten once unregistered");
+
+		long second = manager.registerListener(BasicEvent.class, thrower, Priority.NORMAL, false);
+		equal((int) first, (int) second, "the slot was reused");
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new BasicEvent("a"));
+		equal(3, calls[0], "not tripped by the failure of the first listener");
+		equal(0, breaker.getFailures(second), "tripped by it's own");
+	}
+
+	private static final class Recording implements ExceptionHandler {
+		final LongList handled = new LongArrayList(), unregistered = new LongArrayList();
+
+		@Override
+		public boolean handle(long listenerID, Listener<?> listener, Event event, Throwable throwable) {
+			handled.add(listenerID);
+			return false;
+		}
+
+		@Override
+		public void unregistered(long listenerID) {
+			unregistered.add(listenerID);
+		}
+	}
+}
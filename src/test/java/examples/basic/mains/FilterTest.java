@@ -0,0 +1,264 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import examples.basic.HandlerContract;
+import io.github.microevents.FilteringEventHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventListener;
+import io.github.microevents.events.FilteredListener;
+import io.github.microevents.events.Listener;
+import io.github.microevents.events.Priority;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.HandlerContract.id;
+
+/**
+ * checks that the filtered listeners only get the events of their key, in the filtering handler's index and in the
+ * plain handlers, registered by hand and from annotations
+ */
+public class FilterTest {
+	private static final Function<Entity, Object> ID = Entity::id;
+	private static final Function<Entity, Object> WORLD = e -> e.world;
+
+	public static void main(String[] args) {
+		HandlerContract.verify(FilteringEventHandler::new);
+		indexed();
+		cancelled();
+		removed();
+		manager(MicroEventManager::new);
+		manager(() -> new MicroEventManager(FilteringEventHandler::new));
+		annotated(new Listening(7));
+		annotated(new Reflected(7));
+		annotated(new World());
+		shared();
+		System.out.println("filter ok");
+	}
+
+	// within a priority the unfiltered listeners run first, then the ones of each property whose key matches
+	private static void indexed() {
+		FilteringEventHandler<Entity> handler = new FilteringEventHandler<>();
+		List<String> calls = new ArrayList<>();
+		handler.register(id(0, Priority.NORMAL, false), new FilteredListener<>(ID, 1L, adds(calls, "id 1")), Priority.NORMAL);
+		handler.register(id(1, Priority.NORMAL, false), new FilteredListener<>(ID, 2L, adds(calls, "id 2")), Priority.NORMAL);
+		handler.register(id(2, Priority.LOW, false), new FilteredListener<>(WORLD, "nether", adds(calls, "nether")), Priority.LOW);
+		handler.register(id(3, Priority.NORMAL, false), adds(calls, "every"), Priority.NORMAL);
+		handler.register(id(4, Priority.HIGH, false), new FilteredListener<>(ID, 1L, adds(calls, "id 1 high")), Priority.HIGH);
+
+		handler.invoke(new Entity(1, "nether"), false);
+		equal("[nether, every, id 1, id 1 high]", calls.toString(), "the listeners of both keys");
+		calls.clear();
+		handler.invoke(new Entity(2, "end"), false);
+		equal("[every, id 2]", calls.toString(), "another id in another world");
+		calls.clear();
+		handler.invoke(new Entity(3, "end"), false);
+		equal("[every]", calls.toString(), "no key matches");
+
+		calls.clear();
+		handler.invokeAll(new Entity[]{new Entity(1, "end"), new Entity(2, "nether")}, false);
+		equal("[every, id 1, id 1 high, nether, every, id 2]", calls.toString(), "a batch is invoked event by event");
+	}
+
+	// a filtered listener's cancel stops the priorities after it, TOP listeners don't obey it
+	private static void cancelled() {
+		FilteringEventHandler<Entity> handler = new FilteringEventHandler<>();
+		List<String> calls = new ArrayList<>();
+		handler.register(id(0, Priority.TOP, false), new FilteredListener<>(ID, 1L, (Listener<Entity>) e -> {
+			calls.add("top 1");
+			e.cancel(true);
+		}), Priority.TOP);
+		handler.register(id(1, Priority.TOP, false), new FilteredListener<>(WORLD, "end", adds(calls, "top end")), Priority.TOP);
+		handler.register(id(2, Priority.NORMAL, false), adds(calls, "normal"), Priority.NORMAL);
+		handler.invoke(new Entity(1, "end"), false);
+		equal("[top 1, top end]", calls.toString(), "the TOP listeners after the cancel");
+		calls.clear();
+		handler.invoke(new Entity(2, "end"), false);
+		equal("[top end, normal]", calls.toString(), "not cancelled");
+	}
+
+	// the buckets and properties are dropped once they're empty
+	private static void removed() {
+		Inspected handler = new Inspected();
+		List<String> calls = new ArrayList<>();
+		handler.register(id(0, Priority.NORMAL, false), new FilteredListener<>(ID, 1L, adds(calls, "id 1")), Priority.NORMAL);
+		handler.register(id(1, Priority.NORMAL, false), new FilteredListener<>(ID, 2L, adds(calls, "id 2")), Priority.NORMAL);
+		handler.register(id(2, Priority.NORMAL, false), new FilteredListener<>(WORLD, "end", adds(calls, "end")), Priority.NORMAL);
+		equal(2, handler.properties(), "two properties");
+		handler.remove(id(2, Priority.NORMAL, false));
+		equal(1, handler.properties(), "the world property is gone");
+		handler.removeAll(new int[]{id(0, Priority.NORMAL, false), id(1, Priority.NORMAL, false)}, 2);
+		equal(0, handler.properties(), "every property is gone");
+		handler.invoke(new Entity(1, "end"), false);
+		equal("[]", calls.toString(), "no listeners left");
+	}
+
+	// the manager wraps the listeners, indexed by the filtering handler and checked by the plain one
+	private static void manager(Supplier<MicroEventManager> managers) {
+		MicroEventManager manager = managers.get();
+		manager.registerEvent(Entity.class);
+		List<String> calls = new ArrayList<>();
+		long id = manager.registerListener(Entity.class, ID, 1L, adds(calls, "id 1"), Priority.NORMAL, false, false);
+		manager.registerListener(Entity.class, WORLD, "end", adds(calls, "end"), Priority.LOW, false, false);
+		manager.invoke(new Entity(1, "end"));
+		manager.invoke(new Entity(2, "nether"));
+		manager.unregister(id);
+		manager.invoke(new Entity(1, "end"));
+		equal("[end, id 1, end]", calls.toString(), "the filtered listeners");
+	}
+
+	// the filters of annotated methods, generated and by reflection
+	private static void annotated(Object listening) {
+		MicroEventManager manager = new MicroEventManager();
+		manager.registerEvent(Entity.class);
+		manager.registerEventListeners(listening);
+		for (int id = 5; id < 10; id++)
+			manager.invoke(new Entity(id, id == 7 ? "end" : "nether"));
+		equal("[7]", listening.toString(), "only the listener's key");
+	}
+
+	// the generated filters and the ones by reflection use the same property, so they share one index
+	private static void shared() {
+		MicroEventManager manager = new MicroEventManager();
+		Inspected handler = new Inspected();
+		manager.registerEvent(Entity.class, handler);
+		Listening first = new Listening(1), second = new Listening(2);
+		ReflectedID reflected = new ReflectedID(2);
+		manager.registerEventListeners(first);
+		manager.registerEventListeners(second);
+		manager.registerEventListeners(reflected);
+		equal(1, handler.properties(), "one property for every filter of the method");
+		manager.invoke(new Entity(1, "end"));
+		manager.invoke(new Entity(2, "end"));
+		equal("[1]", first.toString(), "the first key");
+		equal("[2]", second.toString(), "the second key");
+		equal("[2]", reflected.toString(), "the key of the reflected listener");
+	}
+
+	private static Listener<Entity> adds(List<String> calls, String name) {
+		return e -> calls.add(name);
+	}
+
+	// exposes the index of the handler
+	private static final class Inspected extends FilteringEventHandler<Entity> {
+		int properties() {
+			return index.size();
+		}
+	}
+
+	public static class Entity extends BasicEvent {
+		private final long id;
+		final String world;
+
+		Entity(long id, String world) {
+			super("entity");
+			this.id = id;
+			this.world = world;
+		}
+
+		public long id() {
+			return id;
+		}
+
+		// private so the processor leaves the listeners filtering by it to reflection
+		private long secret() {
+			return id;
+		}
+
+		private String world() {
+			return world;
+		}
+	}
+
+	public static class Listening {
+		private final List<Long> ids = new ArrayList<>();
+		private final long id;
+
+		Listening(long id) {
+			this.id = id;
+		}
+
+		public long id() {
+			return id;
+		}
+
+		@EventListener(filter = "id")
+		public final void onEntity(Entity event) {
+			ids.add(event.id());
+		}
+
+		@Override
+		public String toString() {
+			return ids.toString();
+		}
+	}
+
+	// a reference property by reflection
+	public static class World {
+		private final List<Long> ids = new ArrayList<>();
+
+		private String world() {
+			return "end";
+		}
+
+		@EventListener(filter = "world")
+		public final void onEntity(Entity event) {
+			ids.add(event.id());
+		}
+
+		@Override
+		public String toString() {
+			return ids.toString();
+		}
+	}
+
+	// registered by reflection, through the private getters of the event and the listener
+	public static class Reflected {
+		private final List<Long> ids = new ArrayList<>();
+		private final long secret;
+
+		Reflected(long secret) {
+			this.secret = secret;
+		}
+
+		private long secret() {
+			return secret;
+		}
+
+		@EventListener(filter = "secret")
+		public final void onEntity(Entity event) {
+			ids.add(event.id());
+		}
+
+		@Override
+		public String toString() {
+			return ids.toString();
+		}
+	}
+
+	// the same filter as Listening, but the private method leaves it to reflection
+	public static class ReflectedID {
+		private final List<Long> ids = new ArrayList<>();
+		private final long id;
+
+		ReflectedID(long id) {
+			this.id = id;
+		}
+
+		public long id() {
+			return id;
+		}
+
+		@EventListener(filter = "id")
+		private final void onEntity(Entity event) {
+			ids.add(event.id());
+		}
+
+		@Override
+		public String toString() {
+			return ids.toString();
+		}
+	}
+}
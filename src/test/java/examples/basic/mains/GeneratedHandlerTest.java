@@ -0,0 +1,133 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import examples.basic.HandlerContract;
+import io.github.microevents.CircuitBreaker;
+import io.github.microevents.GeneratedEventHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.Priority;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.util.ArrayList;
+import java.util.List;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks the generated handler, with the guards the generated classes inline and the loop it falls back to
+ */
+public class GeneratedHandlerTest {
+	public static void main(String[] args) {
+		HandlerContract.verify(GeneratedEventHandler::new);
+		exceptions();
+		circuitBreaker();
+		directCalls();
+		fallback();
+		rewrapped();
+		System.out.println("generated handler ok");
+	}
+
+	// an exception goes to the manager's handler and the listeners after it are still called
+	private static void exceptions() {
+		MicroEventManager manager = manager(GeneratedEventHandler::new, BasicEvent.class);
+		List<String> calls = new ArrayList<>();
+		List<Long> failed = new ArrayList<>();
+		manager.setExceptionHandler((id, listener, event, throwable) -> {
+			failed.add(id);
+			check(throwable instanceof IllegalStateException, "the listener's exception is passed on, was " + throwable);
+			return false;
+		});
+		manager.registerListener(BasicEvent.class, e -> calls.add("first"), Priority.LOW, false);
+		long thrower = manager.registerListener(BasicEvent.class, e -> {
+			throw new IllegalStateException("thrown");
+		}, Priority.NORMAL, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("last"), Priority.HIGH, false);
+
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new BasicEvent("b"));
+		equal("[first, last, first, last]", calls.toString(), "the listeners around the one that threw");
+		equal("[" + thrower + ", " + thrower + "]", failed.toString(), "every exception is handled");
+	}
+
+	// a tripped listener isn't called anymore, before and after the manager unregisters it
+	private static void circuitBreaker() {
+		MicroEventManager manager = manager(GeneratedEventHandler::new, BasicEvent.class);
+		manager.setExceptionHandler(new CircuitBreaker((id, listener, event, throwable) -> false, 2));
+		int[] thrown = new int[1], after = new int[1];
+		manager.registerListener(BasicEvent.class, e -> {
+			thrown[0]++;
+			throw new IllegalStateException("thrown");
+		}, Priority.NORMAL, false);
+		manager.registerListener(BasicEvent.class, e -> after[0]++, Priority.HIGH, false);
+
+		for (int i = 0; i < 5; i++)
+			manager.invoke(new BasicEvent("a"));
+		equal(2, thrown[0], "the listener is skipped once it's tripped");
+		equal(5, after[0], "the other listener is still called");
+		manager.registerListener(BasicEvent.class, e -> {}, Priority.LOW, false); // sweeps the tripped listener
+		manager.invoke(new BasicEvent("a"));
+		equal(2, thrown[0], "the listener stays unregistered");
+		equal(6, after[0], "the other listener is still called");
+	}
+
+	// the listener is called from the generated class, not through the guard's accept
+	private static void directCalls() {
+		MicroEventManager manager = manager(GeneratedEventHandler::new, BasicEvent.class);
+		StackTraceElement[][] stack = new StackTraceElement[1][];
+		manager.registerListener(BasicEvent.class, e -> stack[0] = new Throwable().getStackTrace(), Priority.NORMAL, false);
+		manager.invoke(new BasicEvent("a"));
+		// the lambda's frame, then the one that called it
+		check(stack[0][1].getClassName().startsWith("io.github.microevents.generated.Dispatcher$"), "the listener is called by the generated dispatcher, was " + stack[0][1]);
+	}
+
+	// past MAX_GENERATED the loop is used, with the same guards, and removing them all at once goes back to generating
+	private static void fallback() {
+		MicroEventManager manager = manager(GeneratedEventHandler::new, BasicEvent.class);
+		int count = GeneratedEventHandler.MAX_GENERATED + 10;
+		int[] calls = new int[1], failures = new int[1];
+		manager.setExceptionHandler((id, listener, event, throwable) -> {
+			failures[0]++;
+			return false;
+		});
+		LongArrayList ids = new LongArrayList();
+		for (int i = 0; i < count; i++)
+			ids.add(manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.NORMAL, false));
+		manager.registerListener(BasicEvent.class, e -> {
+			throw new IllegalStateException("thrown");
+		}, Priority.HIGH, false);
+		manager.invoke(new BasicEvent("a"));
+		equal(count, calls[0], "every listener is called by the loop");
+		equal(1, failures[0], "the loop guards the listeners");
+
+		manager.unregisterAll(ids);
+		calls[0] = 0;
+		manager.invoke(new BasicEvent("a"));
+		equal(0, calls[0], "the listeners were removed");
+		equal(2, failures[0], "the one left is still called");
+	}
+
+	// enabling the metrics swaps every listener of a handler at once, one class to remove them and one to add them back
+	private static void rewrapped() {
+		MicroEventManager manager = manager(GeneratedEventHandler::new, BasicEvent.class);
+		String[] dispatcher = new String[1];
+		for (int i = 0; i < 10; i++)
+			manager.registerListener(BasicEvent.class, e -> {}, Priority.NORMAL, false);
+		manager.registerListener(BasicEvent.class, e -> {
+			for (StackTraceElement frame : new Throwable().getStackTrace())
+				if (frame.getClassName().startsWith("io.github.microevents.generated.Dispatcher$")) dispatcher[0] = frame.getClassName();
+		}, Priority.HIGH, false);
+		manager.invoke(new BasicEvent("a"));
+		int before = generated(dispatcher[0]);
+		manager.enableMetrics();
+		manager.invoke(new BasicEvent("a"));
+		equal(before + 2, generated(dispatcher[0]), "the classes defined for the swap");
+		manager.disableMetrics();
+		manager.invoke(new BasicEvent("a"));
+		equal(before + 4, generated(dispatcher[0]), "and for swapping back");
+	}
+
+	// the number of the generated class, they're numbered in the order they're defined
+	private static int generated(String name) {
+		return Integer.parseInt(name.substring(name.lastIndexOf('$') + 1));
+	}
+}
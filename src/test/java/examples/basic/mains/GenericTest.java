@@ -0,0 +1,128 @@
+package examples.basic.mains;
+
+import examples.basic.CountingHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventListener;
+import io.github.microevents.events.GenericEvent;
+import io.github.microevents.events.Priority;
+import java.util.ArrayList;
+import java.util.List;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks the dispatch of generic events by their type argument
+ */
+public class GenericTest {
+	public static void main(String[] args) {
+		types();
+		batches();
+		handlerKind();
+		annotated(new Listening());
+		annotated(new Reflected());
+		System.out.println("generic ok");
+	}
+
+	// a listener with a generic type gets the events of that type and it's sub types, the ones without get every event
+	private static void types() {
+		MicroEventManager manager = manager(ValueEvent.class);
+		List<String> calls = new ArrayList<>();
+		manager.registerListener(ValueEvent.class, Number.class, e -> calls.add("number " + e.value), Priority.NORMAL, false, false);
+		manager.registerListener(ValueEvent.class, Integer.class, e -> calls.add("integer " + e.value), Priority.HIGH, false, false);
+		manager.registerListener(ValueEvent.class, e -> calls.add("any " + e.value), Priority.LOW, false);
+
+		manager.invoke(new ValueEvent<>(Integer.class, 1));
+		equal("[any 1, number 1, integer 1]", calls.toString(), "an integer");
+		calls.clear();
+		manager.invoke(new ValueEvent<>(Long.class, 2L));
+		equal("[any 2, number 2]", calls.toString(), "a long");
+		calls.clear();
+		manager.invoke(new ValueEvent<>(String.class, "s"));
+		equal("[any s]", calls.toString(), "a string");
+		calls.clear();
+		manager.invoke(new ValueEvent<>(null, null));
+		equal("[any null]", calls.toString(), "no generic type");
+
+		calls.clear();
+		manager.registerListener(ValueEvent.class, Long.class, e -> calls.add("long " + e.value), Priority.HIGH, false, false);
+		manager.invoke(new ValueEvent<>(Long.class, 3L));
+		equal("[any 3, number 3, long 3]", calls.toString(), "a listener registered after the type was resolved");
+	}
+
+	// a batch with mixed generic types is invoked event by event
+	private static void batches() {
+		MicroEventManager manager = manager(ValueEvent.class);
+		List<String> calls = new ArrayList<>();
+		manager.registerListener(ValueEvent.class, Integer.class, e -> calls.add("integer " + e.value), Priority.NORMAL, false, false);
+		manager.invokeAll(ValueEvent.class, new ValueEvent[]{new ValueEvent<>(Integer.class, 1), new ValueEvent<>(String.class, "s"), new ValueEvent<>(Integer.class, 2)});
+		equal("[integer 1, integer 2]", calls.toString(), "the mixed batch");
+	}
+
+	// the handlers of the generic types are of the kind the event was registered with
+	private static void handlerKind() {
+		MicroEventManager manager = new MicroEventManager();
+		CountingHandler<ValueEvent> handler = new CountingHandler<>();
+		manager.registerEvent(ValueEvent.class, handler);
+		List<String> calls = new ArrayList<>();
+		manager.registerListener(ValueEvent.class, Integer.class, e -> calls.add("integer " + e.value), Priority.NORMAL, false, false);
+		manager.invoke(new ValueEvent<>(Integer.class, 1));
+		manager.invoke(new ValueEvent<>(String.class, "s"));
+		manager.invoke(new ValueEvent<>(null, null));
+		equal(3, handler.invokes(), "every generic type went through a handler of the registered kind");
+		equal("[integer 1]", calls.toString(), "the listener of the type");
+	}
+
+	// the generic type of an annotated method's parameter, generated and by reflection
+	private static void annotated(Object listening) {
+		MicroEventManager manager = manager(ValueEvent.class);
+		manager.registerEventListeners(listening);
+		manager.invoke(new ValueEvent<>(Integer.class, 1));
+		manager.invoke(new ValueEvent<>(String.class, "s"));
+		equal("[1]", listening.toString(), "only the integer");
+	}
+
+	public static class ValueEvent<T> implements GenericEvent<T> {
+		private final Class<? extends T> type;
+		final T value;
+
+		public ValueEvent(Class<? extends T> type, T value) {
+			this.type = type;
+			this.value = value;
+		}
+
+		@Override
+		public Class<? extends T> getGenericType() {
+			return type;
+		}
+	}
+
+	public static class Listening {
+		private final List<Object> values = new ArrayList<>();
+
+		@EventListener
+		public final void onInteger(ValueEvent<Integer> event) {
+			values.add(event.value);
+		}
+
+		@Override
+		public String toString() {
+			return values.toString();
+		}
+	}
+
+	// registered by reflection, the processor skips private classes
+	private static class Reflected {
+		private final List<Object> values = new ArrayList<>();
+
+		@EventListener
+		public final void onInteger(ValueEvent<? extends Integer> event) {
+			values.add(event.value);
+		}
+
+		@Override
+		public String toString() {
+			return values.toString();
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventListener;
+import io.github.microevents.events.ListenerGroup;
+import io.github.microevents.events.Priority;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks that listener groups unregister their listeners once, by hand or when their weakly registered object is
+ * collected, and that the manager forgets the groups that were closed
+ */
+public class GroupTest {
+	public static void main(String[] args) throws Exception {
+		closed();
+		added();
+		collected();
+		forgotten();
+		System.out.println("groups ok");
+	}
+
+	// closing unregisters every listener of the group, only the first time
+	private static void closed() {
+		MicroEventManager manager = manager(BasicEvent.class);
+		Listening listening = new Listening();
+		ListenerGroup group = manager.registerEventListeners(listening);
+		equal(2, group.size(), "both methods");
+		manager.invoke(new BasicEvent("a"));
+		equal(2, listening.calls, "both listeners");
+
+		group.close();
+		check(group.isClosed(), "closed");
+		manager.invoke(new BasicEvent("a"));
+		equal(2, listening.calls, "unregistered");
+
+		long id = manager.registerListener(BasicEvent.class, e -> listening.calls += 100, Priority.NORMAL, false);
+		check(!group.ids().contains(id), "a new id");
+		check(slot(group.getLong(0)) == slot(id) || slot(group.getLong(1)) == slot(id), "for the slot of a listener in the group");
+		group.close();
+		manager.invoke(new BasicEvent("a"));
+		equal(102, listening.calls, "closing again doesn't unregister the new listener");
+		try {
+			group.ids().add(1);
+			throw new AssertionError("the ids were changed");
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
+
+	// ids added to a group are unregistered with it
+	private static void added() {
+		MicroEventManager manager = manager(BasicEvent.class);
+		int[] calls = new int[1];
+		ListenerGroup group = manager.registerStaticEventListeners(GroupTest.class);
+		equal(0, group.size(), "no static listeners");
+		for (int i = 0; i < 3; i++)
+			group.add(manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.NORMAL, false));
+		equal(3, group.size(), "the added ids");
+		group.close();
+		manager.invoke(new BasicEvent("a"));
+		equal(0, calls[0], "the added listeners were unregistered");
+	}
+
+	// a weak group is closed once it's object is collected, the next time the manager registers or unregisters
+	private static void collected() throws Exception {
+		MicroEventManager manager = manager(BasicEvent.class);
+		ListenerGroup group = registerWeakly(manager);
+		for (int attempt = 0; attempt < 50 && !group.isClosed(); attempt++) {
+			System.gc();
+			Thread.sleep(20);
+			manager.unregisterAll(group.ids().subList(0, 0)); // sweeps
+		}
+		check(group.isClosed(), "closed once the object was collected");
+		equal(0, references(manager).size(), "the reference was dropped");
+	}
+
+	private static ListenerGroup registerWeakly(MicroEventManager manager) {
+		return manager.registerEventListeners(new Listening(), true);
+	}
+
+	// a weak group closed by hand is forgotten right away instead of when it's object is collected
+	private static void forgotten() throws Exception {
+		MicroEventManager manager = manager(BasicEvent.class);
+		List<Listening> kept = new ArrayList<>();
+		List<ListenerGroup> groups = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Listening listening = new Listening();
+			kept.add(listening);
+			groups.add(manager.registerEventListeners(listening, true));
+		}
+		equal(10, references(manager).size(), "a reference per weak group");
+		for (ListenerGroup group : groups)
+			group.close();
+		equal(0, references(manager).size(), "the closed groups were forgotten");
+		manager.invoke(new BasicEvent("a"));
+		for (Listening listening : kept)
+			equal(0, listening.calls, "unregistered");
+	}
+
+	// the id holder slot in the low bits of a listener id
+	private static int slot(long id) {
+		return (int) id >>> 3 & 0xFFF;
+	}
+
+	private static Collection<?> references(MicroEventManager manager) throws ReflectiveOperationException {
+		Field references = MicroEventManager.class.getDeclaredField("references");
+		references.setAccessible(true);
+		return (Collection<?>) references.get(manager);
+	}
+
+	public static class Listening {
+		int calls;
+
+		@EventListener
+		public final void first(BasicEvent event) {
+			calls++;
+		}
+
+		@EventListener(priority = Priority.HIGH)
+		public final void second(BasicEvent event) {
+			calls++;
+		}
+	}
+}
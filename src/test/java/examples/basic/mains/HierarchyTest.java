@@ -0,0 +1,119 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import examples.basic.CountingHandler;
+import examples.basic.SubBasicEvent;
+import io.github.microevents.MicroEventHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Priority;
+import java.util.ArrayList;
+import java.util.List;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks that the listeners of super classes and interfaces are flattened into the handlers of their sub classes
+ */
+public class HierarchyTest {
+	public static void main(String[] args) {
+		flattened();
+		interfaces();
+		lateEvents();
+		unregister();
+		handlerKinds();
+		System.out.println("hierarchy ok");
+	}
+
+	// the listeners of every level are called in one priority order, only the ones that listen to sub events get sub classes
+	private static void flattened() {
+		MicroEventManager manager = manager(BasicEvent.class, SubBasicEvent.class);
+		List<String> calls = new ArrayList<>();
+		manager.registerListener(BasicEvent.class, e -> calls.add("super high"), Priority.HIGH, true);
+		manager.registerListener(SubBasicEvent.class, e -> calls.add("sub normal"), Priority.NORMAL, false);
+		manager.registerListener(BasicEvent.class, e -> calls.add("super low"), Priority.LOW, true);
+		manager.registerListener(BasicEvent.class, e -> calls.add("exact"), Priority.LOWEST, false);
+
+		manager.invoke(new SubBasicEvent());
+		equal("[super low, sub normal, super high]", calls.toString(), "the sub class's listeners");
+		calls.clear();
+		manager.invoke(new BasicEvent("a"));
+		equal("[exact, super low, super high]", calls.toString(), "the super class's listeners");
+	}
+
+	// an interface registered as an event passes it's sub event listeners to every class implementing it
+	private static void interfaces() {
+		MicroEventManager manager = manager(BasicEvent.class, SubBasicEvent.class);
+		manager.registerEvent(Event.class);
+		manager.registerEvent(Named.class);
+		manager.registerEvent(NamedEvent.class);
+		List<String> calls = new ArrayList<>();
+		manager.registerListener(Named.class, e -> calls.add("named " + e.name()), Priority.NORMAL, true);
+		manager.registerListener(Event.class, e -> calls.add("event"), Priority.LOW, true);
+		manager.invoke(new NamedEvent());
+		manager.invoke(new BasicEvent("a"));
+		equal("[event, named a name, event]", calls.toString(), "the interface listeners");
+	}
+
+	// an event registered after the listeners of it's supers gets them too
+	private static void lateEvents() {
+		MicroEventManager manager = manager(BasicEvent.class);
+		int[] calls = new int[1];
+		manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.NORMAL, true);
+		manager.registerListener(BasicEvent.class, e -> calls[0] += 100, Priority.NORMAL, false);
+		manager.registerEvent(SubBasicEvent.class);
+		manager.invoke(new SubBasicEvent());
+		equal(1, calls[0], "the sub listener was added to the new handler");
+	}
+
+	// unregistering removes a listener from every handler it was flattened into
+	private static void unregister() {
+		MicroEventManager manager = manager(BasicEvent.class, SubBasicEvent.class);
+		int[] calls = new int[1];
+		long id = manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.NORMAL, true);
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new SubBasicEvent());
+		equal(2, calls[0], "called for both classes");
+		manager.unregister(id);
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new SubBasicEvent());
+		equal(2, calls[0], "removed from both handlers");
+	}
+
+	// a sub class that isn't registered gets a handler of the kind of it's nearest registered super's, or the default
+	private static void handlerKinds() {
+		MicroEventManager manager = new MicroEventManager();
+		CountingHandler<BasicEvent> handler = new CountingHandler<>();
+		manager.registerEvent(BasicEvent.class, handler);
+		List<String> calls = new ArrayList<>();
+		manager.registerListener(BasicEvent.class, e -> calls.add(e.getValue()), Priority.NORMAL, true);
+		manager.invoke(new Unregistered());
+		equal(1, handler.invokes(), "the unregistered sub class went through a handler of the super's kind");
+		manager.invoke(new BasicEvent("a"));
+		equal(2, handler.invokes(), "and the super through it's own");
+		equal("[unregistered, a]", calls.toString(), "the listeners were called");
+
+		manager.registerEvent(Named.class, new MicroEventHandler<>());
+		manager.registerListener(Named.class, e -> calls.add(e.name()), Priority.NORMAL, true);
+		manager.invoke(new NamedEvent());
+		equal("[unregistered, a, a name]", calls.toString(), "a handler without a kind of it's own is replaced by the default one");
+	}
+
+	public static class Unregistered extends BasicEvent {
+		public Unregistered() {
+			super("unregistered");
+		}
+	}
+
+	public interface Named extends Event {
+		String name();
+	}
+
+	public static class NamedEvent implements Named {
+		@Override
+		public String name() {
+			return "a name";
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package examples.basic.mains;
+
+import io.github.microevents.util.AtomicIDHolder;
+import io.github.microevents.util.IDHolder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static examples.basic.Assertions.*;
+
+/**
+ * checks the id holders, the smallest free id is always handed out and it grows past the first summary word, and the
+ * atomic one never hands out an id twice to competing threads
+ */
+public class IDHolderTest {
+	public static void main(String[] args) throws InterruptedException {
+		smallest();
+		growth();
+		limit();
+		atomic();
+		contended();
+		System.out.println("id holder ok");
+	}
+
+	// removed ids are reused smallest first
+	private static void smallest() {
+		IDHolder holder = new IDHolder(256);
+		for (int i = 0; i < 200; i++)
+			equal(i, holder.next(), "the ids are handed out in order");
+		holder.remove(150);
+		holder.remove(3);
+		holder.remove(64);
+		check(!holder.remove(64), "an id can only be removed once");
+		check(!holder.occupied(3) && holder.occupied(4), "the removed id is free");
+		equal(197, holder.size(), "the size");
+		equal(3, holder.peek(), "peek doesn't occupy the id");
+		equal(3, holder.next(), "the smallest free id");
+		equal(64, holder.next(), "the next smallest");
+		equal(150, holder.next(), "the last removed");
+		equal(200, holder.next(), "then the ones that were never used");
+	}
+
+	// the holder doubles until it reaches the max capacity, the summary bitmap grows with it past 64 words
+	private static void growth() {
+		int max = 64 * 64 * 3 + 10; // more than 3 summary words
+		IDHolder holder = new IDHolder(64, max);
+		equal(64, holder.capacity(), "the initial capacity");
+		for (int i = 0; i < max; i++)
+			equal(i, holder.next(), "every id up to the max");
+		int capacity = ((max - 1 >> 6) + 1) << 6;
+		equal(capacity, holder.capacity(), "grown to the max, rounded to a word");
+		for (int i = max; i < capacity; i++)
+			holder.next();
+		check(holder.full(), "full at the rounded max");
+		equal(-1, holder.peek(), "no free id left");
+
+		for (int id : new int[]{capacity - 1, 64 * 64 * 2 + 5, 64 * 64, 70})
+			holder.remove(id);
+		check(!holder.full(), "not full anymore");
+		equal(70, holder.next(), "in the first summary word");
+		equal(64 * 64, holder.next(), "the first id of the second summary word");
+		equal(64 * 64 * 2 + 5, holder.next(), "in the third summary word");
+		equal(capacity - 1, holder.next(), "in the last word");
+	}
+
+	// past the max capacity next throws, unless the holder is grown by hand
+	private static void limit() {
+		IDHolder holder = new IDHolder(64, 128);
+		for (int i = 0; i < 128; i++)
+			holder.next();
+		try {
+			holder.next();
+			throw new AssertionError("the max capacity was exceeded");
+		} catch (IndexOutOfBoundsException expected) {
+		}
+		holder.grow(64 * 64 * 2);
+		equal(128, holder.next(), "grown past the old max");
+		check(!holder.full(), "the max was raised");
+	}
+
+	// without competing threads the atomic holder hands out the smallest free id too, across it's chunks
+	private static void atomic() {
+		AtomicIDHolder holder = new AtomicIDHolder(4096 * 2 + 10);
+		equal(4096 * 2 + 64, holder.capacity(), "rounded up to a word");
+		for (int i = 0; i < holder.capacity(); i++)
+			equal(i, holder.next(), "the ids are handed out in order");
+		check(holder.full(), "full");
+		try {
+			holder.next();
+			throw new AssertionError("the capacity was exceeded");
+		} catch (IndexOutOfBoundsException expected) {
+		}
+		equal(holder.capacity(), holder.size(), "the failed next didn't count");
+		check(holder.remove(4096 + 7) && holder.remove(3), "removed");
+		check(!holder.remove(3), "only once");
+		check(!holder.occupied(3) && holder.occupied(4), "the removed id is free");
+		equal(3, holder.next(), "the smallest free id");
+		equal(4096 + 7, holder.next(), "in the second chunk");
+	}
+
+	// threads registering and unregistering at once never hold the same id
+	private static void contended() throws InterruptedException {
+		AtomicIDHolder holder = new AtomicIDHolder(1 << 16);
+		AtomicIntegerArray owners = new AtomicIntegerArray(holder.capacity());
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> failures = new ArrayList<>();
+		for (int t = 1; t <= 4; t++) {
+			int thread = t;
+			threads.add(new Thread(() -> {
+				int[] held = new int[64];
+				for (int round = 0; round < 20_000; round++) {
+					for (int i = 0; i < held.length; i++) {
+						held[i] = holder.next();
+						if (!owners.compareAndSet(held[i], 0, thread)) throw new AssertionError(held[i] + " was handed out twice");
+					}
+					for (int id : held) {
+						owners.set(id, 0);
+						if (!holder.remove(id)) throw new AssertionError(id + " wasn't occupied");
+					}
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.setUncaughtExceptionHandler((th, e) -> {
+				synchronized (failures) {
+					failures.add(e);
+				}
+			});
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		equal(0, failures.size(), "failures " + failures);
+		equal(0, holder.size(), "every id was removed");
+		equal(0, holder.next(), "the smallest is free again");
+	}
+}
@@ -0,0 +1,126 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventListener;
+import io.github.microevents.util.InheritedMap;
+import io.github.microevents.util.NodedList;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks the inherited map, and that the listener registers it caches for every manager don't keep the managers alive
+ */
+public class InheritedTest {
+	public static void main(String[] args) throws InterruptedException {
+		inherited();
+		shared();
+		collected();
+		System.out.println("inherited ok");
+	}
+
+	// a class's own attributes come first, the classes without any share their super's list
+	private static void inherited() {
+		List<Class<?>> computed = new ArrayList<>();
+		InheritedMap<A, String> map = new InheritedMap<>(A.class, c -> {
+			computed.add(c);
+			return c == B.class ? Collections.emptyList() : Collections.singletonList(c.getSimpleName());
+		});
+		NodedList<String> c = map.getAttributes(C.class);
+		equal(2, c.size(), "the attributes of C and it's supers");
+		equal("C", c.get(0), "C's own first");
+		equal("A", c.get(1), "then A's");
+		check(map.getAttributes(C.class) == c, "cached");
+		check(map.getAttributes(B.class) == map.getAttributes(A.class), "B has none of it's own");
+		equal(3, computed.size(), "every class was computed once");
+		check(new InheritedMap<>(A.class, type -> Collections.singletonList("other")).getAttributes(C.class) != c, "every map has it's own cache");
+	}
+
+	// the cached registers register to the manager they're called for
+	private static void shared() {
+		MicroEventManager first = manager(BasicEvent.class), second = manager(BasicEvent.class);
+		for (Object listening : new Object[]{new Listening(), new Reflected()}) {
+			first.registerEventListeners(listening);
+			second.registerEventListeners(listening, true);
+			first.invoke(new BasicEvent("first"));
+			second.invoke(new BasicEvent("second"));
+			equal("[first, second]", listening.toString(), "each manager called it's own listener");
+		}
+	}
+
+	// a manager with listeners registered from annotations can be collected
+	private static void collected() throws InterruptedException {
+		List<WeakReference<MicroEventManager>> managers = new ArrayList<>();
+		Object[] listening = {new Listening(), new Reflected()};
+		for (int i = 0; i < 4; i++)
+			managers.add(register(listening, i % 2 == 0));
+		for (int attempt = 0; attempt < 50 && !cleared(managers); attempt++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		check(cleared(managers), "the managers were collected");
+	}
+
+	private static WeakReference<MicroEventManager> register(Object[] listening, boolean weak) {
+		MicroEventManager manager = manager(BasicEvent.class);
+		for (Object object : listening)
+			manager.registerEventListeners(object, weak);
+		manager.invoke(new BasicEvent("a"));
+		return new WeakReference<>(manager);
+	}
+
+	private static boolean cleared(List<WeakReference<MicroEventManager>> managers) {
+		for (WeakReference<MicroEventManager> manager : managers)
+			if (manager.get() != null) return false;
+		return true;
+	}
+
+	public static class A {}
+
+	public static class B extends A {}
+
+	public static class C extends B {}
+
+	public static class Listening {
+		private final List<String> values = new ArrayList<>();
+
+		@EventListener
+		public final void onEvent(BasicEvent event) {
+			values.add(event.getValue());
+		}
+
+		@Override
+		public String toString() {
+			return values.toString();
+		}
+	}
+
+	// registered by reflection, the processor skips private classes. filtered so the cached register has a property
+	private static class Reflected {
+		private final List<String> values = new ArrayList<>();
+
+		private String getValue() {
+			return "filtered";
+		}
+
+		@EventListener
+		public final void onEvent(BasicEvent event) {
+			values.add(event.getValue());
+		}
+
+		@EventListener(filter = "getValue")
+		public final void onFiltered(BasicEvent event) {
+			values.add("filter");
+		}
+
+		@Override
+		public String toString() {
+			return values.toString();
+		}
+	}
+}
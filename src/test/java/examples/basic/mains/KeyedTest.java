@@ -0,0 +1,151 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import io.github.microevents.KeyedEventHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.Keyed;
+import io.github.microevents.events.KeyedListener;
+import io.github.microevents.events.Listener;
+import io.github.microevents.events.Priority;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.HandlerContract.id;
+
+/**
+ * checks that the keyed listeners only get the events of their key, in the keyed handler's buckets and in the plain
+ * handlers
+ */
+public class KeyedTest {
+	public static void main(String[] args) {
+		indexed();
+		cancelled();
+		removed();
+		manager(MicroEventManager::new);
+		manager(() -> new MicroEventManager(KeyedEventHandler::new));
+		System.out.println("keyed ok");
+	}
+
+	// within a priority the unkeyed listeners run first, then the ones of the event's key in the order they came
+	private static void indexed() {
+		KeyedEventHandler<Entity> handler = new KeyedEventHandler<>();
+		List<String> calls = new ArrayList<>();
+		handler.register(id(0, Priority.NORMAL, false), new KeyedListener<>(1, adds(calls, "1 a")), Priority.NORMAL);
+		handler.register(id(1, Priority.NORMAL, true), new KeyedListener<>(1, adds(calls, "1 b")), Priority.NORMAL);
+		handler.register(id(2, Priority.LOW, true), new KeyedListener<>(2, adds(calls, "2 low")), Priority.LOW);
+		handler.register(id(3, Priority.NORMAL, true), adds(calls, "every"), Priority.NORMAL);
+
+		handler.invoke(new Entity(1), false);
+		equal("[every, 1 a, 1 b]", calls.toString(), "the listeners of key 1");
+		calls.clear();
+		handler.invoke(new Entity(2), false);
+		equal("[2 low, every]", calls.toString(), "the listeners of key 2");
+		calls.clear();
+		handler.invoke(new Entity(3), false);
+		equal("[every]", calls.toString(), "a key without listeners");
+		calls.clear();
+		handler.invoke(new Entity(1), true);
+		equal("[every, 1 b]", calls.toString(), "only the sub listeners");
+
+		calls.clear();
+		handler.invokeAll(new Entity[]{new Entity(2), new Entity(1)}, false);
+		equal("[2 low, every, every, 1 a, 1 b]", calls.toString(), "a batch is invoked event by event");
+	}
+
+	// a keyed listener's cancel stops the rest of it's priority and the ones after it, TOP listeners don't obey it
+	private static void cancelled() {
+		KeyedEventHandler<Entity> handler = new KeyedEventHandler<>();
+		List<String> calls = new ArrayList<>();
+		handler.register(id(0, Priority.TOP, false), new KeyedListener<>(1, (Listener<Entity>) e -> {
+			calls.add("top 1");
+			e.cancel(true);
+		}), Priority.TOP);
+		handler.register(id(1, Priority.TOP, false), new KeyedListener<>(1, adds(calls, "top 1 after")), Priority.TOP);
+		handler.register(id(2, Priority.LOW, false), new KeyedListener<>(1, (Listener<Entity>) e -> {
+			calls.add("low 1");
+			e.cancel(true);
+		}), Priority.LOW);
+		handler.register(id(3, Priority.LOW, false), new KeyedListener<>(1, adds(calls, "low 1 after")), Priority.LOW);
+		handler.register(id(4, Priority.NORMAL, false), adds(calls, "normal"), Priority.NORMAL);
+		handler.invoke(new Entity(1), false);
+		equal("[top 1, top 1 after]", calls.toString(), "only TOP after the cancel");
+
+		handler.remove(id(0, Priority.TOP, false));
+		calls.clear();
+		handler.invoke(new Entity(1), false);
+		equal("[top 1 after, low 1]", calls.toString(), "the rest of the priority is skipped");
+	}
+
+	// a bucket is dropped with it's last listener, and the listeners left keep their order
+	private static void removed() {
+		Inspected handler = new Inspected();
+		List<String> calls = new ArrayList<>();
+		for (int slot = 0; slot < 4; slot++)
+			handler.register(id(slot, Priority.NORMAL, false), new KeyedListener<>(slot < 3 ? 1 : 2, adds(calls, Integer.toString(slot))), Priority.NORMAL);
+		handler.register(id(4, Priority.NORMAL, false), adds(calls, "every"), Priority.NORMAL);
+		equal(2, handler.keys(), "two keys");
+
+		handler.remove(id(1, Priority.NORMAL, false));
+		handler.invoke(new Entity(1), false);
+		equal("[every, 0, 2]", calls.toString(), "the listeners left");
+
+		handler.removeAll(new int[]{id(3, Priority.NORMAL, false), id(4, Priority.NORMAL, false)}, 2);
+		equal(1, handler.keys(), "key 2 is gone");
+		handler.removeAll(new int[]{id(0, Priority.NORMAL, false), id(2, Priority.NORMAL, false)}, 2);
+		equal(0, handler.keys(), "every key is gone");
+		calls.clear();
+		handler.invoke(new Entity(1), false);
+		handler.invoke(new Entity(2), false);
+		equal("[]", calls.toString(), "no listeners left");
+	}
+
+	// the manager wraps the listeners, indexed by the keyed handler and checked by the plain one, and keeps the key
+	// when the listeners are rewrapped for the metrics
+	private static void manager(Supplier<MicroEventManager> managers) {
+		MicroEventManager manager = managers.get();
+		manager.registerEvent(Entity.class);
+		List<String> calls = new ArrayList<>();
+		long id = manager.registerListener(Entity.class, 1, adds(calls, "1"), Priority.NORMAL, false, false);
+		manager.registerListener(Entity.class, 2, adds(calls, "2"), Priority.LOW, false, false);
+		manager.invoke(new Entity(1));
+		manager.invoke(new Entity(2));
+		manager.invoke(new Entity(3));
+		equal("[1, 2]", calls.toString(), "the keyed listeners");
+
+		manager.enableMetrics();
+		calls.clear();
+		manager.invoke(new Entity(2));
+		equal("[2]", calls.toString(), "still keyed with the metrics");
+		equal(0, manager.metrics().listener(id).getCalls(), "the other key's listener wasn't called");
+		manager.unregister(id);
+		manager.invoke(new Entity(1));
+		equal("[2]", calls.toString(), "unregistered");
+	}
+
+	private static Listener<Entity> adds(List<String> calls, String name) {
+		return e -> calls.add(name);
+	}
+
+	// exposes the buckets of the handler
+	private static final class Inspected extends KeyedEventHandler<Entity> {
+		int keys() {
+			return keys.size();
+		}
+	}
+
+	public static class Entity extends BasicEvent implements Keyed {
+		private final long key;
+
+		Entity(long key) {
+			super("entity");
+			this.key = key;
+		}
+
+		@Override
+		public long getKey() {
+			return key;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import io.github.microevents.EventMetrics;
+import io.github.microevents.EventStats;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventListener;
+import io.github.microevents.events.Priority;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks the metrics of the events and listeners, and that they're swapped in and out
+ */
+public class MetricsTest {
+	public static void main(String[] args) throws Exception {
+		counts();
+		lifecycle();
+		jmx();
+		System.out.println("metrics ok");
+	}
+
+	// invokes, cancels, calls and exceptions are counted, listeners registered before and after enabling them
+	private static void counts() {
+		MicroEventManager manager = manager(BasicEvent.class);
+		manager.setExceptionHandler((id, listener, event, throwable) -> false);
+		long before = manager.registerListener(BasicEvent.class, e -> {
+			if (e.getValue().equals("cancel")) e.cancel(true);
+		}, Priority.LOW, false);
+		EventMetrics metrics = manager.enableMetrics();
+		check(manager.enableMetrics() == metrics, "the same metrics until they're disabled");
+		long after = manager.registerListener(BasicEvent.class, e -> {
+			if (e.getValue().equals("throw")) throw new IllegalStateException("thrown");
+		}, Priority.HIGH, false);
+		long async = manager.registerListener(BasicEvent.class, e -> {}, Priority.HIGH, false, true);
+		Methods methods = new Methods();
+		long method = manager.registerEventListeners(methods).getLong(0);
+
+		for (int i = 0; i < 10; i++)
+			manager.invoke(new BasicEvent("a"));
+		manager.invoke(new BasicEvent("cancel"));
+		manager.invoke(new BasicEvent("throw"));
+		manager.invokeAll(BasicEvent.class, new BasicEvent[]{new BasicEvent("a"), new BasicEvent("b")});
+
+		EventStats event = metrics.event(BasicEvent.class);
+		equal(14, event.getInvokes(), "every event of the invokes and the batch");
+		equal(1, event.getCancelled(), "the cancelled invoke");
+		check(event.getTotalNanos() > 0 && event.getMaxNanos() > 0 && event.getMeanNanos() <= event.getMaxNanos(), "the latencies");
+		long histogram = 0;
+		for (long count : event.getHistogram())
+			histogram += count;
+		equal(14, histogram, "every invoke is in the histogram");
+		check(event.getMedianNanos() <= event.getP99Nanos(), "the percentiles");
+
+		equal(14, metrics.listener(before).getCalls(), "the listener registered before");
+		equal(13, metrics.listener(after).getCalls(), "the listener after the cancel");
+		equal(1, metrics.listener(after).getExceptions(), "the exception");
+		equal(0, metrics.listener(before).getExceptions(), "no exceptions");
+		equal(BasicEvent.class.getName(), metrics.listener(after).getEvent(), "the event of the listener");
+		equal(Methods.class.getName() + "#listen", metrics.listener(method).getListener(), "named after the method");
+		check(!metrics.listener(async).getListener().contains("AsyncListener"), "async listeners are named after theirs, was " + metrics.listener(async).getListener());
+
+		metrics.reset();
+		equal(0, event.getInvokes(), "reset");
+		equal(0, metrics.listener(before).getCalls(), "reset");
+		manager.unregister(after);
+		check(metrics.listener(after) == null, "unregistered listeners are dropped");
+	}
+
+	// disabling swaps the plain handlers and listeners back, enabling again starts new metrics
+	private static void lifecycle() {
+		MicroEventManager manager = manager(BasicEvent.class);
+		manager.setExceptionHandler((id, listener, event, throwable) -> false);
+		int[] calls = new int[1];
+		long id = manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.NORMAL, false);
+		EventMetrics metrics = manager.enableMetrics();
+		manager.invoke(new BasicEvent("a"));
+		manager.disableMetrics();
+		check(manager.metrics() == null, "disabled");
+		manager.invoke(new BasicEvent("a"));
+		equal(1, metrics.event(BasicEvent.class).getInvokes(), "nothing is recorded once they're disabled");
+		equal(1, metrics.listener(id).getCalls(), "nothing is recorded once they're disabled");
+		equal(2, calls[0], "the listener is still called once per invoke");
+
+		EventMetrics again = manager.enableMetrics();
+		check(again != metrics, "new metrics");
+		manager.invoke(new BasicEvent("a"));
+		equal(1, again.listener(id).getCalls(), "the listener is instrumented again");
+		equal(3, calls[0], "and called once");
+	}
+
+	// the metrics are readable as an MXBean
+	private static void jmx() throws Exception {
+		MicroEventManager manager = manager(BasicEvent.class);
+		manager.setExceptionHandler((id, listener, event, throwable) -> false);
+		manager.registerListener(BasicEvent.class, e -> {}, Priority.NORMAL, false);
+		EventMetrics metrics = manager.enableMetrics();
+		manager.invoke(new BasicEvent("a"));
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = metrics.register(server, "metrics test");
+		try {
+			CompositeData[] events = (CompositeData[]) server.getAttribute(name, "Events");
+			equal(1, events.length, "one event class");
+			equal(BasicEvent.class.getName(), events[0].get("event"), "it's name");
+			equal(1L, events[0].get("invokes"), "it's invokes");
+			CompositeData[] listeners = (CompositeData[]) server.getAttribute(name, "SlowestListeners");
+			equal(1, listeners.length, "one listener");
+			server.invoke(name, "reset", new Object[0], new String[0]);
+			equal(0, metrics.event(BasicEvent.class).getInvokes(), "reset through JMX");
+		} finally {
+			server.unregisterMBean(name);
+		}
+	}
+
+	public static class Methods {
+		@EventListener
+		public final void listen(BasicEvent event) {}
+	}
+}
@@ -2,25 +2,92 @@ package examples.basic.mains;
 
 import io.github.microevents.util.NodedList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
+import static examples.basic.Assertions.*;
+
+/**
+ * checks that the noded list is the lists it was made from in order, flattened once
+ */
 public class NodedListTest {
 	public static void main(String[] args) {
+		flattened();
+		empty();
+		bounds();
+		System.out.println("noded list ok");
+	}
+
+	// the elements of every list in order, through get, the iterator and toArray, copied when the list is made
+	private static void flattened() {
 		List<List<Integer>> integers = new ArrayList<>();
-		for(int x = 0; x < 10; x++)
+		for (int x = 0; x < 10; x++)
 			integers.add(new ArrayList<>());
+		integers.add(3, Collections.emptyList()); // an empty list between the others
 		int val = 0;
-
 		for (List<Integer> integer : integers)
-			for (int i = 0; i < 10; i++)
-				integer.add(val++);
+			if (integer instanceof ArrayList)
+				for (int i = 0; i < 10; i++)
+					integer.add(val++);
 
 		NodedList<Integer> nodedList = new NodedList<>(integers);
+		equal(100, nodedList.size(), "the size of all of the lists");
+		for (int i = 0; i < 100; i++)
+			equal(i, (int) nodedList.get(i), "get");
 		Iterator<Integer> iterator = nodedList.iterator();
+		for (int i = 0; i < 100; i++) {
+			check(iterator.hasNext(), "an element is left");
+			equal(i, (int) iterator.next(), "the next element");
+		}
+		check(!iterator.hasNext(), "the iterator is done");
+		try {
+			iterator.next();
+			throw new AssertionError("next past the end");
+		} catch (NoSuchElementException expected) {
+		}
 
-		while(iterator.hasNext())
-			System.out.println(iterator.next());
+		Object[] array = nodedList.toArray();
+		array[0] = -1;
+		equal(0, (int) nodedList.get(0), "toArray is a copy");
+		integers.get(0).set(0, -1);
+		equal(0, (int) nodedList.get(0), "the lists were copied when it was made");
+		check(nodedList.equals(expected(100)), "equal to a list of the same elements");
+		equal(expected(100).hashCode(), nodedList.hashCode(), "the same hash");
+	}
+
+	// no lists, and only empty ones
+	private static void empty() {
+		NodedList<Integer> none = new NodedList<>(Collections.emptyList());
+		equal(0, none.size(), "no lists");
+		check(!none.iterator().hasNext(), "nothing to iterate");
+		NodedList<Integer> empties = new NodedList<>(Arrays.asList(Collections.emptyList(), new ArrayList<>()));
+		check(empties.isEmpty(), "empty lists");
+		equal(0, empties.toArray().length, "an empty array");
+	}
+
+	// get is bounds checked, and the list can't be changed
+	private static void bounds() {
+		NodedList<Integer> list = new NodedList<>(Collections.singletonList(Arrays.asList(1, 2)));
+		for (int index : new int[]{-1, 2})
+			try {
+				list.get(index);
+				throw new AssertionError("got " + index);
+			} catch (IndexOutOfBoundsException expected) {
+			}
+		try {
+			list.add(3);
+			throw new AssertionError("added to the list");
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
 
+	private static List<Integer> expected(int size) {
+		List<Integer> list = new ArrayList<>();
+		for (int i = 0; i < size; i++)
+			list.add(i);
+		return list;
 	}
 }
@@ -0,0 +1,109 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import examples.basic.HandlerContract;
+import examples.basic.SubBasicEvent;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.ParallelEventHandler;
+import io.github.microevents.events.Priority;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.HandlerContract.id;
+
+/**
+ * checks that the parallel handler splits the listeners of it's priorities across the pool, and joins them before the
+ * next priority
+ */
+public class ParallelTest {
+	public static void main(String[] args) {
+		HandlerContract.verify(() -> new ParallelEventHandler<>(Priority.values()));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			split(pool);
+			threshold(pool);
+			cancel(pool);
+			manager(pool);
+		} finally {
+			pool.shutdown();
+		}
+		System.out.println("parallel ok");
+	}
+
+	// the listeners run on the pool, and all of them are done before the next priority starts
+	private static void split(ForkJoinPool pool) {
+		ParallelEventHandler<BasicEvent> handler = new ParallelEventHandler<>(pool, 0, Priority.NORMAL);
+		AtomicInteger calls = new AtomicInteger();
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		for (int slot = 0; slot < 64; slot++)
+			handler.register(id(slot, Priority.NORMAL, false), e -> {
+				threads.add(Thread.currentThread());
+				sleep();
+				calls.incrementAndGet();
+			}, Priority.NORMAL);
+		int[] seen = new int[1];
+		handler.register(id(64, Priority.HIGH, false), e -> seen[0] = calls.get(), Priority.HIGH);
+		handler.invoke(new BasicEvent("a"), false);
+		equal(64, seen[0], "every parallel listener was joined before the next priority");
+		check(threads.size() > 1, "split across the pool, ran on " + threads);
+	}
+
+	// a priority that's estimated to be cheap stays on the invoking thread
+	private static void threshold(ForkJoinPool pool) {
+		ParallelEventHandler<BasicEvent> handler = new ParallelEventHandler<>(pool, Long.MAX_VALUE, Priority.NORMAL);
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		for (int slot = 0; slot < 64; slot++)
+			handler.register(id(slot, Priority.NORMAL, false), e -> threads.add(Thread.currentThread()), Priority.NORMAL);
+		for (int i = 0; i < 200; i++) // past a few samples
+			handler.invoke(new BasicEvent("a"), false);
+		equal(1, threads.size(), "one thread");
+		check(threads.contains(Thread.currentThread()), "the invoking thread");
+	}
+
+	// a cancel in a parallel priority stops the priorities after it, only the sub listeners get sub events
+	private static void cancel(ForkJoinPool pool) {
+		ParallelEventHandler<BasicEvent> handler = new ParallelEventHandler<>(pool, 0, Priority.NORMAL);
+		AtomicInteger calls = new AtomicInteger(), subCalls = new AtomicInteger();
+		for (int slot = 0; slot < 32; slot++) {
+			boolean sub = slot % 2 == 0;
+			handler.register(id(slot, Priority.NORMAL, sub), e -> {
+				calls.incrementAndGet();
+				if (sub) subCalls.incrementAndGet();
+			}, Priority.NORMAL);
+		}
+		handler.register(id(32, Priority.NORMAL, false), e -> e.cancel(true), Priority.NORMAL);
+		handler.register(id(33, Priority.HIGH, false), e -> calls.addAndGet(1000), Priority.HIGH);
+		handler.invoke(new BasicEvent("a"), false);
+		check(calls.get() <= 32, "the listeners after the cancelled priority were skipped, " + calls);
+
+		calls.set(0);
+		subCalls.set(0);
+		handler.invoke(new BasicEvent("a"), true);
+		equal(16, subCalls.get(), "the sub listeners");
+		equal(16, calls.get(), "only the sub listeners");
+	}
+
+	// the manager can make every handler a parallel one
+	private static void manager(ForkJoinPool pool) {
+		MicroEventManager manager = new MicroEventManager(() -> new ParallelEventHandler<>(pool, 0, Priority.FINAL));
+		manager.registerEvent(BasicEvent.class);
+		manager.registerEvent(SubBasicEvent.class);
+		AtomicInteger calls = new AtomicInteger();
+		for (int i = 0; i < 20; i++)
+			manager.registerListener(BasicEvent.class, e -> calls.incrementAndGet(), Priority.FINAL, true);
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new SubBasicEvent());
+		equal(40, calls.get(), "every listener for both classes");
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package examples.basic.mains;
+
+import io.github.microevents.MicroEventHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.Cancellable;
+import io.github.microevents.events.EventPool;
+import io.github.microevents.events.Priority;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks the event pool, reuse, resets, the debug mode and async listeners
+ */
+public class PoolTest {
+	public static void main(String[] args) throws Exception {
+		reuse();
+		capacity();
+		retained();
+		async();
+		System.out.println("pool ok");
+	}
+
+	// fire resets the event and the next fire on the thread gets it back
+	private static void reuse() {
+		MicroEventManager manager = manager(Pooled.class);
+		Pooled[] seen = new Pooled[2];
+		int[] values = new int[2];
+		AtomicInteger fires = new AtomicInteger();
+		manager.registerListener(Pooled.class, e -> {
+			int fire = fires.getAndIncrement();
+			seen[fire] = e;
+			values[fire] = e.value;
+			if (e.value == 1) e.cancel(true);
+		}, Priority.TOP, false);
+		EventPool<Pooled> pool = manager.newPool(Pooled::new);
+		check(pool.fire(e -> e.value = 1), "fire returns the cancelled state");
+		check(seen[0].value == 0 && !seen[0].isCancelled(), "the event was reset after the invoke");
+		check(!pool.fire(e -> e.value = 2), "the reused event isn't cancelled anymore");
+		check(seen[0] == seen[1], "the event was reused");
+		equal(2, values[1], "the filler ran on the reused event");
+	}
+
+	// at most capacity idle events are kept
+	private static void capacity() {
+		EventPool<Pooled> pool = new EventPool<>(manager(Pooled.class), Pooled::new, 2, false);
+		Pooled a = pool.acquire(), b = pool.acquire(), c = pool.acquire();
+		pool.release(a);
+		pool.release(b);
+		pool.release(c);
+		Pooled first = pool.acquire(), second = pool.acquire(), third = pool.acquire();
+		check(first == b && second == a, "the released events are reused, last in first out");
+		check(third != a && third != b && third != c, "the third one wasn't kept");
+	}
+
+	// in debug mode events aren't reused, and the ones a listener kept are reported. the reports are captured instead
+	// of printed, every check logs each event that wasn't collected yet
+	private static void retained() throws InterruptedException {
+		Logger logger = Logger.getLogger("EventPool");
+		List<String> reports = new ArrayList<>();
+		Handler capture = new Handler() {
+			@Override
+			public void publish(LogRecord record) {
+				reports.add(record.getMessage());
+			}
+
+			@Override
+			public void flush() {}
+
+			@Override
+			public void close() {}
+		};
+		logger.addHandler(capture);
+		logger.setUseParentHandlers(false);
+		try {
+			retained(reports);
+		} finally {
+			logger.removeHandler(capture);
+			logger.setUseParentHandlers(true);
+		}
+	}
+
+	private static void retained(List<String> reports) throws InterruptedException {
+		MicroEventManager manager = manager(Pooled.class);
+		Pooled[] kept = new Pooled[1];
+		manager.registerListener(Pooled.class, e -> {
+			if (e.value == 1) kept[0] = e;
+		}, Priority.NORMAL, false);
+		EventPool<Pooled> pool = new EventPool<>(manager, Pooled::new, 64, true);
+		for (int i = 0; i < 10; i++) {
+			int value = i;
+			pool.fire(e -> e.value = value);
+		}
+		check(pool.acquire() != kept[0], "debug pools don't reuse events");
+		for (int i = 0; i < 10 && pool.checkRetained() > 1; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		reports.clear();
+		equal(1, pool.checkRetained(), "the kept event is reported");
+		equal(1, reports.size(), "one report for it");
+		check(reports.get(0).contains("EventPool.release"), "the report says where it was released, was " + reports.get(0));
+	}
+
+	// fireAsync releases the event once the async listeners are done, so they never see a reset or reused event, and
+	// it's released to the firing thread's pool even though an executor thread completes the future
+	private static void async() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			MicroEventManager manager = manager(MicroEventHandler::new, executor, Pooled.class);
+			CountDownLatch release = new CountDownLatch(1);
+			int[] value = new int[1];
+			Pooled[] seen = new Pooled[1];
+			manager.registerListener(Pooled.class, e -> {
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					throw new IllegalStateException(ex);
+				}
+				value[0] = e.value;
+				seen[0] = e;
+			}, Priority.NORMAL, false, true);
+			manager.registerListener(Pooled.class, e -> e.cancel(true), Priority.HIGHEST, false);
+			EventPool<Pooled> pool = manager.newPool(Pooled::new);
+			CompletableFuture<Boolean> future = pool.fireAsync(e -> e.value = 7);
+			Thread.sleep(50);
+			release.countDown();
+			check(future.get(5, TimeUnit.SECONDS), "the future completes with the cancelled state");
+			equal(7, value[0], "the async listener saw the event before it was reset");
+			Pooled reused = pool.acquire();
+			check(reused == seen[0], "the event went back to the pool of the thread that fired it");
+			check(reused.value == 0 && !reused.isCancelled(), "and was reset");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	public static class Pooled implements Cancellable {
+		int value;
+		private boolean cancelled;
+
+		@Override
+		public void cancel(boolean cancel) {
+			cancelled = cancel;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		@Override
+		public void reset() {
+			value = 0;
+			cancelled = false;
+		}
+	}
+}
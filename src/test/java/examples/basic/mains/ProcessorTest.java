@@ -0,0 +1,104 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import examples.basic.SubBasicEvent;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.EventListener;
+import io.github.microevents.events.GeneratedListeners;
+import io.github.microevents.events.Priority;
+import java.util.ArrayList;
+import java.util.List;
+
+import static examples.basic.Assertions.*;
+
+/**
+ * checks the listeners generated by the annotation processor, against the ones registered by reflection
+ */
+public class ProcessorTest {
+	public static void main(String[] args) throws ClassNotFoundException {
+		generated();
+		names(Listening.class, new Listening());
+		names(Reflected.class, new Reflected());
+		System.out.println("processor ok");
+	}
+
+	// the processor ran for the test sources, but skips private classes
+	private static void generated() throws ClassNotFoundException {
+		check(GeneratedListeners.class.isAssignableFrom(Class.forName(Listening.class.getName() + GeneratedListeners.SUFFIX)), "the listeners were generated");
+		try {
+			Class.forName(Reflected.class.getName() + GeneratedListeners.SUFFIX);
+			throw new AssertionError("a private class can't be called by generated listeners");
+		} catch (ClassNotFoundException expected) {
+		}
+	}
+
+	// the listeners are called, and the exception handler gets them named after their methods
+	private static void names(Class<?> type, Counting listening) {
+		MicroEventManager manager = new MicroEventManager();
+		manager.registerEvent(BasicEvent.class);
+		manager.registerEvent(SubBasicEvent.class);
+		List<String> failed = new ArrayList<>();
+		manager.setExceptionHandler((id, listener, event, throwable) -> {
+			failed.add(listener.toString());
+			return false;
+		});
+
+		equal(1, manager.registerEventListeners(listening).size(), "instance listeners");
+		equal(1, manager.registerEventListeners(listening, true).size(), "weak listeners");
+		equal(1, manager.registerStaticEventListeners(type).size(), "static listeners");
+
+		manager.invoke(new BasicEvent("a"));
+		equal(2, listening.calls(), "the instance listener is called once per registration");
+		manager.invoke(new SubBasicEvent());
+		equal(2, listening.calls(), "the instance listener doesn't listen to sub events");
+		manager.invoke(new BasicEvent("throw"));
+		String name = type.getName();
+		equal("[" + name + "#failing, " + name + "#failing, " + name + "#instance, " + name + "#instance, " + name + "#failing]",
+				failed.toString(), "the listeners are named after their methods");
+	}
+
+	public interface Counting {
+		int calls();
+	}
+
+	public static class Listening implements Counting {
+		private int calls;
+
+		@EventListener(priority = Priority.LOW)
+		public final void instance(BasicEvent event) {
+			if (event.getValue().equals("throw")) throw new IllegalStateException("thrown");
+			calls++;
+		}
+
+		@EventListener(priority = Priority.HIGH, subEvents = true)
+		public static void failing(BasicEvent event) {
+			throw new IllegalStateException("thrown");
+		}
+
+		@Override
+		public int calls() {
+			return calls;
+		}
+	}
+
+	// the same, but it's private so it's registered by reflection
+	private static class Reflected implements Counting {
+		private int calls;
+
+		@EventListener(priority = Priority.LOW)
+		public final void instance(BasicEvent event) {
+			if (event.getValue().equals("throw")) throw new IllegalStateException("thrown");
+			calls++;
+		}
+
+		@EventListener(priority = Priority.HIGH, subEvents = true)
+		public static void failing(BasicEvent event) {
+			throw new IllegalStateException("thrown");
+		}
+
+		@Override
+		public int calls() {
+			return calls;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import examples.basic.HandlerContract;
+import examples.basic.SubBasicEvent;
+import io.github.microevents.FilteringEventHandler;
+import io.github.microevents.KeyedEventHandler;
+import io.github.microevents.MicroEventHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.events.FilteredListener;
+import io.github.microevents.events.Keyed;
+import io.github.microevents.events.KeyedListener;
+import io.github.microevents.events.Listener;
+import io.github.microevents.events.Priority;
+import io.github.microevents.util.IntPair;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.HandlerContract.id;
+
+/**
+ * checks the removal of listeners from the handlers, the tombstones they leave, the compaction and the index of every
+ * listener after it, and the removal of every listener a manager flattened into it's handlers
+ */
+public class RemovalTest {
+	public static void main(String[] args) {
+		HandlerContract.verify(MicroEventHandler::new);
+		tombstones();
+		compaction();
+		bulk();
+		mixed();
+		manager();
+		System.out.println("removal ok");
+	}
+
+	// removed listeners are left as null until half of the list is dead
+	private static void tombstones() {
+		Inspected handler = new Inspected();
+		IntArrayList calls = new IntArrayList();
+		for (int slot = 0; slot < 10; slot++)
+			handler.register(id(slot, Priority.NORMAL, false), number(calls, slot), Priority.NORMAL);
+		handler.remove(id(2, Priority.NORMAL, false));
+		handler.remove(id(5, Priority.NORMAL, false));
+		handler.remove(id(5, Priority.NORMAL, false)); // twice is ignored
+		equal(10, handler.size(Priority.NORMAL), "the removed listeners are still in the list");
+		equal(2, handler.dead(Priority.NORMAL), "two tombstones");
+		handler.invoke(new BasicEvent("a"), false);
+		equal("[0, 1, 3, 4, 6, 7, 8, 9]", calls.toString(), "the tombstones are skipped");
+	}
+
+	// once more than half of the list is dead it's compacted, and the listeners that moved can still be removed
+	private static void compaction() {
+		Inspected handler = new Inspected();
+		IntArrayList calls = new IntArrayList();
+		for (int slot = 0; slot < 10; slot++)
+			handler.register(id(slot, Priority.NORMAL, slot % 2 == 0), number(calls, slot), Priority.NORMAL);
+		for (int slot = 0; slot < 6; slot++)
+			handler.remove(id(slot, Priority.NORMAL, slot % 2 == 0));
+		equal(4, handler.size(Priority.NORMAL), "the list was compacted");
+		equal(0, handler.dead(Priority.NORMAL), "no tombstones are left");
+		for (int slot = 6; slot < 10; slot++)
+			equal(slot - 6, handler.index(id(slot, Priority.NORMAL, slot % 2 == 0)), "the index of the moved listener");
+
+		handler.remove(id(8, Priority.NORMAL, true)); // by it's new index
+		handler.invoke(new BasicEvent("a"), false);
+		equal("[6, 7, 9]", calls.toString(), "the moved listener was removed");
+		calls.clear();
+		handler.invoke(new BasicEvent("a"), true);
+		equal("[6]", calls.toString(), "only the sub listeners are left for sub events");
+
+		handler.register(id(8, Priority.NORMAL, true), number(calls, 8), Priority.NORMAL); // the id is reused
+		calls.clear();
+		handler.invoke(new BasicEvent("a"), false);
+		equal("[6, 7, 9, 8]", calls.toString(), "the reused id is at the end");
+	}
+
+	// removeAll compacts every priority it touched once, and skips the ids that aren't there
+	private static void bulk() {
+		Inspected handler = new Inspected();
+		IntArrayList calls = new IntArrayList();
+		for (int slot = 0; slot < 8; slot++)
+			handler.register(id(slot, slot < 4 ? Priority.LOW : Priority.HIGH, false), number(calls, slot), slot < 4 ? Priority.LOW : Priority.HIGH);
+		handler.removeAll(new int[]{id(0, Priority.LOW, false), id(1, Priority.LOW, false), id(2, Priority.LOW, false), id(4, Priority.HIGH, false), id(100, Priority.HIGH, false)}, 5);
+		equal(1, handler.size(Priority.LOW), "the low list was compacted");
+		equal(4, handler.size(Priority.HIGH), "the high list keeps it's tombstone");
+		handler.invoke(new BasicEvent("a"), false);
+		equal("[3, 5, 6, 7]", calls.toString(), "the listeners left");
+	}
+
+	// the keyed and filtered handlers remove their own listeners before the others
+	private static void mixed() {
+		KeyedEventHandler<Entity> keyed = new KeyedEventHandler<>();
+		FilteringEventHandler<Entity> filtering = new FilteringEventHandler<>();
+		IntArrayList calls = new IntArrayList();
+		for (int slot = 0; slot < 4; slot++) {
+			Listener<Entity> listener = e -> calls.add(1);
+			keyed.register(id(slot, Priority.NORMAL, false), slot < 2 ? new KeyedListener<>(7, listener) : listener, Priority.NORMAL);
+			filtering.register(id(slot, Priority.NORMAL, false), slot < 2 ? new FilteredListener<>(Entity::getKey, 7L, listener) : listener, Priority.NORMAL);
+		}
+		int[] ids = {id(0, Priority.NORMAL, false), id(2, Priority.NORMAL, false)};
+		keyed.removeAll(ids, 2);
+		filtering.removeAll(ids, 2);
+		keyed.invoke(new Entity(7), false);
+		filtering.invoke(new Entity(7), false);
+		equal(4, calls.size(), "one keyed or filtered and one plain listener left in each");
+	}
+
+	// the manager removes a listener from the handlers of every class it's flattened into, one removeAll per handler
+	private static void manager() {
+		MicroEventManager manager = new MicroEventManager();
+		manager.registerEvent(BasicEvent.class);
+		manager.registerEvent(SubBasicEvent.class);
+		int[] calls = new int[1];
+		LongArrayList ids = new LongArrayList();
+		for (int i = 0; i < 100; i++)
+			ids.add(manager.registerListener(BasicEvent.class, e -> calls[0]++, Priority.NORMAL, i % 2 == 0));
+		long kept = manager.registerListener(SubBasicEvent.class, e -> calls[0] += 1000, Priority.NORMAL, false);
+		manager.invoke(new SubBasicEvent());
+		equal(1050, calls[0], "the sub listeners and the sub class's own listener");
+
+		manager.unregisterAll(ids.subList(0, 60));
+		calls[0] = 0;
+		manager.invoke(new BasicEvent("a"));
+		equal(40, calls[0], "the rest of the listeners");
+		calls[0] = 0;
+		manager.invoke(new SubBasicEvent());
+		equal(1020, calls[0], "the rest of the sub listeners");
+
+		manager.unregisterAll(ids); // the ones that are gone are skipped
+		manager.unregister(kept);
+		calls[0] = 0;
+		manager.invoke(new BasicEvent("a"));
+		manager.invoke(new SubBasicEvent());
+		equal(0, calls[0], "every listener is gone");
+	}
+
+	private static Listener<BasicEvent> number(IntArrayList calls, int number) {
+		return e -> calls.add(number);
+	}
+
+	// exposes the lists of the handler
+	private static final class Inspected extends MicroEventHandler<BasicEvent> {
+		int size(Priority priority) {
+			return listeners[priority.ordinal()].size();
+		}
+
+		int dead(Priority priority) {
+			int dead = 0;
+			for (IntPair<Listener<BasicEvent>> pair : listeners[priority.ordinal()])
+				if (pair == null) dead++;
+			equal(dead, this.dead[priority.ordinal()], "the count of the tombstones");
+			return dead;
+		}
+
+		int index(int id) {
+			return indices.get(id);
+		}
+	}
+
+	public static class Entity extends BasicEvent implements Keyed {
+		private final long key;
+
+		Entity(long key) {
+			super("entity");
+			this.key = key;
+		}
+
+		@Override
+		public long getKey() {
+			return key;
+		}
+	}
+}
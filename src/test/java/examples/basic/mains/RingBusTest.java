@@ -0,0 +1,149 @@
+package examples.basic.mains;
+
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.RingBufferEventBus;
+import io.github.microevents.RingBufferEventBus.Backpressure;
+import io.github.microevents.RingBufferEventBus.WaitStrategy;
+import io.github.microevents.events.Event;
+import io.github.microevents.events.Priority;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks the ring buffer bus, with producers and consumers on their own threads
+ */
+public class RingBusTest {
+	public static void main(String[] args) throws InterruptedException {
+		producers();
+		failedFills();
+		failedInvokes();
+		drops();
+		interrupted();
+		System.out.println("ring bus ok");
+	}
+
+	// every published event is invoked once, and close waits for them
+	private static void producers() throws InterruptedException {
+		MicroEventManager manager = manager(Tick.class);
+		AtomicLong sum = new AtomicLong(), count = new AtomicLong();
+		manager.registerListener(Tick.class, t -> {
+			sum.addAndGet(t.value);
+			count.incrementAndGet();
+		}, Priority.NORMAL, false);
+		RingBufferEventBus<Tick> bus = new RingBufferEventBus<>(manager, Tick::new, 64, WaitStrategy.YIELD, Backpressure.BLOCK);
+		bus.start(2, Thread::new);
+		Thread[] producers = new Thread[3];
+		for (int p = 0; p < producers.length; p++) {
+			producers[p] = new Thread(() -> {
+				for (int i = 1; i <= 10_000; i++) {
+					int value = i;
+					bus.publish(t -> t.value = value);
+				}
+			});
+			producers[p].start();
+		}
+		for (Thread producer : producers)
+			producer.join();
+		bus.close();
+		equal(30_000, count.get(), "every event is invoked");
+		equal(3 * 10_000L * 10_001 / 2, sum.get(), "every event is invoked once");
+	}
+
+	// a slot whose filler threw is published as skipped, so the events after it are still invoked and the stale event
+	// in it isn't invoked again
+	private static void failedFills() {
+		MicroEventManager manager = manager(Tick.class);
+		List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+		manager.registerListener(Tick.class, t -> values.add(t.value), Priority.NORMAL, false);
+		RingBufferEventBus<Tick> bus = new RingBufferEventBus<>(manager, Tick::new, 4, WaitStrategy.YIELD, Backpressure.BLOCK);
+		bus.start(1, Thread::new);
+		for (int i = 0; i < 10; i++) {
+			int value = i;
+			try {
+				bus.publish(t -> {
+					if (value % 3 == 0) throw new IllegalStateException("unable to fill");
+					t.value = value;
+				});
+				check(value % 3 != 0, "the filler's exception is rethrown");
+			} catch (IllegalStateException e) {
+				check(value % 3 == 0, "only the failing fills throw");
+			}
+		}
+		bus.close();
+		equal("[1, 2, 4, 5, 7, 8]", values.toString(), "the skipped slots aren't invoked");
+	}
+
+	// an exception out of invoke goes to the bus's exception handler and the consumer keeps going
+	private static void failedInvokes() {
+		MicroEventManager manager = manager(Tick.class);
+		manager.setExceptionHandler((id, listener, event, throwable) -> {
+			throw new IllegalStateException("the manager's handler threw", throwable);
+		});
+		IntArrayList values = new IntArrayList();
+		manager.registerListener(Tick.class, t -> {
+			if (t.value == 3) throw new IllegalArgumentException("thrown");
+			synchronized (values) {
+				values.add(t.value);
+			}
+		}, Priority.NORMAL, false);
+		List<Event> failed = Collections.synchronizedList(new ArrayList<>());
+		RingBufferEventBus<Tick> bus = new RingBufferEventBus<>(manager, Tick::new, 4, WaitStrategy.YIELD, Backpressure.BLOCK);
+		bus.setExceptionHandler((id, listener, event, throwable) -> {
+			check(id == -1 && listener == null, "no listener is passed");
+			failed.add(event);
+			return true;
+		});
+		bus.start(1, Thread::new);
+		for (int i = 0; i < 6; i++) {
+			int value = i;
+			bus.publish(t -> t.value = value);
+		}
+		bus.close();
+		equal("[0, 1, 2, 4, 5]", values.toString(), "the consumer kept going");
+		equal(1, failed.size(), "the exception was handled");
+	}
+
+	// without consumers the buffer fills up, and DROP gives up instead of waiting
+	private static void drops() {
+		RingBufferEventBus<Tick> bus = new RingBufferEventBus<>(manager(Tick.class), Tick::new, 8, WaitStrategy.BUSY_SPIN, Backpressure.DROP);
+		for (int i = 0; i < 8; i++)
+			check(bus.publish(t -> t.value = 1), "there is a free slot");
+		check(!bus.publish(t -> t.value = 1), "the event is dropped");
+		equal(-1, bus.tryClaim(), "the buffer is full");
+	}
+
+	// an interrupted close returns with the interrupt status still set, and closing again waits for the consumers
+	private static void interrupted() throws InterruptedException {
+		MicroEventManager manager = manager(Tick.class);
+		CountDownLatch invoked = new CountDownLatch(1), release = new CountDownLatch(1);
+		manager.registerListener(Tick.class, t -> {
+			invoked.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}, Priority.NORMAL, false);
+		RingBufferEventBus<Tick> bus = new RingBufferEventBus<>(manager, Tick::new, 4, WaitStrategy.PARK, Backpressure.BLOCK);
+		bus.start(1, Thread::new);
+		bus.publish(t -> t.value = 1);
+		invoked.await();
+		Thread.currentThread().interrupt();
+		bus.close();
+		check(Thread.interrupted(), "the interrupt status is kept");
+		release.countDown();
+		bus.close();
+		check(!Thread.currentThread().isInterrupted(), "closed without being interrupted");
+	}
+
+	public static class Tick implements Event {
+		int value;
+	}
+}
@@ -0,0 +1,199 @@
+package examples.basic.mains;
+
+import io.github.microevents.EventRingFile;
+import io.github.microevents.EventRingReader;
+import io.github.microevents.events.EventCodec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static examples.basic.Assertions.*;
+
+/**
+ * writes events to a ring file and reads them back in the same process, in order, after a lap and with concurrent
+ * writers
+ */
+public class RingFileTest {
+	public static void main(String[] args) throws Exception {
+		Logger.getLogger("MicroEventManager").setLevel(Level.OFF);
+		Path directory = Files.createTempDirectory("ring");
+		try {
+			ordered(directory.resolve("ordered.ring"));
+			lapped(directory.resolve("lapped.ring"));
+			dropped(directory.resolve("dropped.ring"));
+			failed(directory.resolve("failed.ring"));
+			concurrent(directory.resolve("concurrent.ring"));
+			stale(directory.resolve("stale.ring"));
+		} finally {
+			for (Path path : Files.newDirectoryStream(directory))
+				Files.delete(path);
+			Files.delete(directory);
+		}
+		System.out.println("ring file ok");
+	}
+
+	// events published after the reader opened the file are read in order, types without a codec are skipped
+	private static void ordered(Path path) throws IOException {
+		EventRingFile ring = new EventRingFile(path, 16, 8);
+		EventRingReader reader = new EventRingReader(path);
+		List<Long> read = new ArrayList<>();
+		reader.register(1, new Checked(), read::add);
+		for (long i = 0; i < 5; i++)
+			check(ring.publish(i == 2 ? 2 : 1, i, new Checked()), "published");
+		equal(5, reader.poll(100), "every event, with the skipped one");
+		equal("[0, 1, 3, 4]", read.toString(), "the events of the registered type");
+		equal(0, reader.poll(100), "nothing new");
+		ring.publish(1, 5L, new Checked());
+		equal(1, reader.poll(100), "the new event");
+		equal(0L, reader.getLost(), "nothing lost");
+	}
+
+	// a reader the writer lapped loses the overwritten events and continues after the oldest one left, which may be
+	// overwritten next
+	private static void lapped(Path path) throws IOException {
+		EventRingFile ring = new EventRingFile(path, 16, 8);
+		EventRingReader reader = new EventRingReader(path);
+		List<Long> read = new ArrayList<>();
+		reader.register(1, new Checked(), read::add);
+		for (long i = 0; i < 20; i++)
+			ring.publish(1, i, new Checked());
+		reader.poll(100);
+		equal(13L, reader.getLost(), "the overwritten events and the oldest one");
+		equal("[13, 14, 15, 16, 17, 18, 19]", read.toString(), "the rest of the last lap");
+		equal(20L, reader.getSequence(), "caught up");
+	}
+
+	// events too large for a slot are dropped and skipped by the reader
+	private static void dropped(Path path) throws IOException {
+		EventRingFile ring = new EventRingFile(path, 8, 8);
+		EventRingReader reader = new EventRingReader(path);
+		List<Long> read = new ArrayList<>();
+		reader.register(1, new Checked(), read::add);
+		check(!ring.publish(1, 1L, new Checked()), "two longs don't fit in 8 bytes");
+		check(ring.publish(2, 2L, new Single()), "one long does");
+		reader.register(2, new Single(), read::add);
+		equal(2, reader.poll(100), "both slots");
+		equal("[2]", read.toString(), "only the one that fit");
+		equal(1L, ring.getDropped(), "the dropped event");
+		equal(2L, ring.getPublished(), "both were published");
+	}
+
+	// a codec that throws an error still leaves the slot published, so the reader and the next lap go past it
+	private static void failed(Path path) throws Exception {
+		EventRingFile ring = new EventRingFile(path, 16, 4);
+		EventRingReader reader = new EventRingReader(path);
+		List<Long> read = new ArrayList<>();
+		reader.register(1, new Checked(), read::add);
+		ring.publish(1, 0L, new Checked());
+		try {
+			ring.publish(1, 1L, new EventCodec<Long>() {
+				@Override
+				public void encode(Long event, ByteBuffer buffer) {
+					throw new StackOverflowError();
+				}
+
+				@Override
+				public Long decode(ByteBuffer buffer) {
+					throw new UnsupportedOperationException();
+				}
+			});
+			throw new AssertionError("the error was swallowed");
+		} catch (StackOverflowError expected) {
+		}
+		ring.publish(1, 2L, new Checked());
+		equal(3, reader.poll(100), "past the failed slot");
+		equal("[0, 2]", read.toString(), "the events that were written");
+
+		Thread lap = new Thread(() -> {
+			for (long i = 3; i < 6; i++)
+				ring.publish(1, i, new Checked());
+		});
+		lap.start();
+		lap.join(2000);
+		check(!lap.isAlive(), "the next lap wrote the failed slot");
+		equal(3, reader.poll(100), "the next lap");
+		equal(1L, ring.getDropped(), "the failed event");
+	}
+
+	// writers racing each other and a reader, every event read was written whole
+	private static void concurrent(Path path) throws Exception {
+		EventRingFile ring = new EventRingFile(path, 16, 64);
+		EventRingReader reader = new EventRingReader(path);
+		long[] read = new long[2];
+		reader.register(1, new Checked(), value -> read[value == null ? 1 : 0]++);
+		AtomicBoolean done = new AtomicBoolean();
+		List<Thread> writers = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			long base = (long) t << 32;
+			Thread writer = new Thread(() -> {
+				for (long i = 0; i < 200_000; i++)
+					ring.publish(1, base | i, new Checked());
+			});
+			writers.add(writer);
+			writer.start();
+		}
+		Thread polling = new Thread(() -> {
+			while (!done.get())
+				reader.poll(1000);
+			reader.poll(Integer.MAX_VALUE);
+		});
+		polling.start();
+		for (Thread writer : writers)
+			writer.join();
+		done.set(true);
+		polling.join();
+		equal(800_000L, ring.getPublished(), "every event");
+		equal(ring.getPublished(), reader.getSequence(), "the reader caught up");
+		equal(0L, read[1], "torn events");
+		equal(ring.getPublished(), read[0] + reader.getLost(), "every event was read or lost");
+		check(read[0] > 0, "some were read");
+	}
+
+	// closing the ring or replacing the file makes the reader stale
+	private static void stale(Path path) throws IOException {
+		EventRingFile ring = new EventRingFile(path, 16, 8);
+		EventRingReader reader = new EventRingReader(path);
+		check(!reader.isStale(), "open");
+		ring.close();
+		check(reader.isStale(), "closed");
+		check(!ring.publish(1, 1L, new Checked()), "ignored after closing");
+
+		EventRingReader replaced = new EventRingReader(new EventRingFile(path, 16, 8).getPath());
+		check(!replaced.isStale(), "the new file");
+		new EventRingFile(path, 16, 8);
+		check(replaced.isStale(), "replaced");
+	}
+
+	// writes the value and it's complement, decodes null if they don't match. the reader drops torn events when it sees
+	// the slot was overwritten, so a null only reaches the consumer if it missed that
+	private static final class Checked implements EventCodec<Long> {
+		@Override
+		public void encode(Long event, ByteBuffer buffer) {
+			buffer.putLong(event).putLong(~event);
+		}
+
+		@Override
+		public Long decode(ByteBuffer buffer) {
+			long value = buffer.getLong(), complement = buffer.getLong();
+			return value != ~complement || buffer.hasRemaining() ? null : value;
+		}
+	}
+
+	private static final class Single implements EventCodec<Long> {
+		@Override
+		public void encode(Long event, ByteBuffer buffer) {
+			buffer.putLong(event);
+		}
+
+		@Override
+		public Long decode(ByteBuffer buffer) {
+			return buffer.getLong();
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package examples.basic.mains;
+
+import examples.basic.BasicEvent;
+import io.github.microevents.MicroEventHandler;
+import io.github.microevents.MicroEventManager;
+import io.github.microevents.Watchdog;
+import io.github.microevents.events.Priority;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static examples.basic.Assertions.*;
+import static examples.basic.Managers.manager;
+
+/**
+ * checks that the watchdog demotes the listeners that go over their budgets too often, and that they stay demoted while
+ * the listeners are rewrapped
+ */
+public class WatchdogTest {
+	private static final long BUDGET = 100_000;
+
+	public static void main(String[] args) {
+		Logger.getLogger("MicroEvents Watchdog").setLevel(Level.OFF);
+		report();
+		disable();
+		async();
+		System.out.println("watchdog ok");
+	}
+
+	// reported listeners are never demoted
+	private static void report() {
+		MicroEventManager manager = manager(MicroEventHandler::new, Runnable::run, BasicEvent.class);
+		int[] calls = new int[1];
+		manager.registerListener(BasicEvent.class, e -> slow(calls), Priority.NORMAL, false);
+		manager.setWatchdog(new Watchdog(BUDGET, 1, 2, Watchdog.Action.REPORT));
+		for (int i = 0; i < 4; i++)
+			manager.invoke(new BasicEvent("a"));
+		equal(4, calls[0], "called every time");
+	}
+
+	// a disabled listener stays disabled when the metrics rewrap it, until another watchdog is installed
+	private static void disable() {
+		MicroEventManager manager = manager(MicroEventHandler::new, Runnable::run, BasicEvent.class);
+		int[] slow = new int[1], fast = new int[1];
+		manager.registerListener(BasicEvent.class, e -> slow(slow), Priority.NORMAL, false);
+		manager.setWatchdog(new Watchdog(BUDGET, 1, 2, Watchdog.Action.DISABLE).budget(Priority.LOW, Long.MAX_VALUE));
+		manager.registerListener(BasicEvent.class, e -> fast[0]++, Priority.LOW, false);
+		for (int i = 0; i < 4; i++)
+			manager.invoke(new BasicEvent("a"));
+		equal(2, slow[0], "disabled after two violations");
+		equal(4, fast[0], "the listener within it's budget");
+
+		manager.enableMetrics();
+		manager.invoke(new BasicEvent("a"));
+		manager.disableMetrics();
+		manager.invoke(new BasicEvent("a"));
+		equal(2, slow[0], "still disabled after the rewraps");
+		equal(6, fast[0], "still called");
+
+		manager.setWatchdog(new Watchdog(BUDGET, 1, 2, Watchdog.Action.DISABLE));
+		manager.invoke(new BasicEvent("a"));
+		equal(3, slow[0], "a new watchdog starts over");
+		manager.setWatchdog(null);
+		for (int i = 0; i < 4; i++)
+			manager.invoke(new BasicEvent("a"));
+		equal(7, slow[0], "not watched anymore");
+	}
+
+	// a listener moved to the executor stays there when it's rewrapped
+	private static void async() {
+		List<Runnable> queued = new ArrayList<>();
+		MicroEventManager manager = manager(MicroEventHandler::new, queued::add, BasicEvent.class);
+		int[] calls = new int[1];
+		manager.registerListener(BasicEvent.class, e -> slow(calls), Priority.NORMAL, false);
+		manager.setWatchdog(new Watchdog(BUDGET, 1, 2, Watchdog.Action.ASYNC));
+		for (int i = 0; i < 3; i++)
+			manager.invoke(new BasicEvent("a"));
+		equal(2, calls[0], "called in place until it's demoted");
+		equal(1, queued.size(), "then handed to the executor");
+
+		manager.enableMetrics();
+		manager.invoke(new BasicEvent("a"));
+		equal(2, queued.size(), "still async after the rewrap");
+		queued.forEach(Runnable::run);
+		equal(4, calls[0], "every event got to the listener");
+		equal(1, manager.metrics().event(BasicEvent.class).getInvokes(), "the invoke after the metrics were enabled");
+	}
+
+	private static void slow(int[] calls) {
+		calls[0]++;
+		long end = System.nanoTime() + BUDGET * 20;
+		while (System.nanoTime() < end) Thread.yield();
+	}
+}